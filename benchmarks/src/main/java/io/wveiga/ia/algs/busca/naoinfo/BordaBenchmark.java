@@ -0,0 +1,81 @@
+package io.wveiga.ia.algs.busca.naoinfo;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.wveiga.ia.problema.npuzzle.NPuzzle;
+
+/**
+ * Inserção e retirada de nós nas bordas das buscas não informadas. Fica no pacote das buscas porque a
+ * {@link Borda} e suas implementações não são públicas; cada borda é obtida da busca correspondente.
+ *
+ * @author Welington Veiga
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BordaBenchmark {
+
+	private static final int NOS = 1 << 16;
+
+	@Param({"largura", "profundidade"})
+	private String busca;
+
+	private BuscaNaoInformada<?, ?> buscaNaoInformada;
+
+	@Setup
+	public void prepara() {
+		NPuzzle puzzle = new NPuzzle(3);
+		buscaNaoInformada = "largura".equals(busca) ? new BuscaLargura<>(puzzle) : new BuscaProfundidade<>(puzzle);
+	}
+
+	/**
+	 * Enche uma borda nova e a esvazia, incluindo os redimensionamentos.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NOS)
+	public int encheEsvazia() {
+		Borda borda = buscaNaoInformada.criaBorda();
+		for (int i = 0; i < NOS; i++) {
+			borda.insere(i);
+		}
+		int soma = 0;
+		while (!borda.vazia()) {
+			soma += borda.retira();
+		}
+		return soma;
+	}
+
+	/**
+	 * Alterna inserções e retiradas com a borda mantida em tamanho constante, como no regime estável de uma busca.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(NOS)
+	public int alterna() {
+		Borda borda = buscaNaoInformada.criaBorda();
+		for (int i = 0; i < 64; i++) {
+			borda.insere(i);
+		}
+		int soma = 0;
+		for (int i = 0; i < NOS; i++) {
+			borda.insere(i);
+			soma += borda.retira();
+		}
+		return soma;
+	}
+}
@@ -0,0 +1,33 @@
+package io.wveiga.ia.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks sempre com o {@link GCProfiler}, que informa a taxa de alocação (gc.alloc.rate e
+ * gc.alloc.rate.norm, em bytes por operação) junto de cada medição.
+ *
+ * Aceita as mesmas opções de linha de comando do JMH, por exemplo:
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar NPuzzle -rf json -rff base.json
+ * </pre>
+ *
+ * @author Welington Veiga
+ */
+public final class Benchmarks {
+
+	private Benchmarks() {}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		Options opcoes = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(opcoes).run();
+	}
+}
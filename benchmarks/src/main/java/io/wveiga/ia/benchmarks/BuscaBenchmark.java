@@ -0,0 +1,79 @@
+package io.wveiga.ia.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.wveiga.ia.algs.busca.naoinfo.BuscaLargura;
+import io.wveiga.ia.algs.busca.naoinfo.BuscaProfundidade;
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.localizacao.Local;
+import io.wveiga.ia.problema.localizacao.Localizacao;
+import io.wveiga.ia.problema.npuzzle.NPuzzle;
+import io.wveiga.ia.problema.npuzzle.NPuzzleTabuleiro;
+
+/**
+ * Buscas em largura e em profundidade completas sobre instâncias fixas do 8-Puzzle e de um mapa em grade.
+ *
+ * @author Welington Veiga
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuscaBenchmark {
+
+	/**
+	 * Semente do embaralhamento do 8-Puzzle.
+	 */
+	@Param({"1", "2"})
+	private long semente;
+
+	private NPuzzle puzzle;
+	private Localizacao localizacao;
+
+	@Setup
+	public void prepara() {
+		NPuzzleTabuleiro tabuleiro = Instancias.tabuleiro(3, 30, semente);
+		puzzle = new NPuzzle(tabuleiro);
+		int lado = 200;
+		Grafo<Local> mapa = Instancias.grade(lado, semente);
+		List<Local> locais = Instancias.locais(lado);
+		localizacao = new Localizacao(mapa, locais.get(0), locais.get(locais.size() - 1));
+	}
+
+	@Benchmark
+	public Optional<List<Acao<NPuzzleTabuleiro>>> larguraNPuzzle() {
+		return new BuscaLargura<>(puzzle).buscar();
+	}
+
+	@Benchmark
+	public Optional<List<Acao<NPuzzleTabuleiro>>> profundidadeNPuzzle() {
+		return new BuscaProfundidade<>(puzzle).buscar();
+	}
+
+	@Benchmark
+	public Optional<List<Acao<Local>>> larguraLocalizacao() {
+		return new BuscaLargura<>(localizacao).buscar();
+	}
+
+	@Benchmark
+	public Optional<List<Acao<Local>>> profundidadeLocalizacao() {
+		return new BuscaProfundidade<>(localizacao).buscar();
+	}
+}
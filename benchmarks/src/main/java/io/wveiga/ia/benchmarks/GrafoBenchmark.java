@@ -0,0 +1,69 @@
+package io.wveiga.ia.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.localizacao.Local;
+import io.wveiga.ia.problema.localizacao.Localizacao;
+
+/**
+ * Consulta dos vizinhos de um local, pelo {@link Grafo} e pelos sucessores de uma {@link Localizacao}, percorrendo
+ * os locais de uma grade em sequência.
+ *
+ * @author Welington Veiga
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrafoBenchmark {
+
+	@Param({"100", "1000"})
+	private int lado;
+
+	private Grafo<Local> mapa;
+	private Localizacao localizacao;
+	private Local[] locais;
+	private int proximo;
+
+	@Setup
+	public void prepara() {
+		mapa = Instancias.grade(lado, 7L);
+		List<Local> todos = Instancias.locais(lado);
+		locais = todos.toArray(new Local[todos.size()]);
+		localizacao = new Localizacao(mapa, locais[0], locais[locais.length - 1]);
+	}
+
+	private Local proximoLocal() {
+		Local local = locais[proximo];
+		proximo = proximo + 1 == locais.length ? 0 : proximo + 1;
+		return local;
+	}
+
+	@Benchmark
+	public Set<Grafo.Ligacao<Local>> getAdjacentes() {
+		return mapa.getAdjacentes(proximoLocal());
+	}
+
+	@Benchmark
+	public List<Acao<Local>> sucessores() {
+		return localizacao.sucessores(proximoLocal());
+	}
+}
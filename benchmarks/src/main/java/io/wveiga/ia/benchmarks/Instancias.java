@@ -0,0 +1,85 @@
+package io.wveiga.ia.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import io.wveiga.ia.ed.Custo;
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.problema.localizacao.Local;
+import io.wveiga.ia.problema.npuzzle.NPuzzleMovimento;
+import io.wveiga.ia.problema.npuzzle.NPuzzleTabuleiro;
+
+/**
+ * Instâncias fixas dos problemas usados nos benchmarks, geradas a partir de sementes para que as medições
+ * sejam comparáveis entre execuções.
+ *
+ * @author Welington Veiga
+ */
+final class Instancias {
+
+	private Instancias() {}
+
+	/**
+	 * Tabuleiro obtido por movimentos aleatórios a partir da solução, e por isso sempre solucionável.
+	 *
+	 * @param n tamanho do tabuleiro.
+	 * @param movimentos número de movimentos aplicados.
+	 * @param semente semente dos movimentos.
+	 * @return tabuleiro embaralhado.
+	 */
+	static NPuzzleTabuleiro tabuleiro(int n, int movimentos, long semente) {
+		Random aleatorio = new Random(semente);
+		NPuzzleMovimento[] todos = NPuzzleMovimento.values();
+		NPuzzleTabuleiro tabuleiro = NPuzzleTabuleiro.objetivo(n);
+		NPuzzleMovimento anterior = null;
+		for (int i = 0; i < movimentos; i++) {
+			NPuzzleMovimento movimento = todos[aleatorio.nextInt(todos.length)];
+			if (tabuleiro.eAplicavelA(movimento) && movimento.getOposto() != anterior) {
+				tabuleiro = tabuleiro.aplica(movimento);
+				anterior = movimento;
+			} else {
+				i--;
+			}
+		}
+		return tabuleiro;
+	}
+
+	/**
+	 * Locais de uma grade quadrada, nomeados pela linha e coluna.
+	 */
+	static List<Local> locais(int lado) {
+		List<Local> locais = new ArrayList<>(lado * lado);
+		for (int i = 0; i < lado; i++) {
+			for (int j = 0; j < lado; j++) {
+				locais.add(new Local(i + "," + j));
+			}
+		}
+		return locais;
+	}
+
+	/**
+	 * Mapa em grade quadrada, com ligações bidirecionais entre locais vizinhos e pesos aleatórios de 1 a 100.
+	 *
+	 * @param lado número de locais de cada lado da grade.
+	 * @param semente semente dos pesos.
+	 * @return mapa em grade.
+	 */
+	static Grafo<Local> grade(int lado, long semente) {
+		Random aleatorio = new Random(semente);
+		List<Local> locais = locais(lado);
+		Grafo.GrafoBuilder<Local> mapa = Grafo.builder();
+		for (int i = 0; i < lado; i++) {
+			for (int j = 0; j < lado; j++) {
+				Local local = locais.get(i * lado + j);
+				if (i + 1 < lado) {
+					mapa.addLigacaoBiderecional(local, locais.get((i + 1) * lado + j), Custo.de(1 + aleatorio.nextInt(100)));
+				}
+				if (j + 1 < lado) {
+					mapa.addLigacaoBiderecional(local, locais.get(i * lado + j + 1), Custo.de(1 + aleatorio.nextInt(100)));
+				}
+			}
+		}
+		return mapa.build();
+	}
+}
@@ -0,0 +1,83 @@
+package io.wveiga.ia.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.npuzzle.NPuzzle;
+import io.wveiga.ia.problema.npuzzle.NPuzzleMovimento;
+import io.wveiga.ia.problema.npuzzle.NPuzzleTabuleiro;
+
+/**
+ * Operações do N-Puzzle executadas a cada nó das buscas: aplicação de movimentos, hash e igualdade dos
+ * tabuleiros e geração de sucessores.
+ *
+ * @author Welington Veiga
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NPuzzleBenchmark {
+
+	@Param({"3", "4"})
+	private int n;
+
+	private NPuzzle puzzle;
+	private NPuzzleTabuleiro tabuleiro;
+	private NPuzzleTabuleiro igual;
+	private NPuzzleTabuleiro diferente;
+	private NPuzzleMovimento movimento;
+
+	@Setup
+	public void prepara() {
+		tabuleiro = Instancias.tabuleiro(n, 40, 42L);
+		igual = NPuzzleTabuleiro.decodifica(n, tabuleiro.getCodigo());
+		puzzle = new NPuzzle(tabuleiro);
+		for (NPuzzleMovimento candidato : NPuzzleMovimento.values()) {
+			if (tabuleiro.eAplicavelA(candidato)) {
+				movimento = candidato;
+			}
+		}
+		diferente = tabuleiro.aplica(movimento);
+	}
+
+	@Benchmark
+	public NPuzzleTabuleiro aplica() {
+		return tabuleiro.aplica(movimento);
+	}
+
+	@Benchmark
+	public int hashCodeTabuleiro() {
+		return tabuleiro.hashCode();
+	}
+
+	@Benchmark
+	public boolean equalsIgual() {
+		return tabuleiro.equals(igual);
+	}
+
+	@Benchmark
+	public boolean equalsDiferente() {
+		return tabuleiro.equals(diferente);
+	}
+
+	@Benchmark
+	public List<Acao<NPuzzleTabuleiro>> sucessores() {
+		return puzzle.sucessores(tabuleiro);
+	}
+}
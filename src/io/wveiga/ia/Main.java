@@ -3,16 +3,32 @@ package io.wveiga.ia;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+import io.wveiga.ia.algs.busca.Busca;
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.BuscaOrcada;
+import io.wveiga.ia.algs.busca.EstatisticasBusca;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.info.BuscaAEstrela;
+import io.wveiga.ia.algs.busca.info.BuscaAEstrelaAnytime;
+import io.wveiga.ia.algs.busca.info.BuscaIDAEstrelaNPuzzle;
+import io.wveiga.ia.algs.busca.naoinfo.BuscaCustoUniforme;
 import io.wveiga.ia.algs.busca.naoinfo.BuscaLargura;
-import io.wveiga.ia.algs.busca.naoinfo.BuscaNaoInformada;
 import io.wveiga.ia.algs.busca.naoinfo.BuscaProfundidade;
+import io.wveiga.ia.algs.grafo.BuscaHierarquiaContracao;
+import io.wveiga.ia.algs.grafo.CacheRotas;
+import io.wveiga.ia.algs.grafo.HierarquiaContracao;
+import io.wveiga.ia.algs.grafo.Marcos;
+import io.wveiga.ia.algs.grafo.MatrizDistancias;
 import io.wveiga.ia.ed.Custo;
 import io.wveiga.ia.ed.Grafo;
 import io.wveiga.ia.problema.Acao;
 import io.wveiga.ia.problema.localizacao.Local;
 import io.wveiga.ia.problema.localizacao.Localizacao;
+import io.wveiga.ia.problema.localizacao.LocalizacaoHeuristica;
 import io.wveiga.ia.problema.npuzzle.NPuzzle;
+import io.wveiga.ia.problema.npuzzle.NPuzzleManhattan;
 import io.wveiga.ia.problema.npuzzle.NPuzzleTabuleiro;
 
 public class Main {
@@ -31,9 +47,10 @@ public class Main {
 		System.out.println("Estado Inicial\n"+puzzle.estadoInicial()+"\n\n");
 		
 		// 2 - Instânciando Buscas e adicionando em uma lista com cada algoritmo.
-		List<BuscaNaoInformada<NPuzzleTabuleiro, NPuzzle>> buscas = Arrays.asList(
+		List<Busca<NPuzzleTabuleiro>> buscas = Arrays.asList(
 				new BuscaProfundidade<>(puzzle),
-				new BuscaLargura<>(puzzle)
+				new BuscaLargura<>(puzzle),
+				new BuscaAEstrela<>(puzzle, new NPuzzleManhattan())
 		);
 		
 		
@@ -43,6 +60,12 @@ public class Main {
 				StringBuilder saida = new StringBuilder();
 				boolean solucaoEncontrada = false;
 				
+				// 3.0 Buscas monitoráveis informam nós expandidos, borda, tempos e memória alocada.
+				EstatisticasBusca<NPuzzleTabuleiro> estatisticas = new EstatisticasBusca<>();
+				if (busca instanceof BuscaMonitoravel) {
+					((BuscaMonitoravel<NPuzzleTabuleiro>) busca).setMonitor(estatisticas);
+				}
+				
 				System.out.println(busca.getClass().getName()+": Iniciando Busca...");
 				long start = System.currentTimeMillis();
 				
@@ -64,10 +87,30 @@ public class Main {
 						+ ": busca finalizada, solução encontrada: "
 						+solucaoEncontrada+" Tempo (ms): "
 						+ (end - start)
+						+ (busca instanceof BuscaMonitoravel ? "\n" + estatisticas : "")
 						+ "\n"
 						+ saida);
 			});
+		
+		// 4 - Em um 15-Puzzle a busca pode não terminar em tempo razoável, então ela recebe um orçamento.
+		NPuzzle puzzle15 = new NPuzzle(4);
+		Orcamento orcamento = Orcamento.ilimitado()
+				.comPrazo(2, TimeUnit.SECONDS)
+				.comMaximoFechados(2_000_000);
+		List<BuscaOrcada<NPuzzleTabuleiro>> orcadas = Arrays.asList(
+				new BuscaAEstrela<>(puzzle15, new NPuzzleManhattan()),
+				new BuscaIDAEstrelaNPuzzle(puzzle15)
+		);
+		for (BuscaOrcada<NPuzzleTabuleiro> busca : orcadas) {
+			System.out.println(busca.getClass().getName() + ": " + busca.buscar(orcamento));
+		}
+
+		// 5 - A busca anytime publica soluções cada vez melhores até a ótima ou o fim do prazo.
+		BuscaAEstrelaAnytime<NPuzzleTabuleiro, NPuzzle> anytime = new BuscaAEstrelaAnytime<>(puzzle15, new NPuzzleManhattan());
+		System.out.println(anytime.getClass().getName() + ": "
+				+ anytime.buscar(Orcamento.ilimitado().comPrazo(2, TimeUnit.SECONDS), System.out::println));
 	}
+
 	
 	private static void problemaLocalizacao(){
 		// 1 - Criando Problema que deve ser resolvido
@@ -94,10 +137,37 @@ public class Main {
 		
 		System.out.println("Estado Inicial\n"+localizacao.estadoInicial()+"\n\n");
 		
+		// 1.1 - Distâncias em linha reta até Bucareste, usadas como heurística pela busca A*.
+		LocalizacaoHeuristica linhaReta = new LocalizacaoHeuristica()
+				.addEstimativa(new Local("Arad"), 366d)
+				.addEstimativa(new Local("Bucareste"), 0d)
+				.addEstimativa(new Local("Craiova"), 160d)
+				.addEstimativa(new Local("Dobreta"), 242d)
+				.addEstimativa(new Local("Fagaras"), 176d)
+				.addEstimativa(new Local("Lugoj"), 244d)
+				.addEstimativa(new Local("Mehadia"), 241d)
+				.addEstimativa(new Local("Orades"), 380d)
+				.addEstimativa(new Local("Pitesti"), 100d)
+				.addEstimativa(new Local("RimnicuVilcea"), 193d)
+				.addEstimativa(new Local("Sibiu"), 253d)
+				.addEstimativa(new Local("Temisoara"), 329d)
+				.addEstimativa(new Local("Zerind"), 374d);
+		
+		// 1.2 - Cache das rotas já calculadas pela hierarquia de contração.
+		HierarquiaContracao<Local> hierarquia = HierarquiaContracao.constroi(mapa);
+		CacheRotas<Local, Localizacao> rotas = new CacheRotas<>(1024, problema -> new BuscaHierarquiaContracao<>(problema, hierarquia));
+		
 		// 2 - Instânciando Buscas e adicionando em uma lista com cada algoritmo.
-		List<BuscaNaoInformada<Local, Localizacao>> buscas = Arrays.asList(
+		List<Busca<Local>> buscas = Arrays.asList(
 				new BuscaProfundidade<>(localizacao),
-				new BuscaLargura<>(localizacao)
+				new BuscaLargura<>(localizacao),
+				new BuscaCustoUniforme<>(localizacao),
+				new BuscaAEstrela<>(localizacao, linhaReta),
+				new BuscaAEstrelaAnytime<>(localizacao, linhaReta),
+				new BuscaAEstrela<>(localizacao, Marcos.seleciona(mapa, 4).heuristica(localizacao.estadoObjetivo())),
+				new BuscaHierarquiaContracao<>(localizacao, hierarquia),
+				rotas.busca(localizacao),
+				rotas.busca(localizacao)
 		);
 		
 		
@@ -107,6 +177,12 @@ public class Main {
 				StringBuilder saida = new StringBuilder();
 				boolean solucaoEncontrada = false;
 				
+				// 3.0 Buscas monitoráveis informam nós expandidos, borda, tempos e memória alocada.
+				EstatisticasBusca<Local> estatisticas = new EstatisticasBusca<>();
+				if (busca instanceof BuscaMonitoravel) {
+					((BuscaMonitoravel<Local>) busca).setMonitor(estatisticas);
+				}
+				
 				System.out.println(busca.getClass().getName()+": Iniciando Busca...");
 				long start = System.currentTimeMillis();
 				
@@ -128,9 +204,16 @@ public class Main {
 						+ ": busca finalizada, solução encontrada: "
 						+solucaoEncontrada+" Tempo (ms): "
 						+ (end - start)
+						+ (busca instanceof BuscaMonitoravel ? "\n" + estatisticas : "")
 						+ "\n"
 						+ saida);
 			});
+		
+		System.out.println(rotas.getCache());
+		
+		// 4 - Distâncias entre várias origens e vários destinos de uma só vez.
+		List<Local> cidades = Arrays.asList(new Local("Arad"), new Local("Craiova"), new Local("Bucareste"));
+		System.out.println(MatrizDistancias.calcula(mapa, cidades, cidades));
 	}
 
 }
@@ -0,0 +1,23 @@
+package io.wveiga.ia.algs.busca;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.wveiga.ia.problema.Acao;
+
+/**
+ * Contrato comum a todas as buscas, informadas ou não.
+ * 
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ */
+public interface Busca<S> {
+
+	/**
+	 * Realiza a busca pela solução do problema.
+	 * 
+	 * @return Opcional com a lista de ações caso a solução seja encontrada ou vazio, caso contrário.
+	 */
+	Optional<List<Acao<S>>> buscar();
+}
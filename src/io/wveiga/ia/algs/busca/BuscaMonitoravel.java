@@ -0,0 +1,22 @@
+package io.wveiga.ia.algs.busca;
+
+/**
+ * Busca que informa seus eventos a um {@link MonitorBusca}.
+ *
+ * O monitor recebe os eventos de todos os modos de execução da busca, inclusive de variantes como a busca por camadas
+ * ou o aprofundamento iterativo. Buscas sem uma borda única informam em {@link MonitorBusca#gerado(int)} a medida
+ * equivalente de memória, documentada em cada uma delas.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ */
+public interface BuscaMonitoravel<S> extends Busca<S> {
+
+	/**
+	 * Define o monitor das próximas execuções da busca.
+	 *
+	 * @param monitor monitor, ou nulo para não monitorar.
+	 */
+	void setMonitor(MonitorBusca<S> monitor);
+}
@@ -0,0 +1,19 @@
+package io.wveiga.ia.algs.busca;
+
+/**
+ * Busca que respeita um {@link Orcamento} de tempo, expansões e memória, e pode ser cancelada.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ */
+public interface BuscaOrcada<S> extends Busca<S> {
+
+	/**
+	 * Realiza a busca até encontrar a solução, esgotar o espaço de estados ou esgotar o orçamento.
+	 *
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	ResultadoBusca<S> buscar(Orcamento orcamento);
+}
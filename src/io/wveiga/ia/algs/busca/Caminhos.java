@@ -0,0 +1,58 @@
+package io.wveiga.ia.algs.busca;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.wveiga.ia.ed.ArenaNos;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.problema.ProblemaCodificavel;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Árvores de busca guardadas em uma {@link ArenaNos} e a reconstrução das ações da solução.
+ *
+ * Os nós guardam, no lugar da ação, a sua posição na lista de {@link Problema#sucessores(Object)} do estado pai. As
+ * ações só são refeitas ao reconstruir o caminho, gerando novamente os sucessores de cada estado do caminho, o que
+ * exige que o problema gere os sucessores de um estado sempre na mesma ordem.
+ *
+ * @author Welington Veiga
+ */
+public final class Caminhos {
+
+	private Caminhos() {}
+
+	/**
+	 * Cria a arena mais adequada para o problema: codificada quando o problema sabe codificar seus estados.
+	 */
+	public static <S> ArenaNos<S> arena(Problema<S> problema) {
+		if (problema instanceof ProblemaCodificavel) {
+			ProblemaCodificavel<S> codificavel = (ProblemaCodificavel<S>) problema;
+			return ArenaNos.codificada(codificavel::codifica, codificavel::decodifica);
+		}
+		return new ArenaNos<>();
+	}
+
+	/**
+	 * Ações do caminho da raiz até o nó informado, começando pela ação nula do estado inicial.
+	 *
+	 * @param problema problema que gerou a árvore.
+	 * @param nos árvore de busca.
+	 * @param no último nó do caminho.
+	 * @return ações do caminho, a partir do estado inicial.
+	 */
+	public static <S> List<Acao<S>> reconstroi(Problema<S> problema, ArenaNos<S> nos, int no) {
+		int[] caminho = nos.caminhoAte(no);
+		List<Acao<S>> acoes = new ArrayList<>(caminho.length);
+		S estado = nos.estado(caminho[0]);
+		acoes.add(Acao.nenhuma(estado));
+		for (int i = 1; i < caminho.length; i++) {
+			Acao<S> acao = problema.sucessores(estado).get(nos.acao(caminho[i]));
+			estado = acao.getEstadoAlvo();
+			Preconditions.verify(estado.equals(nos.estado(caminho[i])),
+					"Sucessores devem ser gerados sempre na mesma ordem");
+			acoes.add(acao);
+		}
+		return acoes;
+	}
+}
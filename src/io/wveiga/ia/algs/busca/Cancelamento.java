@@ -0,0 +1,29 @@
+package io.wveiga.ia.algs.busca;
+
+/**
+ * Sinal de cancelamento de uma ou mais buscas, que pode ser acionado por qualquer thread.
+ *
+ * As buscas verificam o sinal entre uma expansão e outra e terminam com {@link ResultadoBusca.Situacao#CANCELADA}.
+ *
+ * @author Welington Veiga
+ */
+public final class Cancelamento {
+
+	private volatile boolean cancelado;
+
+	/**
+	 * Solicita o cancelamento das buscas que usam este sinal.
+	 */
+	public void cancela() {
+		cancelado = true;
+	}
+
+	public boolean isCancelado() {
+		return cancelado;
+	}
+
+	@Override
+	public String toString() {
+		return "Cancelamento [cancelado=" + cancelado + "]";
+	}
+}
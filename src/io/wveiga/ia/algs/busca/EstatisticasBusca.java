@@ -0,0 +1,191 @@
+package io.wveiga.ia.algs.busca;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import io.wveiga.ia.problema.Acao;
+
+/**
+ * Monitor que acumula as métricas de uma execução de busca: nós expandidos, gerados e repetidos, maior tamanho da
+ * borda, profundidade e custo da solução, duração de cada fase e bytes alocados pela thread da busca.
+ *
+ * Os bytes alocados são obtidos dos contadores de alocação por thread da JVM
+ * ({@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}), e valem -1 quando a JVM não os oferece.
+ * Os valores são reiniciados a cada busca. Instâncias desta classe não devem ser compartilhadas entre buscas
+ * executadas ao mesmo tempo.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca é realizada.
+ */
+public class EstatisticasBusca<S> implements MonitorBusca<S> {
+
+	private static final com.sun.management.ThreadMXBean ALOCACAO = alocacao();
+
+	private long expandidos;
+	private long gerados;
+	private long repetidos;
+	private int picoBorda;
+	private final long[] fases = new long[Fase.values().length];
+	private long inicioNanos;
+	private long duracao;
+	private long bytesInicio;
+	private long bytesAlocados;
+	private boolean solucionada;
+	private int profundidade;
+	private double custo;
+
+	public EstatisticasBusca() {
+		reinicia();
+	}
+
+	private static com.sun.management.ThreadMXBean alocacao() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean alocacao = (com.sun.management.ThreadMXBean) bean;
+			if (alocacao.isThreadAllocatedMemorySupported() && alocacao.isThreadAllocatedMemoryEnabled()) {
+				return alocacao;
+			}
+		}
+		return null;
+	}
+
+	private static long bytesDaThread() {
+		return ALOCACAO == null ? -1L : ALOCACAO.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	@Override
+	public void inicio() {
+		reinicia();
+	}
+
+	/**
+	 * Zera as métricas e marca o início da medição. Privado para que o construtor não dependa de sobrescritas de
+	 * {@link #inicio()}.
+	 */
+	private void reinicia() {
+		expandidos = 0;
+		gerados = 0;
+		repetidos = 0;
+		picoBorda = 0;
+		Arrays.fill(fases, 0L);
+		duracao = 0;
+		bytesAlocados = -1L;
+		solucionada = false;
+		profundidade = -1;
+		custo = Double.POSITIVE_INFINITY;
+		bytesInicio = bytesDaThread();
+		inicioNanos = System.nanoTime();
+	}
+
+	@Override
+	public void expandido() {
+		expandidos++;
+	}
+
+	@Override
+	public void gerado(int tamanhoBorda) {
+		gerados++;
+		if (tamanhoBorda > picoBorda) {
+			picoBorda = tamanhoBorda;
+		}
+	}
+
+	@Override
+	public void repetido() {
+		repetidos++;
+	}
+
+	@Override
+	public void fase(Fase fase, long nanos) {
+		fases[fase.ordinal()] += nanos;
+	}
+
+	@Override
+	public void fim(Optional<List<Acao<S>>> solucao) {
+		duracao = System.nanoTime() - inicioNanos;
+		long bytes = bytesDaThread();
+		bytesAlocados = bytes < 0 || bytesInicio < 0 ? -1L : bytes - bytesInicio;
+		solucionada = solucao.isPresent();
+		if (solucionada) {
+			List<Acao<S>> acoes = solucao.get();
+			profundidade = acoes.size() - 1;
+			custo = 0d;
+			for (Acao<S> acao : acoes.subList(1, acoes.size())) {
+				custo += acao.getCusto().toDouble();
+			}
+		}
+	}
+
+	public long getExpandidos() {
+		return expandidos;
+	}
+
+	public long getGerados() {
+		return gerados;
+	}
+
+	/**
+	 * @return número de sucessores descartados por já terem sido alcançados.
+	 */
+	public long getRepetidos() {
+		return repetidos;
+	}
+
+	/**
+	 * @return maior tamanho da borda durante a busca.
+	 */
+	public int getPicoBorda() {
+		return picoBorda;
+	}
+
+	/**
+	 * @return duração da fase, em nanossegundos.
+	 */
+	public long getNanos(Fase fase) {
+		return fases[fase.ordinal()];
+	}
+
+	/**
+	 * @return duração total da busca, em nanossegundos.
+	 */
+	public long getDuracao() {
+		return duracao;
+	}
+
+	/**
+	 * @return bytes alocados pela thread da busca, -1 se a JVM não informa alocações por thread.
+	 */
+	public long getBytesAlocados() {
+		return bytesAlocados;
+	}
+
+	public boolean isSolucionada() {
+		return solucionada;
+	}
+
+	/**
+	 * @return número de ações da solução, -1 se não há solução.
+	 */
+	public int getProfundidade() {
+		return profundidade;
+	}
+
+	/**
+	 * @return soma dos custos das ações da solução, {@link Double#POSITIVE_INFINITY} se não há solução.
+	 */
+	public double getCusto() {
+		return custo;
+	}
+
+	@Override
+	public String toString() {
+		return "EstatisticasBusca [expandidos=" + expandidos + ", gerados=" + gerados + ", repetidos=" + repetidos
+				+ ", picoBorda=" + picoBorda + ", profundidade=" + profundidade + ", custo=" + custo
+				+ ", preparacao(ns)=" + getNanos(Fase.PREPARACAO) + ", exploracao(ns)=" + getNanos(Fase.EXPLORACAO)
+				+ ", reconstrucao(ns)=" + getNanos(Fase.RECONSTRUCAO) + ", total(ns)=" + duracao
+				+ ", bytesAlocados=" + bytesAlocados + "]";
+	}
+}
@@ -0,0 +1,65 @@
+package io.wveiga.ia.algs.busca;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Laço de uma busca que recebe o monitor e o controle do orçamento como parâmetros, ambos opcionais.
+ *
+ * As buscas implementam o laço uma única vez, verificando <code>monitor != null</code> e <code>controle != null</code>
+ * antes de cada evento ou verificação, e usam os métodos desta interface para executá-lo com ou sem orçamento. Assim,
+ * sem monitor e sem orçamento, não há nenhuma chamada nem medição de tempo.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca é realizada.
+ */
+@FunctionalInterface
+public interface ExecucaoBusca<S> {
+
+	/**
+	 * @param monitor monitor dos eventos, ou nulo.
+	 * @param controle controle do orçamento, ou nulo para não haver limites.
+	 * @return solução encontrada, ou vazio.
+	 */
+	Optional<List<Acao<S>>> executa(MonitorBusca<S> monitor, Orcamento.Controle controle);
+
+	/**
+	 * Executa a busca sem orçamento, informando o início e o fim ao monitor, se houver.
+	 *
+	 * @param monitor monitor da busca, ou nulo.
+	 * @param busca laço da busca.
+	 * @return solução encontrada, ou vazio.
+	 */
+	static <S> Optional<List<Acao<S>>> monitorada(MonitorBusca<S> monitor, ExecucaoBusca<S> busca) {
+		if (monitor == null) {
+			return busca.executa(null, null);
+		}
+		monitor.inicio();
+		Optional<List<Acao<S>>> solucao = busca.executa(monitor, null);
+		monitor.fim(solucao);
+		return solucao;
+	}
+
+	/**
+	 * Executa a busca respeitando o orçamento. As estatísticas da execução e o monitor, se houver, recebem os eventos.
+	 *
+	 * @param monitor monitor da busca, ou nulo.
+	 * @param orcamento limites da busca, não nulo.
+	 * @param busca laço da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	static <S> ResultadoBusca<S> orcada(MonitorBusca<S> monitor, Orcamento orcamento, ExecucaoBusca<S> busca) {
+		Preconditions.nonNull(orcamento);
+		EstatisticasBusca<S> estatisticas = new EstatisticasBusca<>();
+		MonitorBusca<S> eventos = MonitorBusca.ambos(estatisticas, monitor);
+		Orcamento.Controle controle = orcamento.inicia();
+		eventos.inicio();
+		Optional<List<Acao<S>>> solucao = busca.executa(eventos, controle);
+		eventos.fim(solucao);
+		return ResultadoBusca.de(solucao, controle, estatisticas);
+	}
+}
@@ -0,0 +1,142 @@
+package io.wveiga.ia.algs.busca;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.wveiga.ia.problema.Acao;
+
+/**
+ * Observador dos eventos de uma busca, para coleta de métricas.
+ *
+ * As buscas chamam o monitor apenas quando há um monitor definido, veja {@link BuscaMonitoravel}: sem monitor não há
+ * nenhuma chamada nem medição de tempo. Todos os métodos são opcionais e, em buscas sequenciais, são chamados pela
+ * thread que executa a busca.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca é realizada.
+ */
+public interface MonitorBusca<S> {
+
+	/**
+	 * Fases de uma busca, cronometradas separadamente.
+	 */
+	enum Fase {
+		/**
+		 * Criação das estruturas e inserção do estado inicial.
+		 */
+		PREPARACAO,
+		/**
+		 * Laço principal, até encontrar a solução ou esgotar a borda.
+		 */
+		EXPLORACAO,
+		/**
+		 * Montagem da lista de ações da solução.
+		 */
+		RECONSTRUCAO
+	}
+
+	/**
+	 * Início de uma busca.
+	 */
+	default void inicio() {}
+
+	/**
+	 * Um nó foi retirado da borda e teve seus sucessores gerados.
+	 */
+	default void expandido() {}
+
+	/**
+	 * Um nó foi inserido na borda.
+	 *
+	 * @param tamanhoBorda tamanho da borda após a inserção.
+	 */
+	default void gerado(int tamanhoBorda) {}
+
+	/**
+	 * Um sucessor foi descartado por já ter sido alcançado.
+	 */
+	default void repetido() {}
+
+	/**
+	 * Fim de uma fase da busca.
+	 *
+	 * @param fase fase encerrada.
+	 * @param nanos duração da fase, em nanossegundos.
+	 */
+	default void fase(Fase fase, long nanos) {}
+
+	/**
+	 * Fim da busca.
+	 *
+	 * @param solucao resultado retornado pela busca.
+	 */
+	default void fim(Optional<List<Acao<S>>> solucao) {}
+
+	/**
+	 * Monitor que repassa os eventos aos dois monitores, na ordem.
+	 *
+	 * @param primeiro primeiro monitor, não nulo.
+	 * @param segundo segundo monitor, ou nulo.
+	 * @return monitor combinado, ou o próprio primeiro se o segundo é nulo.
+	 */
+	static <S> MonitorBusca<S> ambos(MonitorBusca<S> primeiro, MonitorBusca<S> segundo) {
+		if (segundo == null) {
+			return primeiro;
+		}
+		return new MonitorBusca<S>() {
+			@Override
+			public void inicio() {
+				primeiro.inicio();
+				segundo.inicio();
+			}
+
+			@Override
+			public void expandido() {
+				primeiro.expandido();
+				segundo.expandido();
+			}
+
+			@Override
+			public void gerado(int tamanhoBorda) {
+				primeiro.gerado(tamanhoBorda);
+				segundo.gerado(tamanhoBorda);
+			}
+
+			@Override
+			public void repetido() {
+				primeiro.repetido();
+				segundo.repetido();
+			}
+
+			@Override
+			public void fase(Fase fase, long nanos) {
+				primeiro.fase(fase, nanos);
+				segundo.fase(fase, nanos);
+			}
+
+			@Override
+			public void fim(Optional<List<Acao<S>>> solucao) {
+				primeiro.fim(solucao);
+				segundo.fim(solucao);
+			}
+		};
+	}
+
+	/**
+	 * Encerra uma fase medida a partir de <code>inicio</code>, se houver monitor.
+	 *
+	 * @param monitor monitor da busca, ou nulo.
+	 * @param fase fase encerrada.
+	 * @param inicio instante do início da fase, obtido de {@link System#nanoTime()} ou do término da fase anterior.
+	 * @return instante do término da fase, ou 0 sem monitor.
+	 */
+	static long marca(MonitorBusca<?> monitor, Fase fase, long inicio) {
+		if (monitor == null) {
+			return 0L;
+		}
+		long agora = System.nanoTime();
+		monitor.fase(fase, agora - inicio);
+		return agora;
+	}
+}
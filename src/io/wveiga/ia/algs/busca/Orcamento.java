@@ -0,0 +1,200 @@
+package io.wveiga.ia.algs.busca;
+
+import java.util.concurrent.TimeUnit;
+
+import io.wveiga.ia.algs.busca.ResultadoBusca.Situacao;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Limites de recursos de uma busca: tempo máximo, número máximo de expansões, número máximo de estados fechados
+ * e um sinal externo de {@link Cancelamento}.
+ *
+ * Instâncias são imutáveis e podem ser reaproveitadas entre buscas: cada limite é definido por um método
+ * <code>com...</code> que retorna um novo orçamento. O tempo é contado a partir do início de cada busca.
+ *
+ * <pre>
+ * Orcamento orcamento = Orcamento.ilimitado()
+ * 		.comPrazo(200, TimeUnit.MILLISECONDS)
+ * 		.comMaximoFechados(5_000_000);
+ * </pre>
+ *
+ * @author Welington Veiga
+ */
+public final class Orcamento {
+
+	/**
+	 * Número de expansões entre duas consultas ao relógio.
+	 */
+	private static final int INTERVALO_RELOGIO = 64;
+
+	private static final long SEM_LIMITE = Long.MAX_VALUE;
+
+	private static final Orcamento ILIMITADO = new Orcamento(SEM_LIMITE, SEM_LIMITE, SEM_LIMITE, null);
+
+	private final long nanos;
+	private final long expansoes;
+	private final long fechados;
+	private final Cancelamento cancelamento;
+
+	private Orcamento(long nanos, long expansoes, long fechados, Cancelamento cancelamento) {
+		this.nanos = nanos;
+		this.expansoes = expansoes;
+		this.fechados = fechados;
+		this.cancelamento = cancelamento;
+	}
+
+	/**
+	 * @return orçamento sem nenhum limite.
+	 */
+	public static Orcamento ilimitado() {
+		return ILIMITADO;
+	}
+
+	/**
+	 * @param duracao tempo máximo de cada busca, a partir do seu início.
+	 * @param unidade unidade da duração.
+	 * @return novo orçamento com o prazo.
+	 */
+	public Orcamento comPrazo(long duracao, TimeUnit unidade) {
+		Preconditions.nonNull(unidade);
+		Preconditions.verify(duracao >= 0, "Prazo não pode ser negativo");
+		return new Orcamento(unidade.toNanos(duracao), expansoes, fechados, cancelamento);
+	}
+
+	/**
+	 * @param maximo número máximo de nós expandidos.
+	 * @return novo orçamento com o limite de expansões.
+	 */
+	public Orcamento comMaximoExpansoes(long maximo) {
+		Preconditions.verify(maximo >= 0, "Máximo de expansões não pode ser negativo");
+		return new Orcamento(nanos, maximo, fechados, cancelamento);
+	}
+
+	/**
+	 * Limita a memória da busca pelo número de estados guardados: os fechados nas buscas não informadas e todos os
+	 * estados alcançados no A*.
+	 *
+	 * @param maximo número máximo de estados guardados.
+	 * @return novo orçamento com o limite de estados.
+	 */
+	public Orcamento comMaximoFechados(long maximo) {
+		Preconditions.verify(maximo >= 0, "Máximo de fechados não pode ser negativo");
+		return new Orcamento(nanos, expansoes, maximo, cancelamento);
+	}
+
+	/**
+	 * @param cancelamento sinal externo de cancelamento.
+	 * @return novo orçamento com o sinal de cancelamento.
+	 */
+	public Orcamento comCancelamento(Cancelamento cancelamento) {
+		Preconditions.nonNull(cancelamento);
+		return new Orcamento(nanos, expansoes, fechados, cancelamento);
+	}
+
+	/**
+	 * Inicia a contagem do orçamento para uma busca.
+	 *
+	 * @return controle do orçamento, exclusivo da busca que o iniciou.
+	 */
+	public Controle inicia() {
+		return new Controle(this, System.nanoTime());
+	}
+
+	@Override
+	public String toString() {
+		return "Orcamento [nanos=" + limite(nanos) + ", expansoes=" + limite(expansoes) + ", fechados=" + limite(fechados)
+				+ ", cancelamento=" + (cancelamento != null) + "]";
+	}
+
+	private static String limite(long valor) {
+		return valor == SEM_LIMITE ? "ilimitado" : Long.toString(valor);
+	}
+
+	/**
+	 * Consumo do orçamento por uma busca em andamento.
+	 */
+	public static final class Controle {
+
+		private final Orcamento orcamento;
+		private final long inicio;
+		private long verificacoes;
+		private Situacao interrupcao;
+
+		private Controle(Orcamento orcamento, long inicio) {
+			this.orcamento = orcamento;
+			this.inicio = inicio;
+		}
+
+		/**
+		 * Verifica se a busca pode fazer mais uma expansão. O relógio é consultado apenas a cada 64 verificações.
+		 * Quando algum limite é atingido, ele fica registrado em {@link #getInterrupcao()}.
+		 *
+		 * @param expandidos nós expandidos até agora.
+		 * @param fechados estados guardados até agora.
+		 * @return verdadeiro se algum limite foi atingido e a busca deve parar.
+		 */
+		public boolean esgotado(long expandidos, long fechados) {
+			return verifica(expandidos, fechados, verificacoes++ % INTERVALO_RELOGIO == 0);
+		}
+
+		/**
+		 * Como {@link #esgotado(long, long)}, mas sempre consulta o relógio. Indicado para buscas que verificam o
+		 * orçamento poucas vezes, como uma vez por camada.
+		 *
+		 * @param expandidos nós expandidos até agora.
+		 * @param fechados estados guardados até agora.
+		 * @return verdadeiro se algum limite foi atingido e a busca deve parar.
+		 */
+		public boolean esgotadoAgora(long expandidos, long fechados) {
+			return verifica(expandidos, fechados, true);
+		}
+
+		private boolean verifica(long expandidos, long fechados, boolean relogio) {
+			if (orcamento.cancelamento != null && orcamento.cancelamento.isCancelado()) {
+				interrupcao = Situacao.CANCELADA;
+			} else if (expandidos >= orcamento.expansoes) {
+				interrupcao = Situacao.EXPANSOES_ESGOTADAS;
+			} else if (fechados > orcamento.fechados) {
+				interrupcao = Situacao.FECHADOS_ESGOTADOS;
+			} else if (relogio && prazoEsgotado()) {
+				interrupcao = Situacao.PRAZO_ESGOTADO;
+			}
+			return interrupcao != null;
+		}
+
+		/**
+		 * Registra que a busca terminou sem solução porque nós deixaram de ser expandidos por um limite de
+		 * profundidade, e não por ter explorado todo o espaço alcançável. Não substitui um limite do orçamento já
+		 * atingido.
+		 */
+		public void registraCorte() {
+			if (interrupcao == null) {
+				interrupcao = Situacao.LIMITE_PROFUNDIDADE;
+			}
+		}
+
+		/**
+		 * @return limite que interrompeu a busca, ou nulo se nenhum limite foi atingido.
+		 */
+		public Situacao getInterrupcao() {
+			return interrupcao;
+		}
+
+		/**
+		 * @return verdadeiro se o tempo da busca acabou, consultando o relógio.
+		 */
+		public boolean prazoEsgotado() {
+			return orcamento.nanos != SEM_LIMITE && System.nanoTime() - inicio >= orcamento.nanos;
+		}
+
+		/**
+		 * @return nanossegundos restantes até o prazo, {@link Long#MAX_VALUE} sem prazo.
+		 */
+		public long nanosRestantes() {
+			if (orcamento.nanos == SEM_LIMITE) {
+				return Long.MAX_VALUE;
+			}
+			return Math.max(0L, orcamento.nanos - (System.nanoTime() - inicio));
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package io.wveiga.ia.algs.busca;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Resultado de uma busca executada com um {@link Orcamento}: a situação em que terminou, a solução, se encontrada,
+ * e as estatísticas acumuladas até o término, mesmo quando a busca foi interrompida.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca foi realizada.
+ */
+public final class ResultadoBusca<S> {
+
+	/**
+	 * Situação em que uma busca terminou.
+	 */
+	public enum Situacao {
+		/**
+		 * A solução foi encontrada.
+		 */
+		SOLUCIONADA,
+		/**
+		 * Todo o espaço alcançável foi explorado, ou o problema é sabidamente insolúvel: não existe solução.
+		 */
+		SEM_SOLUCAO,
+		/**
+		 * O tempo máximo acabou.
+		 */
+		PRAZO_ESGOTADO,
+		/**
+		 * O número máximo de expansões foi atingido.
+		 */
+		EXPANSOES_ESGOTADAS,
+		/**
+		 * O número máximo de estados guardados foi ultrapassado.
+		 */
+		FECHADOS_ESGOTADOS,
+		/**
+		 * O sinal de cancelamento foi acionado.
+		 */
+		CANCELADA,
+		/**
+		 * Nenhuma solução foi encontrada até o limite de profundidade pedido, mas há nós que deixaram de ser
+		 * expandidos por causa dele: pode haver solução mais profunda.
+		 */
+		LIMITE_PROFUNDIDADE;
+
+		/**
+		 * @return verdadeiro se a busca foi interrompida antes de decidir se existe solução.
+		 */
+		public boolean interrompida() {
+			return this != SOLUCIONADA && this != SEM_SOLUCAO;
+		}
+	}
+
+	private final Situacao situacao;
+	private final Optional<List<Acao<S>>> solucao;
+	private final EstatisticasBusca<S> estatisticas;
+
+	/**
+	 * @param situacao situação final da busca.
+	 * @param solucao solução, presente apenas na situação {@link Situacao#SOLUCIONADA}.
+	 * @param estatisticas estatísticas da busca.
+	 */
+	public ResultadoBusca(Situacao situacao, Optional<List<Acao<S>>> solucao, EstatisticasBusca<S> estatisticas) {
+		Preconditions.nonNull(situacao, solucao, estatisticas);
+		Preconditions.verify(solucao.isPresent() == (situacao == Situacao.SOLUCIONADA), "Solução incompatível com a situação " + situacao);
+		this.situacao = situacao;
+		this.solucao = solucao;
+		this.estatisticas = estatisticas;
+	}
+
+	/**
+	 * Resultado de uma busca a partir da solução retornada e do controle do seu orçamento: sem solução, a situação é
+	 * o limite que interrompeu a busca ou, se nenhum foi atingido, {@link Situacao#SEM_SOLUCAO}.
+	 *
+	 * @param solucao solução retornada pela busca.
+	 * @param controle controle do orçamento da busca.
+	 * @param estatisticas estatísticas da busca.
+	 * @return resultado da busca.
+	 */
+	public static <S> ResultadoBusca<S> de(Optional<List<Acao<S>>> solucao, Orcamento.Controle controle,
+			EstatisticasBusca<S> estatisticas) {
+		Preconditions.nonNull(solucao, controle);
+		Situacao situacao;
+		if (solucao.isPresent()) {
+			situacao = Situacao.SOLUCIONADA;
+		} else if (controle.getInterrupcao() != null) {
+			situacao = controle.getInterrupcao();
+		} else {
+			situacao = Situacao.SEM_SOLUCAO;
+		}
+		return new ResultadoBusca<>(situacao, solucao, estatisticas);
+	}
+
+	public Situacao getSituacao() {
+		return situacao;
+	}
+
+	/**
+	 * @return Opcional com a lista de ações caso a solução tenha sido encontrada ou vazio, caso contrário.
+	 */
+	public Optional<List<Acao<S>>> getSolucao() {
+		return solucao;
+	}
+
+	public EstatisticasBusca<S> getEstatisticas() {
+		return estatisticas;
+	}
+
+	@Override
+	public String toString() {
+		return "ResultadoBusca [situacao=" + situacao + ", estatisticas=" + estatisticas + "]";
+	}
+}
@@ -0,0 +1,182 @@
+package io.wveiga.ia.algs.busca.info;
+
+import java.util.List;
+import java.util.Optional;
+
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.BuscaOrcada;
+import io.wveiga.ia.algs.busca.Caminhos;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
+import io.wveiga.ia.ed.ArenaNos;
+import io.wveiga.ia.ed.HeapIndexado;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.problema.ProblemaCodificavel;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * "A* é um algoritmo de busca em grafos que encontra o caminho de menor custo de um nó inicial até 
+ * um nó objetivo, expandindo sempre o nó que minimiza f(n) = g(n) + h(n), onde g(n) é o custo do caminho 
+ * até n e h(n) é uma estimativa do custo de n até o objetivo." (WIKIPEDIA)
+ * 
+ * O custo do caminho é acumulado a partir de {@link Acao#getCusto()} e a borda é uma heap binária
+ * ordenada por f. Com uma heurística admissível a solução retornada é ótima.
+ * 
+ * Os custos são mantidos como <code>double</code> em vetores indexados pelo identificador de cada estado, obtido
+ * pelo código do estado, sem boxing, quando o problema é um {@link ProblemaCodificavel}, os nós ficam em uma
+ * {@link ArenaNos} e a borda é uma {@link HeapIndexado} que diminui a prioridade de um estado já presente,
+ * em vez de acumular registros obsoletos. Estados fechados que recebem um caminho mais barato, o que só acontece com
+ * heurísticas inconsistentes, voltam para a borda.
+ * 
+ * @author Welington Veiga
+ * @since 1.0
+ * 
+ * @see https://pt.wikipedia.org/wiki/Algoritmo_A*
+ * 
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ * @param <T> Problema que a busca vai resolver.
+ */
+public class BuscaAEstrela<S, T extends Problema<S>> implements BuscaMonitoravel<S>, BuscaOrcada<S> {
+	
+	private final T problema;
+	private final Heuristica<S> heuristica;
+	
+	private MonitorBusca<S> monitor;
+	
+	/**
+	 * @param problema modelo do problema, não nulo.
+	 * @param heuristica estimativa do custo até a solução, não nula.
+	 */
+	public BuscaAEstrela(T problema, Heuristica<S> heuristica) {
+		Preconditions.nonNull(problema, heuristica);
+		this.problema = problema;
+		this.heuristica = heuristica;
+	}
+	
+	protected T getProblema() {
+		return problema;
+	}
+	
+	protected Heuristica<S> getHeuristica() {
+		return heuristica;
+	}
+
+	/**
+	 * Define o monitor das próximas execuções de {@link #buscar()}.
+	 * 
+	 * @param monitor monitor, ou nulo para não monitorar.
+	 */
+	@Override
+	public void setMonitor(MonitorBusca<S> monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	public Optional<List<Acao<S>>> buscar() {
+		return ExecucaoBusca.monitorada(monitor, this::busca);
+	}
+	
+	/**
+	 * Realiza a busca respeitando o orçamento. O monitor definido por {@link #setMonitor(MonitorBusca)}, se houver,
+	 * também recebe os eventos.
+	 * 
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	@Override
+	public ResultadoBusca<S> buscar(Orcamento orcamento) {
+		return ExecucaoBusca.orcada(monitor, orcamento, this::busca);
+	}
+	
+	/**
+	 * Busca propriamente dita. Com o monitor nulo nenhum evento é informado e nenhum tempo é medido, e com o
+	 * controle nulo não há limites.
+	 */
+	private Optional<List<Acao<S>>> busca(MonitorBusca<S> monitor, Orcamento.Controle controle) {
+		// 0. Problemas sabidamente sem solução não são explorados.
+		if (problema.insoluvel()) {
+			return Optional.empty();
+		}
+		long instante = monitor == null ? 0L : System.nanoTime();
+		
+		S inicial = problema.estadoInicial();
+		double hInicial = heuristica.estima(inicial);
+		if (hInicial == Double.POSITIVE_INFINITY) {
+			return Optional.empty();
+		}
+		
+		// 1. Cada estado alcançado recebe um identificador denso, que indexa o menor custo g conhecido
+		// e o nó da árvore de busca que o alcança por esse custo.
+		Estados<S> estados = new Estados<>(problema);
+		ArenaNos<S> nos = Caminhos.arena(problema);
+		
+		// 2. Borda ordenada por f = g + h, com um único registro por estado. Em caso de empate, prefere o
+		// estado de maior g, que está mais próximo da solução.
+		HeapIndexado borda = new HeapIndexado();
+		int raiz = estados.alcanca(inicial, 0d, nos.adiciona(inicial, ArenaNos.NENHUM, ArenaNos.NENHUM));
+		borda.insereOuDiminui(raiz, hInicial, 0d);
+		if (monitor != null) {
+			monitor.gerado(borda.tamanho());
+		}
+		instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
+		long expandidos = 0;
+		
+		while (!borda.vazio()) {
+			// 2.1 A memória é medida por todos os estados alcançados, que ficam guardados até o fim da busca.
+			if (controle != null && controle.esgotado(expandidos, estados.tamanho())) {
+				break;
+			}
+			
+			// 3. Retiramos o estado de menor f.
+			int id = borda.retira();
+			int no = estados.no(id);
+			double gNo = estados.g(id);
+			S estado = nos.estado(no);
+			
+			// 4. Ao retirar a solução da borda, nenhum caminho mais barato pode existir.
+			if (problema.solucao(estado)) {
+				instante = MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+				List<Acao<S>> caminho = Caminhos.reconstroi(problema, nos, no);
+				MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+				return Optional.of(caminho);
+			}
+			expandidos++;
+			if (monitor != null) {
+				monitor.expandido();
+			}
+			
+			// 5. Para cada sucessor, acumulamos o custo da ação e o inserimos na borda se melhorar o caminho conhecido.
+			List<Acao<S>> sucessores = problema.sucessores(estado);
+			for (int i = 0; i < sucessores.size(); i++) {
+				Acao<S> proximaAcao = sucessores.get(i);
+				double g = gNo + proximaAcao.getCusto().toDouble();
+				if (g == Double.POSITIVE_INFINITY) {
+					continue;
+				}
+				S alvo = proximaAcao.getEstadoAlvo();
+				int alvoId = estados.id(alvo);
+				if (alvoId == Estados.NOVO || g < estados.g(alvoId)) {
+					double h = heuristica.estima(alvo);
+					if (h == Double.POSITIVE_INFINITY) {
+						continue;
+					}
+					int filho = nos.adiciona(alvo, i, no);
+					alvoId = alvoId == Estados.NOVO ? estados.alcanca(alvo, g, filho) : estados.melhora(alvoId, g, filho);
+					borda.insereOuDiminui(alvoId, g + h, -g);
+					if (monitor != null) {
+						monitor.gerado(borda.tamanho());
+					}
+				} else if (monitor != null) {
+					monitor.repetido();
+				}
+			}
+		}
+		
+		MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+		return Optional.empty();
+	}
+}
@@ -0,0 +1,407 @@
+package io.wveiga.ia.algs.busca.info;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.BuscaOrcada;
+import io.wveiga.ia.algs.busca.Caminhos;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
+import io.wveiga.ia.ed.ArenaNos;
+import io.wveiga.ia.ed.HeapIndexado;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * "ARA* (Anytime Repairing A*) executa uma série de buscas A* ponderadas, ordenadas por f = g + &epsilon;h, diminuindo
+ * o peso &epsilon; a cada iteração e reaproveitando os resultados das iterações anteriores. Cada solução encontrada tem
+ * custo no máximo &epsilon; vezes o ótimo." (Likhachev, Gordon e Thrun)
+ *
+ * A primeira solução vem de uma busca gulosa, com peso alto, e é melhorada enquanto houver tempo. Cada solução melhor,
+ * ou limite de subotimalidade menor, é publicada como uma {@link SolucaoAproximada}. O limite publicado é
+ * min(&epsilon;, custo / min(g + h)), com o mínimo tomado entre os estados da borda e os inconsistentes, e chega a 1
+ * quando a solução é comprovadamente ótima.
+ *
+ * Entre iterações, os custos g e a árvore de busca são mantidos. Na mesma iteração, um estado já expandido cujo custo
+ * diminui não volta para a borda, mas para a lista de inconsistentes, que é devolvida à borda na iteração seguinte,
+ * com as prioridades recalculadas pelo novo peso.
+ *
+ * Com uma heurística admissível, a busca sem orçamento termina com a solução ótima.
+ *
+ * Instâncias desta classe não devem ser compartilhadas entre threads.
+ *
+ * @author Welington Veiga
+ *
+ * @see http://papers.nips.cc/paper/2382-ara-anytime-a-with-provable-bounds-on-sub-optimality.pdf
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ * @param <T> Problema que a busca vai resolver.
+ */
+public class BuscaAEstrelaAnytime<S, T extends Problema<S>> implements BuscaMonitoravel<S>, BuscaOrcada<S> {
+
+	private static final double PESO_INICIAL = 3d;
+	private static final double REDUCAO = 0.5d;
+
+	private static final int NENHUM = -1;
+
+	private final T problema;
+	private final Heuristica<S> heuristica;
+	private final double pesoInicial;
+	private final double reducao;
+
+	private MonitorBusca<S> monitor;
+
+	/**
+	 * Busca com peso inicial 3, reduzido em 0,5 a cada iteração.
+	 *
+	 * @param problema modelo do problema, não nulo.
+	 * @param heuristica estimativa admissível do custo até a solução, não nula.
+	 */
+	public BuscaAEstrelaAnytime(T problema, Heuristica<S> heuristica) {
+		this(problema, heuristica, PESO_INICIAL, REDUCAO);
+	}
+
+	/**
+	 * @param problema modelo do problema, não nulo.
+	 * @param heuristica estimativa admissível do custo até a solução, não nula.
+	 * @param pesoInicial peso da heurística na primeira iteração, maior ou igual a 1.
+	 * @param reducao quanto o peso diminui a cada iteração, positivo.
+	 */
+	public BuscaAEstrelaAnytime(T problema, Heuristica<S> heuristica, double pesoInicial, double reducao) {
+		Preconditions.nonNull(problema, heuristica);
+		Preconditions.verify(pesoInicial >= 1d, "Peso inicial deve ser maior ou igual a 1");
+		Preconditions.verify(reducao > 0d, "Redução do peso deve ser positiva");
+		this.problema = problema;
+		this.heuristica = heuristica;
+		this.pesoInicial = pesoInicial;
+		this.reducao = reducao;
+	}
+
+	@Override
+	public void setMonitor(MonitorBusca<S> monitor) {
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Executa as iterações até a solução ótima.
+	 *
+	 * @return Opcional com a lista de ações da solução ótima ou vazio, caso não exista solução.
+	 */
+	@Override
+	public Optional<List<Acao<S>>> buscar() {
+		return ExecucaoBusca.monitorada(monitor, (monitor, controle) -> new Execucao(monitor, controle, null).executa());
+	}
+
+	/**
+	 * Executa as iterações até a solução ótima ou o fim do orçamento.
+	 *
+	 * @param orcamento limites da busca.
+	 * @return melhor solução encontrada, com a situação {@link ResultadoBusca.Situacao#SOLUCIONADA} mesmo que não
+	 * seja comprovadamente ótima, e estatísticas da busca.
+	 */
+	@Override
+	public ResultadoBusca<S> buscar(Orcamento orcamento) {
+		return ExecucaoBusca.orcada(monitor, orcamento, (monitor, controle) -> new Execucao(monitor, controle, null).executa());
+	}
+
+	/**
+	 * Executa as iterações até a solução ótima ou o fim do orçamento, publicando cada solução melhor ou limite de
+	 * subotimalidade menor. Publicações sucessivas têm custo e limite que nunca aumentam, e a última publicação
+	 * de uma busca que não foi interrompida tem limite 1.
+	 *
+	 * @param orcamento limites da busca.
+	 * @param publica recebe as soluções, na thread da busca.
+	 * @return melhor solução encontrada, com a situação {@link ResultadoBusca.Situacao#SOLUCIONADA} mesmo que não
+	 * seja comprovadamente ótima, e estatísticas da busca.
+	 */
+	public ResultadoBusca<S> buscar(Orcamento orcamento, Consumer<? super SolucaoAproximada<S>> publica) {
+		Preconditions.nonNull(publica);
+		return ExecucaoBusca.orcada(monitor, orcamento, (monitor, controle) -> new Execucao(monitor, controle, publica).executa());
+	}
+
+	/**
+	 * Estado de uma execução da busca, compartilhado entre as iterações. Como nas demais buscas, o monitor, o
+	 * controle do orçamento e o destino das publicações podem ser nulos: sem monitor nenhum evento é informado e
+	 * nenhum tempo é medido.
+	 */
+	private final class Execucao {
+
+		private final MonitorBusca<S> monitor;
+		private final Orcamento.Controle controle;
+		private final Consumer<? super SolucaoAproximada<S>> publica;
+		private final long inicio;
+
+		private final EstadosAnytime<S> estados = new EstadosAnytime<>(problema);
+		private final ArenaNos<S> nos = Caminhos.arena(problema);
+		private final HeapIndexado borda = new HeapIndexado();
+		private int[] inconsistentes = new int[64];
+		private int totalInconsistentes;
+
+		private double peso = pesoInicial;
+		private int iteracao = 1;
+		private long expandidos;
+
+		private int objetivo = NENHUM;
+		private double custoPublicado = Double.POSITIVE_INFINITY;
+		private double limitePublicado = Double.POSITIVE_INFINITY;
+		private List<Acao<S>> melhor;
+		private double custoMelhor = Double.POSITIVE_INFINITY;
+
+		private Execucao(MonitorBusca<S> monitor, Orcamento.Controle controle, Consumer<? super SolucaoAproximada<S>> publica) {
+			this.monitor = monitor;
+			this.controle = controle;
+			this.publica = publica;
+			this.inicio = publica == null ? 0L : System.nanoTime();
+		}
+
+		Optional<List<Acao<S>>> executa() {
+			if (problema.insoluvel()) {
+				return Optional.empty();
+			}
+			long instante = monitor == null ? 0L : System.nanoTime();
+			S inicial = problema.estadoInicial();
+			double hInicial = heuristica.estima(inicial);
+			if (hInicial == Double.POSITIVE_INFINITY) {
+				return Optional.empty();
+			}
+			int raiz = estados.alcanca(inicial, 0d, hInicial, nos.adiciona(inicial, ArenaNos.NENHUM, ArenaNos.NENHUM));
+			if (problema.solucao(inicial)) {
+				objetivo = raiz;
+			}
+			borda.insereOuDiminui(raiz, peso * hInicial, 0d);
+			if (monitor != null) {
+				monitor.gerado(borda.tamanho());
+			}
+			instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
+
+			while (true) {
+				// 1. Busca ponderada até que nenhum estado da borda possa levar a uma solução melhor com o peso atual.
+				boolean interrompida = melhoraCaminho();
+				instante = MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+				if (objetivo == NENHUM) {
+					// Espaço alcançável esgotado, ou orçamento esgotado antes da primeira solução.
+					return Optional.empty();
+				}
+
+				// 2. Publica a solução se ela melhorou ou se o limite de subotimalidade diminuiu.
+				double limite = limite(!interrompida);
+				if (publica != null) {
+					publicaSeMelhorou(limite);
+				}
+				if (interrompida || limite <= 1d) {
+					List<Acao<S>> solucao = melhor();
+					MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+					return Optional.of(solucao);
+				}
+				instante = MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+
+				// 3. Diminui o peso e recomeça com os estados da borda e os inconsistentes, sem fechados.
+				peso = Math.max(1d, Math.min(peso - reducao, limite));
+				iteracao++;
+				reordenaBorda();
+			}
+		}
+
+		/**
+		 * Expande os estados de menor f = g + &epsilon;h enquanto f for menor que o custo da melhor solução.
+		 *
+		 * @return verdadeiro se o orçamento acabou.
+		 */
+		private boolean melhoraCaminho() {
+			while (!borda.vazio()) {
+				if (controle != null && controle.esgotado(expandidos, estados.tamanho())) {
+					return true;
+				}
+				if (objetivo != NENHUM && estados.g(objetivo) <= borda.chave(borda.minimo())) {
+					return false;
+				}
+				int id = borda.retira();
+				estados.fecha(id, iteracao);
+				double gEstado = estados.g(id);
+				int no = estados.no(id);
+				expandidos++;
+				if (monitor != null) {
+					monitor.expandido();
+				}
+
+				List<Acao<S>> sucessores = problema.sucessores(nos.estado(no));
+				for (int i = 0; i < sucessores.size(); i++) {
+					Acao<S> acao = sucessores.get(i);
+					double g = gEstado + acao.getCusto().toDouble();
+					if (g == Double.POSITIVE_INFINITY) {
+						continue;
+					}
+					S alvo = acao.getEstadoAlvo();
+					int alvoId = estados.id(alvo);
+					if (alvoId != Estados.NOVO && g >= estados.g(alvoId)) {
+						if (monitor != null) {
+							monitor.repetido();
+						}
+						continue;
+					}
+					if (alvoId == Estados.NOVO) {
+						double h = heuristica.estima(alvo);
+						if (h == Double.POSITIVE_INFINITY) {
+							continue;
+						}
+						alvoId = estados.alcanca(alvo, g, h, nos.adiciona(alvo, i, no));
+					} else {
+						estados.melhora(alvoId, g, nos.adiciona(alvo, i, no));
+					}
+					if ((objetivo == NENHUM || g < estados.g(objetivo)) && problema.solucao(alvo)) {
+						objetivo = alvoId;
+					}
+
+					// Estados já expandidos nesta iteração esperam a próxima na lista de inconsistentes.
+					if (estados.fechado(alvoId, iteracao)) {
+						adicionaInconsistente(alvoId);
+					} else {
+						borda.insereOuDiminui(alvoId, g + peso * estados.h(alvoId), -g);
+						if (monitor != null) {
+							monitor.gerado(borda.tamanho());
+						}
+					}
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Limite de subotimalidade da solução atual: o menor g + h entre os estados da borda e os inconsistentes é um
+		 * limite inferior do custo ótimo. O peso só garante o limite ao fim da iteração; numa iteração interrompida
+		 * vale o último limite publicado.
+		 *
+		 * @param concluida verdadeiro se a iteração com o peso atual terminou.
+		 */
+		private double limite(boolean concluida) {
+			double custo = estados.g(objetivo);
+			double inferior = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < totalInconsistentes; i++) {
+				inferior = Math.min(inferior, estados.f(inconsistentes[i]));
+			}
+			for (int id : borda.elementos()) {
+				inferior = Math.min(inferior, estados.f(id));
+			}
+			if (custo == 0d || inferior >= custo) {
+				return 1d;
+			}
+			return Math.max(1d, Math.min(concluida ? peso : limitePublicado, custo / inferior));
+		}
+
+		private void publicaSeMelhorou(double limite) {
+			double custo = estados.g(objetivo);
+			if (custo < custoPublicado || limite < limitePublicado) {
+				custoPublicado = custo;
+				limitePublicado = limite;
+				publica.accept(new SolucaoAproximada<>(melhor(), custo, limite, peso, System.nanoTime() - inicio));
+			}
+		}
+
+		/**
+		 * @return caminho até o objetivo atual, reconstruído apenas quando o custo dele diminui.
+		 */
+		private List<Acao<S>> melhor() {
+			double custo = estados.g(objetivo);
+			if (melhor == null || custo < custoMelhor) {
+				melhor = Caminhos.reconstroi(problema, nos, estados.no(objetivo));
+				custoMelhor = custo;
+			}
+			return melhor;
+		}
+
+		/**
+		 * Recalcula as prioridades da borda com o novo peso e devolve os inconsistentes a ela. Como o peso só diminui,
+		 * as prioridades só diminuem e cada estado é reposicionado na própria heap.
+		 */
+		private void reordenaBorda() {
+			for (int id : borda.elementos()) {
+				borda.insereOuDiminui(id, estados.g(id) + peso * estados.h(id), -estados.g(id));
+			}
+			for (int i = 0; i < totalInconsistentes; i++) {
+				int id = inconsistentes[i];
+				borda.insereOuDiminui(id, estados.g(id) + peso * estados.h(id), -estados.g(id));
+			}
+			totalInconsistentes = 0;
+		}
+
+		private void adicionaInconsistente(int id) {
+			if (estados.inconsistente(id, iteracao)) {
+				return;
+			}
+			if (totalInconsistentes == inconsistentes.length) {
+				inconsistentes = Arrays.copyOf(inconsistentes, totalInconsistentes << 1);
+			}
+			inconsistentes[totalInconsistentes++] = id;
+		}
+	}
+
+	/**
+	 * {@link Estados} com a estimativa h de cada estado e as iterações em que ele foi fechado e marcado como
+	 * inconsistente. As marcas por iteração dispensam limpar os fechados entre iterações.
+	 *
+	 * @param <S> tipo dos estados.
+	 */
+	private static final class EstadosAnytime<S> extends Estados<S> {
+
+		private double[] estimativas = new double[CAPACIDADE_INICIAL];
+		private int[] fechadoEm = new int[CAPACIDADE_INICIAL];
+		private int[] inconsistenteEm = new int[CAPACIDADE_INICIAL];
+
+		EstadosAnytime(Problema<S> problema) {
+			super(problema);
+		}
+
+		int alcanca(S estado, double g, double h, int no) {
+			int id = alcanca(estado, g, no);
+			estimativas[id] = h;
+			return id;
+		}
+
+		@Override
+		void cresce(int capacidade) {
+			super.cresce(capacidade);
+			estimativas = Arrays.copyOf(estimativas, capacidade);
+			fechadoEm = Arrays.copyOf(fechadoEm, capacidade);
+			inconsistenteEm = Arrays.copyOf(inconsistenteEm, capacidade);
+		}
+
+		void fecha(int id, int iteracao) {
+			fechadoEm[id] = iteracao;
+		}
+
+		boolean fechado(int id, int iteracao) {
+			return fechadoEm[id] == iteracao;
+		}
+
+		/**
+		 * Marca o estado como inconsistente na iteração.
+		 *
+		 * @return verdadeiro se ele já estava marcado.
+		 */
+		boolean inconsistente(int id, int iteracao) {
+			if (inconsistenteEm[id] == iteracao) {
+				return true;
+			}
+			inconsistenteEm[id] = iteracao;
+			return false;
+		}
+
+		double h(int id) {
+			return estimativas[id];
+		}
+
+		/**
+		 * @return g + h, sem peso.
+		 */
+		double f(int id) {
+			return g(id) + estimativas[id];
+		}
+	}
+}
@@ -0,0 +1,340 @@
+package io.wveiga.ia.algs.busca.info;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.BuscaOrcada;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.npuzzle.NPuzzle;
+import io.wveiga.ia.problema.npuzzle.NPuzzleAcao;
+import io.wveiga.ia.problema.npuzzle.NPuzzleMovimento;
+import io.wveiga.ia.problema.npuzzle.NPuzzleTabuleiro;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * "IDA* (Iterative Deepening A*) é uma busca em profundidade com aprofundamento iterativo que usa
+ * como limite de cada iteração o valor f = g + h, em vez da profundidade. Cada iteração aumenta o limite
+ * para o menor f que o excedeu na iteração anterior." (WIKIPEDIA)
+ *
+ * Esta implementação é específica para o N-Puzzle e não aloca objetos durante a busca:
+ * <ul>
+ * 	<li>um único tabuleiro mutável é usado, os movimentos são aplicados e desfeitos no próprio tabuleiro;</li>
+ * 	<li>a heurística (distância de Manhattan mais conflitos lineares) é atualizada incrementalmente a cada movimento,
+ * 		recalculando apenas as duas linhas ou colunas afetadas;</li>
+ * 	<li>o movimento que desfaz o movimento anterior não é considerado.</li>
+ * </ul>
+ * A memória utilizada é proporcional apenas à profundidade da solução. As ações só são criadas
+ * ao final, para montar a solução encontrada.
+ *
+ * Instâncias sem solução são descartadas antes da busca por {@link NPuzzle#insoluvel()}. Ainda assim, como a busca
+ * não guarda estados fechados, o limite é interrompido no diâmetro conhecido do espaço de estados de cada
+ * tamanho de tabuleiro, garantindo o término.
+ *
+ * Como não há borda, o tamanho informado ao monitor, se houver, é o do caminho atual, e os movimentos que desfazem o
+ * anterior não são informados como repetidos.
+ *
+ * Instâncias desta classe não devem ser compartilhadas entre threads.
+ *
+ * @author Welington Veiga
+ * @since 1.0
+ *
+ * @see https://en.wikipedia.org/wiki/Iterative_deepening_A*
+ */
+public class BuscaIDAEstrelaNPuzzle implements BuscaMonitoravel<NPuzzleTabuleiro>, BuscaOrcada<NPuzzleTabuleiro> {
+
+	/**
+	 * Maior número de movimentos de uma solução ótima para cada tamanho de tabuleiro, indexado pelo tamanho.
+	 */
+	private static final int[] DIAMETRO = {0, 0, 6, 31, 80};
+
+	private static final NPuzzleMovimento[] MOVIMENTOS = NPuzzleMovimento.values();
+
+	private static final int ENCONTRADO = -1;
+
+	private static final int INTERROMPIDO = -2;
+
+	private final NPuzzle problema;
+
+	private MonitorBusca<NPuzzleTabuleiro> monitor;
+
+	private int n;
+	private int[] pecas;
+	private int vazia;
+	private int[][] distancia;
+	private int manhattan;
+	private int[] conflitoLinha;
+	private int[] conflitoColuna;
+	private int conflitos;
+	private int[] escala;
+	private int[] sequencia;
+	private NPuzzleMovimento[] caminho;
+	private int profundidadeSolucao;
+	private MonitorBusca<NPuzzleTabuleiro> eventos;
+	private Orcamento.Controle controle;
+	private long expandidos;
+
+	public BuscaIDAEstrelaNPuzzle(NPuzzle problema) {
+		Preconditions.nonNull(problema);
+		this.problema = problema;
+	}
+
+	@Override
+	public void setMonitor(MonitorBusca<NPuzzleTabuleiro> monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	public Optional<List<Acao<NPuzzleTabuleiro>>> buscar() {
+		return ExecucaoBusca.monitorada(monitor, this::busca);
+	}
+
+	/**
+	 * Realiza a busca respeitando o orçamento. Como a busca não guarda estados, o limite de fechados é comparado
+	 * com a profundidade do caminho atual. O monitor definido por {@link #setMonitor(MonitorBusca)}, se houver,
+	 * também recebe os eventos.
+	 *
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	@Override
+	public ResultadoBusca<NPuzzleTabuleiro> buscar(Orcamento orcamento) {
+		return ExecucaoBusca.orcada(monitor, orcamento, this::busca);
+	}
+
+	/**
+	 * Busca propriamente dita. Com o monitor nulo nenhum evento é informado e nenhum tempo é medido, e com o
+	 * controle nulo não há limites.
+	 */
+	private Optional<List<Acao<NPuzzleTabuleiro>>> busca(MonitorBusca<NPuzzleTabuleiro> monitor, Orcamento.Controle controle) {
+		if (problema.insoluvel()) {
+			return Optional.empty();
+		}
+		this.eventos = monitor;
+		this.controle = controle;
+		try {
+			return aprofunda();
+		} finally {
+			this.eventos = null;
+			this.controle = null;
+		}
+	}
+
+	private Optional<List<Acao<NPuzzleTabuleiro>>> aprofunda() {
+		long instante = eventos == null ? 0L : System.nanoTime();
+		NPuzzleTabuleiro inicial = problema.estadoInicial();
+		inicializa(inicial);
+		expandidos = 0;
+		if (eventos != null) {
+			eventos.gerado(1);
+		}
+		instante = MonitorBusca.marca(eventos, Fase.PREPARACAO, instante);
+
+		// 1. O primeiro limite é a própria estimativa do estado inicial.
+		int limite = heuristica();
+		while (true) {
+			// 2. Busca em profundidade até o limite, retornando o menor f que o excedeu.
+			int resultado = buscaLimitada(0, limite, null);
+			if (resultado == ENCONTRADO) {
+				instante = MonitorBusca.marca(eventos, Fase.EXPLORACAO, instante);
+				List<Acao<NPuzzleTabuleiro>> solucao = reconstruirCaminho(inicial);
+				MonitorBusca.marca(eventos, Fase.RECONSTRUCAO, instante);
+				return Optional.of(solucao);
+			}
+			// 3. Se nenhum nó excedeu o limite, ou ele passou do diâmetro, não há solução.
+			// Se o orçamento acabou, a busca é abandonada.
+			if (resultado == INTERROMPIDO || resultado == Integer.MAX_VALUE || resultado > DIAMETRO[n]) {
+				MonitorBusca.marca(eventos, Fase.EXPLORACAO, instante);
+				return Optional.empty();
+			}
+			limite = resultado;
+		}
+	}
+
+	private int buscaLimitada(int g, int limite, NPuzzleMovimento anterior) {
+		int h = heuristica();
+		int f = g + h;
+		if (f > limite) {
+			return f;
+		}
+		// Com todas as peças em sua posição o espaço vazio também está, o tabuleiro é a solução.
+		if (h == 0) {
+			profundidadeSolucao = g;
+			return ENCONTRADO;
+		}
+		if (controle != null) {
+			if (controle.esgotado(expandidos, g)) {
+				return INTERROMPIDO;
+			}
+			expandidos++;
+		}
+		if (eventos != null) {
+			eventos.expandido();
+		}
+
+		int minimo = Integer.MAX_VALUE;
+		for (NPuzzleMovimento movimento : MOVIMENTOS) {
+			if ((anterior != null && movimento == anterior.getOposto()) || !eAplicavel(movimento)) {
+				continue;
+			}
+			move(movimento);
+			caminho[g] = movimento;
+			if (eventos != null) {
+				eventos.gerado(g + 2);
+			}
+			int resultado = buscaLimitada(g + 1, limite, movimento);
+			move(movimento.getOposto());
+
+			if (resultado == ENCONTRADO || resultado == INTERROMPIDO) {
+				return resultado;
+			}
+			if (resultado < minimo) {
+				minimo = resultado;
+			}
+		}
+		return minimo;
+	}
+
+	private void inicializa(NPuzzleTabuleiro inicial) {
+		n = inicial.getTamanho();
+		int posicoes = n * n;
+		pecas = new int[posicoes];
+		distancia = new int[posicoes][posicoes];
+		conflitoLinha = new int[n];
+		conflitoColuna = new int[n];
+		escala = new int[n];
+		sequencia = new int[n];
+		caminho = new NPuzzleMovimento[DIAMETRO[n] + 1];
+
+		for (int peca = 1; peca < posicoes; peca++) {
+			for (int p = 0; p < posicoes; p++) {
+				// Na solução a peça p ocupa a posição p.
+				distancia[peca][p] = Math.abs(p / n - peca / n) + Math.abs(p % n - peca % n);
+			}
+		}
+
+		manhattan = 0;
+		for (int p = 0; p < posicoes; p++) {
+			pecas[p] = inicial.getPeca(p / n, p % n);
+			if (pecas[p] == 0) {
+				vazia = p;
+			} else {
+				manhattan += distancia[pecas[p]][p];
+			}
+		}
+
+		conflitos = 0;
+		for (int i = 0; i < n; i++) {
+			conflitoLinha[i] = calculaConflitoLinha(i);
+			conflitoColuna[i] = calculaConflitoColuna(i);
+			conflitos += conflitoLinha[i] + conflitoColuna[i];
+		}
+	}
+
+	private int heuristica() {
+		return manhattan + conflitos;
+	}
+
+	private boolean eAplicavel(NPuzzleMovimento movimento) {
+		int i = vazia / n + movimento.getVertical();
+		int j = vazia % n + movimento.getHorizontal();
+		return i>=0 && i<n && j>=0 && j<n;
+	}
+
+	/**
+	 * Move o espaço vazio no próprio tabuleiro, atualizando a heurística.
+	 */
+	private void move(NPuzzleMovimento movimento) {
+		int origem = vazia;
+		int destino = vazia + movimento.getVertical() * n + movimento.getHorizontal();
+		int peca = pecas[destino];
+
+		// 1. A peça vai do destino para a posição vazia.
+		pecas[origem] = peca;
+		pecas[destino] = 0;
+		vazia = destino;
+		manhattan += distancia[peca][origem] - distancia[peca][destino];
+
+		// 2. Uma peça que muda de linha não altera a ordem das peças em sua coluna, e vice-versa.
+		// Basta recalcular os conflitos das duas linhas (ou colunas) envolvidas.
+		if (movimento.getVertical() != 0) {
+			atualizaConflitoLinha(origem / n);
+			atualizaConflitoLinha(destino / n);
+		} else {
+			atualizaConflitoColuna(origem % n);
+			atualizaConflitoColuna(destino % n);
+		}
+	}
+
+	private void atualizaConflitoLinha(int linha) {
+		int conflito = calculaConflitoLinha(linha);
+		conflitos += conflito - conflitoLinha[linha];
+		conflitoLinha[linha] = conflito;
+	}
+
+	private void atualizaConflitoColuna(int coluna) {
+		int conflito = calculaConflitoColuna(coluna);
+		conflitos += conflito - conflitoColuna[coluna];
+		conflitoColuna[coluna] = conflito;
+	}
+
+	private int calculaConflitoLinha(int linha) {
+		int tamanho = 0;
+		for (int j = 0; j < n; j++) {
+			int peca = pecas[linha * n + j];
+			if (peca != 0 && peca / n == linha) {
+				sequencia[tamanho++] = peca % n;
+			}
+		}
+		return conflitoLinear(tamanho);
+	}
+
+	private int calculaConflitoColuna(int coluna) {
+		int tamanho = 0;
+		for (int i = 0; i < n; i++) {
+			int peca = pecas[i * n + coluna];
+			if (peca != 0 && peca % n == coluna) {
+				sequencia[tamanho++] = peca / n;
+			}
+		}
+		return conflitoLinear(tamanho);
+	}
+
+	/**
+	 * Conflito linear das peças que já estão em sua linha (ou coluna) objetivo: as peças fora da maior subsequência
+	 * crescente de posições objetivo precisam sair da linha e voltar, custando dois movimentos adicionais cada.
+	 */
+	private int conflitoLinear(int tamanho) {
+		int maior = 0;
+		for (int i = 0; i < tamanho; i++) {
+			escala[i] = 1;
+			for (int j = 0; j < i; j++) {
+				if (sequencia[j] < sequencia[i] && escala[j] + 1 > escala[i]) {
+					escala[i] = escala[j] + 1;
+				}
+			}
+			if (escala[i] > maior) {
+				maior = escala[i];
+			}
+		}
+		return 2 * (tamanho - maior);
+	}
+
+	private List<Acao<NPuzzleTabuleiro>> reconstruirCaminho(NPuzzleTabuleiro inicial) {
+		List<Acao<NPuzzleTabuleiro>> solucao = new ArrayList<>(profundidadeSolucao + 1);
+		solucao.add(Acao.nenhuma(inicial));
+		NPuzzleTabuleiro tabuleiro = inicial;
+		for (int i = 0; i < profundidadeSolucao; i++) {
+			NPuzzleAcao acao = new NPuzzleAcao(caminho[i], tabuleiro);
+			solucao.add(acao);
+			tabuleiro = acao.getEstadoAlvo();
+		}
+		return solucao;
+	}
+}
@@ -0,0 +1,105 @@
+package io.wveiga.ia.algs.busca.info;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.wveiga.ia.ed.MapaLongInt;
+import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.problema.ProblemaCodificavel;
+
+/**
+ * Estados alcançados por uma busca informada, cada um com um identificador denso que indexa vetores primitivos com o
+ * menor custo g conhecido e o nó da árvore de busca correspondente.
+ *
+ * Quando o problema é um {@link ProblemaCodificavel}, os identificadores são indexados pelo código de cada estado em
+ * um {@link MapaLongInt}, sem boxing nem objetos por estado. Nos demais problemas são indexados pelo próprio estado em
+ * um {@link HashMap}.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estados.
+ */
+class Estados<S> {
+
+	static final int NOVO = -1;
+
+	static final int CAPACIDADE_INICIAL = 64;
+
+	private final ProblemaCodificavel<S> codificavel;
+	private final MapaLongInt codigos;
+	private final Map<S, Integer> ids;
+	private int tamanho;
+	private double[] custos = new double[CAPACIDADE_INICIAL];
+	private int[] nos = new int[CAPACIDADE_INICIAL];
+
+	@SuppressWarnings("unchecked")
+	Estados(Problema<S> problema) {
+		if (problema instanceof ProblemaCodificavel) {
+			this.codificavel = (ProblemaCodificavel<S>) problema;
+			this.codigos = new MapaLongInt();
+			this.ids = null;
+		} else {
+			this.codificavel = null;
+			this.codigos = null;
+			this.ids = new HashMap<>();
+		}
+	}
+
+	/**
+	 * @return identificador do estado, ou {@link #NOVO} se ele ainda não foi alcançado.
+	 */
+	final int id(S estado) {
+		if (codigos != null) {
+			return codigos.obtem(codificavel.codifica(estado));
+		}
+		Integer id = ids.get(estado);
+		return id == null ? NOVO : id;
+	}
+
+	/**
+	 * Registra um estado ainda não alcançado.
+	 *
+	 * @return identificador do estado.
+	 */
+	final int alcanca(S estado, double g, int no) {
+		int id = tamanho;
+		if (id == custos.length) {
+			cresce(id + (id >> 1) + 1);
+		}
+		if (codigos != null) {
+			codigos.associa(codificavel.codifica(estado), id);
+		} else {
+			ids.put(estado, id);
+		}
+		tamanho++;
+		return melhora(id, g, no);
+	}
+
+	final int melhora(int id, double g, int no) {
+		custos[id] = g;
+		nos[id] = no;
+		return id;
+	}
+
+	/**
+	 * Aumenta a capacidade dos vetores indexados pelos identificadores. Subclasses com vetores próprios devem
+	 * aumentá-los também.
+	 */
+	void cresce(int capacidade) {
+		custos = Arrays.copyOf(custos, capacidade);
+		nos = Arrays.copyOf(nos, capacidade);
+	}
+
+	final double g(int id) {
+		return custos[id];
+	}
+
+	final int no(int id) {
+		return nos[id];
+	}
+
+	final int tamanho() {
+		return tamanho;
+	}
+}
@@ -0,0 +1,35 @@
+package io.wveiga.ia.algs.busca.info;
+
+/**
+ * Função heurística h(n) de uma busca informada, que estima o custo do caminho mais barato
+ * de um estado até a solução.
+ * 
+ * Para que a busca A* encontre a solução ótima a heurística deve ser admissível, isto é,
+ * nunca superestimar o custo real até a solução.
+ * 
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estados avaliados pela heurística.
+ */
+@FunctionalInterface
+public interface Heuristica<S> {
+	
+	/**
+	 * Heurística que estima custo zero para qualquer estado.
+	 * Com ela a busca A* se comporta como uma busca de custo uniforme.
+	 * 
+	 * @return heurística nula.
+	 */
+	static <S> Heuristica<S> nula() {
+		return estado -> 0d;
+	}
+
+	/**
+	 * Estima o custo de um estado até a solução.
+	 * 
+	 * @param estado estado avaliado.
+	 * @return custo estimado, não negativo. {@link Double#POSITIVE_INFINITY} indica que a solução 
+	 * não pode ser alcançada a partir do estado.
+	 */
+	double estima(S estado);
+}
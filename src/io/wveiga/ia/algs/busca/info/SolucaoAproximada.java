@@ -0,0 +1,75 @@
+package io.wveiga.ia.algs.busca.info;
+
+import java.util.List;
+
+import io.wveiga.ia.problema.Acao;
+
+/**
+ * Solução publicada por uma busca anytime, com o limite de subotimalidade conhecido no momento da publicação:
+ * o custo da solução é no máximo <code>limite</code> vezes o custo da solução ótima.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado da solução.
+ */
+public final class SolucaoAproximada<S> {
+
+	private final List<Acao<S>> acoes;
+	private final double custo;
+	private final double limite;
+	private final double peso;
+	private final long nanos;
+
+	SolucaoAproximada(List<Acao<S>> acoes, double custo, double limite, double peso, long nanos) {
+		this.acoes = acoes;
+		this.custo = custo;
+		this.limite = limite;
+		this.peso = peso;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * @return ações da solução, a partir do estado inicial.
+	 */
+	public List<Acao<S>> getAcoes() {
+		return acoes;
+	}
+
+	public double getCusto() {
+		return custo;
+	}
+
+	/**
+	 * @return limite de subotimalidade, maior ou igual a 1.
+	 */
+	public double getLimite() {
+		return limite;
+	}
+
+	/**
+	 * @return verdadeiro se a solução é comprovadamente ótima.
+	 */
+	public boolean otima() {
+		return limite <= 1d;
+	}
+
+	/**
+	 * @return peso da heurística na iteração que encontrou a solução ou o limite.
+	 */
+	public double getPeso() {
+		return peso;
+	}
+
+	/**
+	 * @return tempo desde o início da busca até a publicação, em nanossegundos.
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	@Override
+	public String toString() {
+		return "SolucaoAproximada [custo=" + custo + ", limite=" + limite + ", peso=" + peso + ", acoes="
+				+ (acoes.size() - 1) + ", nanos=" + nanos + "]";
+	}
+}
@@ -1,21 +1,25 @@
 package io.wveiga.ia.algs.busca.naoinfo;
 
-import io.wveiga.ia.problema.Acao;
-
 /**
  * Os algoritmos de busca não informada possuem uma forma padrão, diferindo principalmente na forma como a borda é tratada.
  * 
  * Essa interface define o comportamento comum da Borda para os algoritmos de busca não informada.
  * 
+ * A borda guarda apenas os identificadores dos nós na arena da busca ({@link io.wveiga.ia.ed.ArenaNos}),
+ * onde ficam as ações e os pais de cada nó.
+ * 
  * @author Welington Veiga
- *
- * @param <T> Tipo de estado para qual as ações presentes na borda podem levar.
  */
-interface Borda<T> {
+interface Borda {
 
-	void insere(Acao<T> acao);
+	void insere(int no);
 	
-	Acao<T>  retira();
+	int retira();
 	
 	boolean vazia();
+	
+	/**
+	 * @return número de nós na borda.
+	 */
+	int tamanho();
 }
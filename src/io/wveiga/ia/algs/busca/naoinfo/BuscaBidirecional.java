@@ -0,0 +1,204 @@
+package io.wveiga.ia.algs.busca.naoinfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.BuscaOrcada;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.ProblemaReversivel;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * "A busca bidirecional executa duas buscas simultâneas, uma a partir do estado inicial e outra a partir do objetivo,
+ * parando quando as duas se encontram. A motivação é que b^(d/2) + b^(d/2) é muito menor que b^d." (Russel e Norvig)
+ *
+ * As duas buscas são em largura e, a cada passo, a camada inteira da borda menor é expandida. Ao fim da camada,
+ * o encontro de menor profundidade total é escolhido, de forma que a solução tem o menor número de ações possível.
+ *
+ * O tamanho da borda informado ao monitor, se houver, é a soma da próxima camada em construção com a camada atual da
+ * outra busca.
+ *
+ * @author Welington Veiga
+ * @since 1.0
+ *
+ * @see http://aima.cs.berkeley.edu/ Cap. 3
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ * @param <T> Problema que a busca vai resolver.
+ */
+public class BuscaBidirecional<S, T extends ProblemaReversivel<S>> implements BuscaMonitoravel<S>, BuscaOrcada<S> {
+
+	private final T problema;
+
+	private MonitorBusca<S> monitor;
+
+	public BuscaBidirecional(T problema) {
+		Preconditions.nonNull(problema);
+		this.problema = problema;
+	}
+
+	@Override
+	public void setMonitor(MonitorBusca<S> monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	public Optional<List<Acao<S>>> buscar() {
+		return ExecucaoBusca.monitorada(monitor, this::busca);
+	}
+
+	/**
+	 * Realiza a busca respeitando o orçamento. Os estados guardados são os alcançados pelas duas buscas.
+	 *
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	@Override
+	public ResultadoBusca<S> buscar(Orcamento orcamento) {
+		return ExecucaoBusca.orcada(monitor, orcamento, this::busca);
+	}
+
+	/**
+	 * Busca propriamente dita. Com o monitor nulo nenhum evento é informado e nenhum tempo é medido, e com o
+	 * controle nulo não há limites.
+	 */
+	private Optional<List<Acao<S>>> busca(MonitorBusca<S> monitor, Orcamento.Controle controle) {
+		if (problema.insoluvel()) {
+			return Optional.empty();
+		}
+		long instante = monitor == null ? 0L : System.nanoTime();
+		S inicial = problema.estadoInicial();
+		if (problema.solucao(inicial)) {
+			return Optional.of(Collections.singletonList(Acao.nenhuma(inicial)));
+		}
+		S objetivo = problema.estadoObjetivo();
+
+		// 1. Estados alcançados por cada uma das buscas, com o nó que leva até eles.
+		Map<S, No<S>> frente = new HashMap<>();
+		Map<S, No<S>> tras = new HashMap<>();
+		frente.put(inicial, new No<>(inicial, Acao.nenhuma(inicial), null, 0));
+		tras.put(objetivo, new No<>(objetivo, null, null, 0));
+
+		List<S> camadaFrente = Collections.singletonList(inicial);
+		List<S> camadaTras = Collections.singletonList(objetivo);
+		long expandidos = 0;
+		if (monitor != null) {
+			monitor.gerado(1);
+			monitor.gerado(2);
+		}
+		instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
+
+		while (!camadaFrente.isEmpty() && !camadaTras.isEmpty()) {
+			// 2. Expande a menor das bordas.
+			boolean porFrente = camadaFrente.size() <= camadaTras.size();
+			Map<S, No<S>> proprios = porFrente ? frente : tras;
+			Map<S, No<S>> outros = porFrente ? tras : frente;
+			List<S> camada = porFrente ? camadaFrente : camadaTras;
+			int outraCamada = porFrente ? camadaTras.size() : camadaFrente.size();
+
+			List<S> proxima = new ArrayList<>();
+			S encontro = null;
+			int melhor = Integer.MAX_VALUE;
+			for (S estado : camada) {
+				// 2.1 Se o orçamento acabou, a busca é abandonada.
+				if (controle != null && controle.esgotado(expandidos, frente.size() + tras.size())) {
+					MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+					return Optional.empty();
+				}
+				expandidos++;
+				No<S> no = proprios.get(estado);
+				List<Acao<S>> acoes = porFrente ? problema.sucessores(estado) : problema.antecessores(estado);
+				if (monitor != null) {
+					monitor.expandido();
+				}
+				for (Acao<S> acao : acoes) {
+					S alvo = acao.getEstadoAlvo();
+					if (proprios.containsKey(alvo)) {
+						if (monitor != null) {
+							monitor.repetido();
+						}
+						continue;
+					}
+					proprios.put(alvo, new No<>(alvo, acao, no, no.profundidade + 1));
+					proxima.add(alvo);
+					if (monitor != null) {
+						monitor.gerado(proxima.size() + outraCamada);
+					}
+
+					// 3. Encontro entre as buscas, guardamos o de menor profundidade total da camada.
+					No<S> outro = outros.get(alvo);
+					if (outro != null && no.profundidade + 1 + outro.profundidade < melhor) {
+						melhor = no.profundidade + 1 + outro.profundidade;
+						encontro = alvo;
+					}
+				}
+			}
+
+			if (encontro != null) {
+				instante = MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+				List<Acao<S>> solucao = reconstruirCaminho(frente.get(encontro), tras.get(encontro));
+				MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+				return Optional.of(solucao);
+			}
+			if (porFrente) {
+				camadaFrente = proxima;
+			} else {
+				camadaTras = proxima;
+			}
+		}
+		MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+		return Optional.empty();
+	}
+
+	private List<Acao<S>> reconstruirCaminho(No<S> frente, No<S> tras) {
+		// 1. Da origem ao encontro, as ações da busca para frente.
+		List<Acao<S>> solucao = new ArrayList<>();
+		for (No<S> no = frente; no != null; no = no.pai) {
+			solucao.add(no.acao);
+		}
+		Collections.reverse(solucao);
+
+		// 2. Do encontro ao objetivo, as ações da busca para trás estão invertidas e são substituídas
+		// pela ação equivalente no sentido original.
+		for (No<S> no = tras; no.pai != null; no = no.pai) {
+			solucao.add(acaoEntre(no.estado, no.pai.estado));
+		}
+		return solucao;
+	}
+
+	private Acao<S> acaoEntre(S origem, S destino) {
+		for (Acao<S> acao : problema.sucessores(origem)) {
+			if (acao.getEstadoAlvo().equals(destino)) {
+				return acao;
+			}
+		}
+		throw new IllegalStateException("Nenhuma ação leva de " + origem + " a " + destino);
+	}
+
+	/**
+	 * Nó de uma das buscas, com o estado, a ação que levou até ele, o nó pai e sua profundidade.
+	 */
+	private static final class No<S> {
+		private final S estado;
+		private final Acao<S> acao;
+		private final No<S> pai;
+		private final int profundidade;
+
+		private No(S estado, Acao<S> acao, No<S> pai, int profundidade) {
+			this.estado = estado;
+			this.acao = acao;
+			this.pai = pai;
+			this.profundidade = profundidade;
+		}
+	}
+}
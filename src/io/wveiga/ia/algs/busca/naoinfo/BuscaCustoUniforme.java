@@ -0,0 +1,194 @@
+package io.wveiga.ia.algs.busca.naoinfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntPredicate;
+
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.BuscaOrcada;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
+import io.wveiga.ia.algs.busca.info.BuscaAEstrela;
+import io.wveiga.ia.algs.busca.info.Heuristica;
+import io.wveiga.ia.algs.grafo.Dijkstra;
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.problema.ProblemaGrafo;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * "A busca de custo uniforme expande o nó n com o menor custo de caminho g(n), acumulando o custo de cada ação.
+ * Ela é ótima para qualquer função de custo não negativa." (Russel e Norvig)
+ *
+ * Para problemas em geral a busca é uma {@link BuscaAEstrela} com a {@link Heuristica#nula() heurística nula}.
+ * Quando o problema é um {@link ProblemaGrafo}, a busca é feita pelo algoritmo de {@link Dijkstra} diretamente sobre
+ * os identificadores dos vértices, e as ações só são obtidas do problema para montar a solução encontrada. O
+ * Dijkstra aloca vetores do tamanho do grafo; para reaproveitá-los entre consultas de problemas diferentes sobre o
+ * mesmo grafo, passe o mesmo {@link Dijkstra} a cada busca por {@link #BuscaCustoUniforme(Problema, Dijkstra)}.
+ *
+ * Na busca pelo Dijkstra o monitor, se houver, é informado apenas dos vértices fechados, como nós expandidos: a borda
+ * é interna ao Dijkstra. Pelo mesmo motivo, no {@link Orcamento} os estados fechados são os vértices fechados.
+ *
+ * Instâncias desta classe não devem ser compartilhadas entre threads.
+ *
+ * @author Welington Veiga
+ * @since 1.0
+ *
+ * @see http://aima.cs.berkeley.edu/ Cap. 3
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ * @param <T> Problema que a busca vai resolver.
+ */
+public class BuscaCustoUniforme<S, T extends Problema<S>> implements BuscaMonitoravel<S>, BuscaOrcada<S> {
+
+	private final T problema;
+	private final Dijkstra<S> dijkstra;
+
+	private MonitorBusca<S> monitor;
+
+	public BuscaCustoUniforme(T problema) {
+		Preconditions.nonNull(problema);
+		this.problema = problema;
+		this.dijkstra = null;
+	}
+
+	/**
+	 * Busca em um {@link ProblemaGrafo} que usa os vetores do Dijkstra informado, sem alocar nada proporcional ao
+	 * tamanho do grafo. O Dijkstra não deve ser usado por outra thread durante a busca.
+	 *
+	 * @param problema problema sobre o grafo do Dijkstra, não nulo.
+	 * @param dijkstra Dijkstra no sentido das ligações sobre o grafo do problema, não nulo.
+	 */
+	public BuscaCustoUniforme(T problema, Dijkstra<S> dijkstra) {
+		Preconditions.nonNull(problema, dijkstra);
+		Preconditions.verify(problema instanceof ProblemaGrafo
+				&& ((ProblemaGrafo<?>) problema).getGrafo() == dijkstra.getGrafo() && !dijkstra.isReverso(),
+				"Dijkstra deve percorrer o grafo do problema no sentido das ligações");
+		this.problema = problema;
+		this.dijkstra = dijkstra;
+	}
+
+	protected T getProblema() {
+		return problema;
+	}
+
+	@Override
+	public void setMonitor(MonitorBusca<S> monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	public Optional<List<Acao<S>>> buscar() {
+		int origem = origemNoGrafo();
+		if (origem == Grafo.AUSENTE) {
+			return aEstrela().buscar();
+		}
+		return ExecucaoBusca.monitorada(monitor, (monitor, controle) -> buscaNoGrafo(origem, monitor, controle));
+	}
+
+	/**
+	 * Realiza a busca respeitando o orçamento. Para problemas em geral, o orçamento é repassado à
+	 * {@link BuscaAEstrela}.
+	 *
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	@Override
+	public ResultadoBusca<S> buscar(Orcamento orcamento) {
+		int origem = origemNoGrafo();
+		if (origem == Grafo.AUSENTE) {
+			return aEstrela().buscar(orcamento);
+		}
+		return ExecucaoBusca.orcada(monitor, orcamento, (monitor, controle) -> buscaNoGrafo(origem, monitor, controle));
+	}
+
+	/**
+	 * @return identificador do estado inicial no grafo do problema, ou {@link Grafo#AUSENTE} se a busca não pode ser
+	 * feita pelo Dijkstra.
+	 */
+	private int origemNoGrafo() {
+		if (!(problema instanceof ProblemaGrafo)) {
+			return Grafo.AUSENTE;
+		}
+		@SuppressWarnings("unchecked")
+		ProblemaGrafo<S> problemaGrafo = (ProblemaGrafo<S>) problema;
+		return problemaGrafo.getGrafo().indice(problema.estadoInicial());
+	}
+
+	private BuscaAEstrela<S, T> aEstrela() {
+		BuscaAEstrela<S, T> busca = new BuscaAEstrela<>(problema, Heuristica.<S>nula());
+		busca.setMonitor(monitor);
+		return busca;
+	}
+
+	/**
+	 * Busca pelo Dijkstra. Com o monitor nulo nenhum evento é informado e nenhum tempo é medido, e com o controle
+	 * nulo não há limites.
+	 */
+	private Optional<List<Acao<S>>> buscaNoGrafo(int origem, MonitorBusca<S> monitor, Orcamento.Controle controle) {
+		if (problema.insoluvel()) {
+			return Optional.empty();
+		}
+		long instante = monitor == null ? 0L : System.nanoTime();
+		@SuppressWarnings("unchecked")
+		ProblemaGrafo<S> problemaGrafo = (ProblemaGrafo<S>) problema;
+		Grafo<S> grafo = problemaGrafo.getGrafo();
+		// 1. As distâncias e a heap são as do Dijkstra informado na criação, ou são alocadas para esta busca.
+		Dijkstra<S> dijkstra = this.dijkstra != null ? this.dijkstra : new Dijkstra<>(grafo);
+		instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
+		Fechamento<S> fechamento = new Fechamento<>(problema, grafo, monitor, controle);
+		int destino = dijkstra.busca(origem, fechamento);
+		instante = MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+		if (destino == Grafo.AUSENTE || fechamento.interrompido) {
+			return Optional.empty();
+		}
+
+		// 2. Cada passo do caminho é a ação mais barata do problema entre os dois vértices.
+		int[] caminho = dijkstra.caminho(destino);
+		List<Acao<S>> solucao = new ArrayList<>(caminho.length);
+		solucao.add(Acao.nenhuma(problema.estadoInicial()));
+		for (int i = 1; i < caminho.length; i++) {
+			solucao.add(problemaGrafo.acaoEntre(grafo.vertice(caminho[i - 1]), grafo.vertice(caminho[i])));
+		}
+		MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+		return Optional.of(solucao);
+	}
+
+	/**
+	 * Condição de parada do Dijkstra, avaliada a cada vértice fechado: o vértice é solução do problema, ou o orçamento
+	 * acabou e a busca é abandonada.
+	 */
+	private static final class Fechamento<S> implements IntPredicate {
+		private final Problema<S> problema;
+		private final Grafo<S> grafo;
+		private final MonitorBusca<S> monitor;
+		private final Orcamento.Controle controle;
+		private long fechados;
+		private boolean interrompido;
+
+		private Fechamento(Problema<S> problema, Grafo<S> grafo, MonitorBusca<S> monitor, Orcamento.Controle controle) {
+			this.problema = problema;
+			this.grafo = grafo;
+			this.monitor = monitor;
+			this.controle = controle;
+		}
+
+		@Override
+		public boolean test(int vertice) {
+			if (controle != null && controle.esgotado(fechados, fechados)) {
+				interrompido = true;
+				return true;
+			}
+			fechados++;
+			if (monitor != null) {
+				monitor.expandido();
+			}
+			return problema.solucao(grafo.vertice(vertice));
+		}
+	}
+}
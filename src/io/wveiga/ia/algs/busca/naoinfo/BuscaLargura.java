@@ -1,10 +1,20 @@
 package io.wveiga.ia.algs.busca.naoinfo;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
 import io.wveiga.ia.problema.Acao;
 import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.problema.ProblemaReversivel;
 
 
 /**
@@ -27,29 +37,216 @@ public class BuscaLargura<S, T extends Problema<S>> extends BuscaNaoInformada<S,
 	}
 
 	@Override
-	public Borda<S> criaBorda() {
-		return new BordaFila<>();
+	public Borda criaBorda() {
+		return new BordaFila();
+	}
+	
+	/**
+	 * Busca em largura por camadas (frontier search, Korf), que guarda apenas a camada anterior, a atual e a próxima,
+	 * em vez de todos os estados visitados. Estados repetidos são eliminados no momento em que são gerados.
+	 * 
+	 * A memória utilizada é proporcional à maior camada da busca, e não a todo o espaço alcançável. Em troca,
+	 * o caminho precisa ser reconstruído por divisão e conquista: conhecida a profundidade d da solução, uma nova busca
+	 * registra o ancestral de cada estado na camada d/2, e os dois trechos são resolvidos recursivamente.
+	 * 
+	 * Só é correta para problemas não direcionados, onde toda ação pode ser desfeita (como o N-Puzzle e mapas
+	 * construídos com ligações bidirecionais): nesses problemas um sucessor só pode estar na camada anterior, 
+	 * na atual ou na próxima. Por isso exige um {@link ProblemaReversivel} e verifica, a cada estado gerado, se
+	 * alguma ação leva de volta ao seu pai. Sem essa garantia um estado já descartado poderia voltar à borda, e a busca
+	 * não terminaria em um ciclo de mão única com a solução inalcançável.
+	 * 
+	 * O monitor, se houver, recebe os eventos de todas as passagens, inclusive as da reconstrução, e o tamanho
+	 * da borda informado é a soma das camadas atual e próxima.
+	 * 
+	 * @return Opcional com a lista de ações caso a solução seja encontrada ou vazio, caso contrário.
+	 * @throws IllegalStateException se o problema não for um {@link ProblemaReversivel} ou se alguma ação gerada
+	 * não puder ser desfeita.
+	 */
+	public Optional<List<Acao<S>>> buscarPorCamadas() {
+		return ExecucaoBusca.monitorada(getMonitor(), this::buscaPorCamadas);
+	}
+	
+	/**
+	 * Busca em largura por camadas respeitando o orçamento, veja {@link #buscarPorCamadas()}.
+	 * 
+	 * As expansões da reconstrução também consomem o orçamento, e os estados guardados são os das
+	 * três camadas mantidas pela passagem atual.
+	 * 
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	public ResultadoBusca<S> buscarPorCamadas(Orcamento orcamento) {
+		return ExecucaoBusca.orcada(getMonitor(), orcamento, this::buscaPorCamadas);
+	}
+	
+	private Optional<List<Acao<S>>> buscaPorCamadas(MonitorBusca<S> monitor, Orcamento.Controle controle) {
+		T problema = getProblema();
+		if (!(problema instanceof ProblemaReversivel)) {
+			throw new IllegalStateException("A busca por camadas exige um ProblemaReversivel");
+		}
+		if (problema.insoluvel()) {
+			return Optional.empty();
+		}
+		long instante = monitor == null ? 0L : System.nanoTime();
+		Expansoes<S> expansoes = new Expansoes<>(monitor, controle);
+		S inicial = problema.estadoInicial();
+		instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
+		
+		// 1. Primeira passagem, apenas para encontrar a solução e sua profundidade.
+		Encontro<S> encontro = buscaCamadas(inicial, problema::solucao, -1, expansoes);
+		instante = MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+		if (encontro == null) {
+			return Optional.empty();
+		}
+		
+		// 2. Reconstrução do caminho entre o estado inicial e a solução.
+		List<Acao<S>> solucao = new ArrayList<>(encontro.profundidade + 1);
+		solucao.add(Acao.nenhuma(inicial));
+		boolean reconstruida = reconstroi(inicial, encontro.estado, encontro.profundidade, solucao, expansoes);
+		MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+		return reconstruida ? Optional.of(solucao) : Optional.empty();
+	}
+	
+	/**
+	 * Adiciona à solução as ações do menor caminho de origem até destino, que estão a exatamente
+	 * <code>profundidade</code> ações de distância.
+	 * 
+	 * @return falso se o orçamento acabou antes do fim da reconstrução.
+	 */
+	private boolean reconstroi(S origem, S destino, int profundidade, List<Acao<S>> solucao, Expansoes<S> expansoes) {
+		if (profundidade == 0) {
+			return true;
+		}
+		if (profundidade == 1) {
+			if (expansoes.esgotado(1)) {
+				return false;
+			}
+			for (Acao<S> acao : getProblema().sucessores(origem)) {
+				if (acao.getEstadoAlvo().equals(destino)) {
+					solucao.add(acao);
+					return true;
+				}
+			}
+			throw new IllegalStateException("Nenhuma ação leva de " + origem + " a " + destino);
+		}
+		
+		// Encontra o estado intermediário do caminho e resolve cada metade separadamente.
+		int meio = profundidade / 2;
+		Encontro<S> encontro = buscaCamadas(origem, destino::equals, meio, expansoes);
+		if (encontro == null && expansoes.interrompida()) {
+			return false;
+		}
+		if (encontro == null || encontro.profundidade != profundidade) {
+			throw new IllegalStateException("Problema não é reversível, a busca por camadas não se aplica");
+		}
+		return reconstroi(origem, encontro.meio, meio, solucao, expansoes)
+				&& reconstroi(encontro.meio, destino, profundidade - meio, solucao, expansoes);
+	}
+	
+	/**
+	 * Busca em largura por camadas a partir da origem até o primeiro estado que satisfaça o alvo.
+	 * 
+	 * Cada estado da camada é associado ao seu ancestral na camada <code>meio</code> (ou a nulo, antes dela).
+	 * 
+	 * @throws IllegalStateException se algum estado gerado não tiver ação de volta ao seu pai.
+	 * 
+	 * @return estado encontrado, sua profundidade e seu ancestral no meio, ou nulo caso nenhum estado satisfaça o alvo
+	 * ou o orçamento acabe.
+	 */
+	@SuppressWarnings("unchecked")
+	private Encontro<S> buscaCamadas(S origem, Predicate<S> alvo, int meio, Expansoes<S> expansoes) {
+		ProblemaReversivel<S> problema = (ProblemaReversivel<S>) getProblema();
+		MonitorBusca<S> monitor = expansoes.monitor;
+		if (alvo.test(origem)) {
+			return new Encontro<>(origem, 0, origem);
+		}
+		
+		Map<S, S> anterior = new HashMap<>();
+		Map<S, S> atual = new HashMap<>();
+		atual.put(origem, meio == 0 ? origem : null);
+		if (monitor != null) {
+			monitor.gerado(1);
+		}
+		
+		for (int profundidade = 1; !atual.isEmpty(); profundidade++) {
+			Map<S, S> proxima = new HashMap<>();
+			for (Map.Entry<S, S> entrada : atual.entrySet()) {
+				if (expansoes.esgotado(anterior.size() + atual.size() + proxima.size())) {
+					return null;
+				}
+				for (Acao<S> acao : problema.sucessores(entrada.getKey())) {
+					S estado = acao.getEstadoAlvo();
+					// Em um problema reversível, um estado repetido só pode estar em uma destas três camadas.
+					if (anterior.containsKey(estado) || atual.containsKey(estado) || proxima.containsKey(estado)) {
+						if (monitor != null) {
+							monitor.repetido();
+						}
+						continue;
+					}
+					// Uma ação sem volta permitiria que estados descartados voltassem à borda.
+					if (!problema.existeAcao(estado, entrada.getKey())) {
+						throw new IllegalStateException("A ação de " + entrada.getKey() + " a " + estado
+								+ " não pode ser desfeita, a busca por camadas não se aplica");
+					}
+					S ancestral = profundidade == meio ? estado : entrada.getValue();
+					if (alvo.test(estado)) {
+						return new Encontro<>(estado, profundidade, ancestral);
+					}
+					proxima.put(estado, ancestral);
+					if (monitor != null) {
+						monitor.gerado(atual.size() + proxima.size());
+					}
+				}
+			}
+			anterior = atual;
+			atual = proxima;
+		}
+		return null;
+	}
+	
+	/**
+	 * Estado encontrado por uma busca em camadas.
+	 */
+	private static final class Encontro<S> {
+		private final S estado;
+		private final int profundidade;
+		private final S meio;
+		
+		private Encontro(S estado, int profundidade, S meio) {
+			this.estado = estado;
+			this.profundidade = profundidade;
+			this.meio = meio;
+		}
 	}
 
 	/**
 	 * Comportamento para inserção e remoção de ações (nós) da borda de uma Busca em Largura (ou Extensão).
 	 * 	  
-	 * Basicamente decora uma fila.
+	 * Basicamente decora uma fila circular de identificadores de nós.
 	 * 
 	 * @author Welington Veiga
-	 *
-	 * @param <S> Tipo de estado para onde as ações da borda podem levar.
 	 */
-	private static class BordaFila<S> implements Borda<S> {
+	private static class BordaFila implements Borda {
 		
-		private final Queue<Acao<S>> fila = new LinkedList<>();
+		private int[] fila = new int[64];
+		private int inicio;
+		private int tamanho;
 		
 		/**
 		 * Insere uma ação na borda, isto é, adiciona no fim da fila.
 		 */
 		@Override
-		public void insere(Acao<S> acao) {
-			fila.add(acao);
+		public void insere(int no) {
+			if (tamanho == fila.length) {
+				int[] maior = new int[fila.length << 1];
+				for (int i = 0; i < tamanho; i++) {
+					maior[i] = fila[(inicio + i) & (fila.length - 1)];
+				}
+				fila = maior;
+				inicio = 0;
+			}
+			fila[(inicio + tamanho) & (fila.length - 1)] = no;
+			tamanho++;
 		}
 
 
@@ -59,50 +256,34 @@ public class BuscaLargura<S, T extends Problema<S>> extends BuscaNaoInformada<S,
 		 * @throws IllegalStateEsception se a fila estiver vazia.
 		 */
 		@Override
-		public Acao<S> retira() {
+		public int retira() {
 			if (vazia()){
 				throw new IllegalStateException("Fila vazia");
 			} 
-			return fila.poll();
+			int no = fila[inicio];
+			inicio = (inicio + 1) & (fila.length - 1);
+			tamanho--;
+			return no;
 		}
 		
 
 		/**
 		 * Retorna true caso a fila esteja vazia, falso caso contrário.
 		 * 
-		 */		@Override
-		public boolean vazia() {
-			return fila.isEmpty();
-		}
-
+		 */
 		@Override
-		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = prime * result + ((fila == null) ? 0 : fila.hashCode());
-			return result;
+		public boolean vazia() {
+			return tamanho == 0;
 		}
 
 		@Override
-		public boolean equals(Object obj) {
-			if (this == obj)
-				return true;
-			if (obj == null)
-				return false;
-			if (getClass() != obj.getClass())
-				return false;
-			BordaFila<?> other = (BordaFila<?>) obj;
-			if (fila == null) {
-				if (other.fila != null)
-					return false;
-			} else if (!fila.equals(other.fila))
-				return false;
-			return true;
+		public int tamanho() {
+			return tamanho;
 		}
 
 		@Override
 		public String toString() {
-			return "BordaFila [fila=" + fila + "]";
+			return "BordaFila [tamanho=" + tamanho + "]";
 		}
 				
 	}
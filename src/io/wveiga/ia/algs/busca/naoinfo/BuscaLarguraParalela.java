@@ -0,0 +1,256 @@
+package io.wveiga.ia.algs.busca.naoinfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.BuscaOrcada;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Busca em largura paralela, sincronizada por camadas.
+ *
+ * Cada camada é expandida em duas fases, ambas distribuídas em um {@link ForkJoinPool}:
+ * <ol>
+ * 	<li>os nós da camada são divididos em blocos, e cada bloco gera seus sucessores separando-os por partição,
+ * 		de acordo com o hash do estado;</li>
+ * 	<li>cada partição elimina os estados repetidos contra seu próprio conjunto de fechados e produz sua parte da
+ * 		próxima camada.</li>
+ * </ol>
+ * Como cada partição é tratada por uma única tarefa, não há nenhum bloqueio global nem estruturas concorrentes.
+ * A solução é encontrada na primeira camada que a contém, logo tem a menor profundidade possível, como na
+ * {@link BuscaLargura}.
+ *
+ * O problema deve permitir chamadas concorrentes a {@link Problema#sucessores(Object)} e {@link Problema#solucao(Object)}.
+ * O monitor, se houver, não precisa: os eventos de cada camada são informados pela thread que chamou a busca, ao fim
+ * da camada, e o tamanho da borda informado é o da próxima camada.
+ *
+ * Pelo mesmo motivo o {@link Orcamento} é verificado pela thread que chamou a busca antes de cada camada, e não a cada
+ * expansão: uma camada iniciada é sempre concluída, e os limites de expansões e fechados podem ser excedidos em até
+ * uma camada.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ * @param <T> Problema que a busca vai resolver.
+ */
+public class BuscaLarguraParalela<S, T extends Problema<S>> implements BuscaMonitoravel<S>, BuscaOrcada<S> {
+
+	private static final int BLOCOS_POR_THREAD = 4;
+
+	private final T problema;
+	private final ForkJoinPool pool;
+	private final int particoes;
+
+	private MonitorBusca<S> monitor;
+
+	public BuscaLarguraParalela(T problema) {
+		this(problema, ForkJoinPool.commonPool());
+	}
+
+	public BuscaLarguraParalela(T problema, ForkJoinPool pool) {
+		Preconditions.nonNull(problema, pool);
+		this.problema = problema;
+		this.pool = pool;
+		this.particoes = Integer.highestOneBit(pool.getParallelism() * BLOCOS_POR_THREAD - 1) << 1;
+	}
+
+	@Override
+	public void setMonitor(MonitorBusca<S> monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	public Optional<List<Acao<S>>> buscar() {
+		return ExecucaoBusca.monitorada(monitor, this::busca);
+	}
+
+	/**
+	 * Realiza a busca respeitando o orçamento, verificado antes de cada camada.
+	 *
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	@Override
+	public ResultadoBusca<S> buscar(Orcamento orcamento) {
+		return ExecucaoBusca.orcada(monitor, orcamento, this::busca);
+	}
+
+	/**
+	 * Busca propriamente dita. Com o monitor nulo nenhum evento é informado e nenhum tempo é medido, e com o
+	 * controle nulo não há limites.
+	 */
+	private Optional<List<Acao<S>>> busca(MonitorBusca<S> monitor, Orcamento.Controle controle) {
+		if (problema.insoluvel()) {
+			return Optional.empty();
+		}
+		long instante = monitor == null ? 0L : System.nanoTime();
+		S inicial = problema.estadoInicial();
+		No<S> raiz = new No<>(Acao.nenhuma(inicial), null);
+		if (problema.solucao(inicial)) {
+			return Optional.of(raiz.caminho());
+		}
+
+		// 1. Um conjunto de fechados por partição, cada um acessado por uma única tarefa por vez.
+		List<Fechados<S>> fechados = new ArrayList<>(particoes);
+		for (int i = 0; i < particoes; i++) {
+			fechados.add(Fechados.para(problema));
+		}
+		fechados.get(particao(inicial)).adiciona(inicial);
+		if (monitor != null) {
+			monitor.gerado(1);
+		}
+		instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
+
+		AtomicReference<No<S>> solucao = new AtomicReference<>();
+		List<No<S>> camada = Collections.singletonList(raiz);
+		long expandidos = 0;
+		long totalFechados = 1;
+		while (!camada.isEmpty()) {
+			// 2. Se o orçamento acabou, a busca é abandonada. O relógio é consultado a cada camada.
+			if (controle != null && controle.esgotadoAgora(expandidos, totalFechados)) {
+				break;
+			}
+			expandidos += camada.size();
+
+			// 3. Expande a camada em blocos, separando os sucessores por partição.
+			List<List<List<No<S>>>> gerados = expande(camada);
+
+			// 4. Elimina repetidos em cada partição e monta a próxima camada.
+			List<No<S>> proxima = elimina(gerados, fechados, solucao);
+			totalFechados += proxima.size();
+			if (monitor != null) {
+				informa(monitor, camada.size(), gerados, proxima.size());
+			}
+			camada = proxima;
+			if (solucao.get() != null) {
+				instante = MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+				List<Acao<S>> caminho = solucao.get().caminho();
+				MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+				return Optional.of(caminho);
+			}
+		}
+		MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+		return Optional.empty();
+	}
+
+	/**
+	 * Informa ao monitor os eventos de uma camada: cada nó da camada foi expandido, os sucessores que entraram na
+	 * próxima camada foram gerados e os demais eram repetidos.
+	 */
+	private static <S> void informa(MonitorBusca<S> monitor, int expandidos, List<List<List<No<S>>>> gerados, int novos) {
+		long sucessores = 0;
+		for (List<List<No<S>>> bloco : gerados) {
+			for (List<No<S>> particao : bloco) {
+				sucessores += particao.size();
+			}
+		}
+		for (int i = 0; i < expandidos; i++) {
+			monitor.expandido();
+		}
+		for (int i = 1; i <= novos; i++) {
+			monitor.gerado(i);
+		}
+		for (long i = novos; i < sucessores; i++) {
+			monitor.repetido();
+		}
+	}
+
+	private List<List<List<No<S>>>> expande(List<No<S>> camada) {
+		int blocos = Math.min(camada.size(), pool.getParallelism() * BLOCOS_POR_THREAD);
+		List<ForkJoinTask<List<List<No<S>>>>> tarefas = new ArrayList<>(blocos);
+		for (int b = 0; b < blocos; b++) {
+			int inicio = (int) ((long) camada.size() * b / blocos);
+			int fim = (int) ((long) camada.size() * (b + 1) / blocos);
+			tarefas.add(pool.submit(() -> {
+				List<List<No<S>>> porParticao = new ArrayList<>(particoes);
+				for (int i = 0; i < particoes; i++) {
+					porParticao.add(new ArrayList<>());
+				}
+				for (No<S> no : camada.subList(inicio, fim)) {
+					for (Acao<S> acao : problema.sucessores(no.acao.getEstadoAlvo())) {
+						porParticao.get(particao(acao.getEstadoAlvo())).add(new No<>(acao, no));
+					}
+				}
+				return porParticao;
+			}));
+		}
+		return junta(tarefas);
+	}
+
+	private List<No<S>> elimina(List<List<List<No<S>>>> gerados, List<Fechados<S>> fechados, AtomicReference<No<S>> solucao) {
+		List<ForkJoinTask<List<No<S>>>> tarefas = new ArrayList<>(particoes);
+		for (int p = 0; p < particoes; p++) {
+			int particao = p;
+			tarefas.add(pool.submit(() -> {
+				Fechados<S> fechadosParticao = fechados.get(particao);
+				List<No<S>> novos = new ArrayList<>();
+				for (List<List<No<S>>> bloco : gerados) {
+					for (No<S> no : bloco.get(particao)) {
+						S estado = no.acao.getEstadoAlvo();
+						if (fechadosParticao.adiciona(estado)) {
+							if (problema.solucao(estado)) {
+								solucao.compareAndSet(null, no);
+							}
+							novos.add(no);
+						}
+					}
+				}
+				return novos;
+			}));
+		}
+
+		List<No<S>> proxima = new ArrayList<>();
+		for (List<No<S>> novos : junta(tarefas)) {
+			proxima.addAll(novos);
+		}
+		return proxima;
+	}
+
+	private static <R> List<R> junta(List<ForkJoinTask<R>> tarefas) {
+		List<R> resultados = new ArrayList<>(tarefas.size());
+		for (ForkJoinTask<R> tarefa : tarefas) {
+			resultados.add(tarefa.join());
+		}
+		return resultados;
+	}
+
+	private int particao(S estado) {
+		int h = estado.hashCode();
+		return (h ^ (h >>> 16)) & (particoes - 1);
+	}
+
+	/**
+	 * Nó da árvore de busca, com a ação que levou até ele e o nó pai.
+	 */
+	private static final class No<S> {
+		private final Acao<S> acao;
+		private final No<S> pai;
+
+		private No(Acao<S> acao, No<S> pai) {
+			this.acao = acao;
+			this.pai = pai;
+		}
+
+		private List<Acao<S>> caminho() {
+			List<Acao<S>> caminho = new ArrayList<>();
+			for (No<S> no = this; no != null; no = no.pai) {
+				caminho.add(no.acao);
+			}
+			Collections.reverse(caminho);
+			return caminho;
+		}
+	}
+}
@@ -1,14 +1,17 @@
 package io.wveiga.ia.algs.busca.naoinfo;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.BuscaOrcada;
+import io.wveiga.ia.algs.busca.Caminhos;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
+import io.wveiga.ia.ed.ArenaNos;
 import io.wveiga.ia.problema.Acao;
 import io.wveiga.ia.problema.Problema;
 import io.wveiga.ia.util.Preconditions;
@@ -24,10 +27,12 @@ import io.wveiga.ia.util.Preconditions;
  * @param <S> tipo dos estado nos quais a busca vai ser realizada.
  * @param <T> Problema que a busca vai resolver.
  */
-public abstract class BuscaNaoInformada<S, T extends Problema<S>> {
+public abstract class BuscaNaoInformada<S, T extends Problema<S>> implements BuscaMonitoravel<S>, BuscaOrcada<S> {
 	
 	private final T problema;
 	
+	private MonitorBusca<S> monitor;
+	
 	/**
 	 * Problema que a busca se propõe a resolver.
 	 * @param problema, modelo do problema, não nulo.
@@ -37,12 +42,29 @@ public abstract class BuscaNaoInformada<S, T extends Problema<S>> {
 		this.problema = problema;
 	}
 	
-	public abstract Borda<S> criaBorda();
+	public abstract Borda criaBorda();
 	
 	protected T getProblema() {
 		return problema;
 	}
 	
+	/**
+	 * Define o monitor das próximas execuções de {@link #buscar()} e dos modos de busca próprios de cada subclasse.
+	 * 
+	 * @param monitor monitor, ou nulo para não monitorar.
+	 */
+	@Override
+	public void setMonitor(MonitorBusca<S> monitor) {
+		this.monitor = monitor;
+	}
+	
+	/**
+	 * @return monitor definido por {@link #setMonitor(MonitorBusca)}, ou nulo.
+	 */
+	protected MonitorBusca<S> getMonitor() {
+		return monitor;
+	}
+	
 	/**
 	 * Versão interativa da busca em profundidade.
 	 * Possui implementação mais complexa, mas não depende da pilha da linguagem, definindo sua própria
@@ -50,64 +72,105 @@ public abstract class BuscaNaoInformada<S, T extends Problema<S>> {
 	 * 
 	 * @return Opcional com a lista de ações caso a solução seja encontrada ou vazio, caso contrário.
 	 */
+	@Override
 	public Optional<List<Acao<S>>> buscar(){
-		// 1. Cria-se um hash para permitir as verificações de nós fechados em O(1)
-		Set<S> fechados = new HashSet<>();
+		return ExecucaoBusca.monitorada(monitor, this::busca);
+	}
+	
+	/**
+	 * Realiza a busca respeitando o orçamento. O monitor definido por {@link #setMonitor(MonitorBusca)}, se houver,
+	 * também recebe os eventos.
+	 * 
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca.
+	 */
+	@Override
+	public ResultadoBusca<S> buscar(Orcamento orcamento) {
+		return ExecucaoBusca.orcada(monitor, orcamento, this::busca);
+	}
+	
+	/**
+	 * Busca propriamente dita. Com o monitor nulo nenhum evento é informado e nenhum tempo é medido, e com o
+	 * controle nulo não há limites.
+	 */
+	private Optional<List<Acao<S>>> busca(MonitorBusca<S> monitor, Orcamento.Controle controle){
+		// 0. Problemas sabidamente sem solução não são explorados.
+		if (problema.insoluvel()) {
+			return Optional.empty();
+		}
+		long instante = monitor == null ? 0L : System.nanoTime();
+		
+		// 1. Cria-se um hash para permitir as verificações de nós fechados em O(1),
+		// guardando apenas o código dos estados quando o problema sabe codificá-los.
+		Fechados<S> fechados = Fechados.para(problema);
 		// 1.1 Adiciona-se o estado inicial entre os nós fechados.
-		fechados.add(problema.estadoInicial());
+		fechados.adiciona(problema.estadoInicial());
+		long totalFechados = 1;
+		long expandidos = 0;
 		
 		// 2. Para recuperar o caminho da busca em profundidade precisamos salvar o pai de cada estado.
 		// Isso só é necessário porque não basta encontrar a solução, é preciso conseguir reconstruir o
 		// caminho do estado inicial até a solução encontrada.
-		Map<Acao<S>, Acao<S>> caminho = new HashMap<>();
+		// Cada nó da arena guarda seu estado (ou o código dele), a posição da ação entre os sucessores do pai
+		// e o índice do pai, a borda guarda apenas os índices.
+		ArenaNos<S> nos = Caminhos.arena(problema);
 		
 		// 3. Pilha explícita com os nós ainda não verificados na busca.
-		Borda<S> borda = criaBorda();
+		Borda borda = criaBorda();
 		// 3.1 Adicionamos o nó inicial.
-		borda.insere(Acao.nenhuma(problema.estadoInicial()));
+		borda.insere(nos.adiciona(problema.estadoInicial(), ArenaNos.NENHUM, ArenaNos.NENHUM));
+		if (monitor != null) {
+			monitor.gerado(borda.tamanho());
+		}
+		instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
 		
-		S estado;
 		do {
-			// 4 Repetimos enquanto não chegarmos à solução e ainda houver nós abertos.
+			// 4 Repetimos enquanto não chegarmos à solução e ainda houver nós abertos, e o orçamento permitir.
+			if (controle != null && controle.esgotado(expandidos, totalFechados)) {
+				break;
+			}
 			// 4.1 retiramos a ação no topo da pilha de abertos.
-			Acao<S> acao = borda.retira();
-			estado = acao.getEstadoAlvo();
+			int no = borda.retira();
+			S estado = nos.estado(no);
 			
 			// 4.2 Adicionamos o estado alvo no Hash de estados fechados.
-			fechados.add(estado);
+			if (fechados.adiciona(estado)) {
+				totalFechados++;
+			}
 			
 			//4.3 Se o estado atingido é solução a busca termina.
 			if (problema.solucao(estado)) {
-				// 4.3.1 Precisamos reconstruir o caminho na forma de uma lista de passos.
-				return Optional.of(reconstruirCaminhoAte(caminho, acao));
+				instante = MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+				// 4.3.1 Precisamos reconstruir o caminho na forma de uma lista de passos, percorrendo os pais na arena.
+				List<Acao<S>> caminho = Caminhos.reconstroi(problema, nos, no);
+				MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+				return Optional.of(caminho);
 			}
 			
 			// 4.4 Se ainda não chegamos à solução, verificamos a lista de ações possível a partir do estado atual.
 			List<Acao<S>> sucessores = problema.sucessores(estado);
+			expandidos++;
+			if (monitor != null) {
+				monitor.expandido();
+			}
 			// 4.5 Para cada estado possível.
-			for(Acao<S> proximaAcao : sucessores){
+			for(int i = 0; i < sucessores.size(); i++){
+				S alvo = sucessores.get(i).getEstadoAlvo();
 				// 4.6 Se ele não é um retorno a um estado anterior no caminho.
-				if (!fechados.contains(proximaAcao.getEstadoAlvo())){
-					// 4.7 Selecionamos este estado e o adicionamos no topo da pilha de abertos.
-					borda.insere(proximaAcao);
-					// 4.8 Memorizamos o caminho e o pai dele para reconstruir o caminho quando a 
-					// Solução for encontrada.
-					caminho.put(proximaAcao, acao);
+				if (!fechados.contem(alvo)){
+					// 4.7 Selecionamos este estado e o adicionamos no topo da pilha de abertos, 
+					// memorizando o pai dele para reconstruir o caminho quando a solução for encontrada.
+					borda.insere(nos.adiciona(alvo, i, no));
+					if (monitor != null) {
+						monitor.gerado(borda.tamanho());
+					}
+				} else if (monitor != null) {
+					monitor.repetido();
 				}
 			}			
-		} while(!problema.solucao(estado) && !borda.vazia());
+		} while(!borda.vazia());
 		
+		MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
 		return Optional.empty();
 	}
-
-	private List<Acao<S>> reconstruirCaminhoAte(Map<Acao<S>, Acao<S>> caminho, Acao<S> acao) {
-		List<Acao<S>> solucao = new LinkedList<>();
-		Acao<S> pai = acao;
-		while(pai!=null){
-			solucao.add(pai);
-			pai = caminho.get(pai);
-		}
-		Collections.reverse(solucao);
-		return solucao;
-	}
 }
@@ -1,15 +1,21 @@
 package io.wveiga.ia.algs.busca.naoinfo;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.Queue;
-import java.util.Set;
 
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.algs.busca.Orcamento;
+import io.wveiga.ia.algs.busca.ResultadoBusca;
 import io.wveiga.ia.problema.Acao;
 import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.util.Preconditions;
 
 /**
  * "Na teoria dos grafos, busca em profundidade (ou busca em profundidade-primeiro, 
@@ -44,161 +50,276 @@ public class BuscaProfundidade<S, T extends Problema<S>> extends BuscaNaoInforma
 	}
 
 	@Override
-	public Borda<S> criaBorda() {
-		return new BordaPilha<>();
+	public Borda criaBorda() {
+		return new BordaPilha();
 	}
 	
 	
 	/**
-	 * Busca recursivamente a solução, usando a própria pilha da linguagem para
-	 * realziar backtracking, possui uma implementação simples e intuitiva, porém pode
-	 * ocasionar um StackOverflow caso o número de recursões exceda o limite desta pilha.
+	 * Busca a solução explorando cada ramo até o fim antes de retroceder (backtracking), verificando ciclos
+	 * apenas contra o caminho atual.
+	 * 
+	 * Originalmente recursiva, usando a própria pilha da linguagem, o que podia ocasionar um StackOverflow caso
+	 * o número de recursões excedesse o limite desta pilha. Hoje é equivalente a uma busca com profundidade limitada
+	 * sem limite, veja {@link #buscarComLimite(int)}.
 	 * 
 	 * @return Opcional com a lista de ações caso a solução seja encontrada ou vazio, caso contrário. 
 	 */
 	public Optional<List<Acao<S>>> buscaRecursiva() {
-		
-		T problema = getProblema();
-		
-		// 1. Inicializa o caminho utilizado na solução.
-		Queue<Acao<S>> caminho = new LinkedList<>();
-
-		// 2. Inicializa os nós fechados, para evitar que ações que voltem a um estado anteriore sejam repetidas.
-		// OBS: Utiliza-se um set como otimização, o tempo de busca no Set para verificar se um nó já existe no mesmo é O(1),
-		// verificar no caminho que é uma lista encadeada é O(n).
-		Set<S> fechados = new HashSet<>();
-		// 2.1 Adiciona o estado inicial na lista de estados fechados, não podemos voltar a ele.
-		fechados.add(problema.estadoInicial());
-
-		// 3 Realiza a busca recursiva, acrescentando nós ao caminho e ao conjunto de fechados.
-		buscaRecusiva(Acao.nenhuma(problema.estadoInicial()), caminho, fechados);
-		
-		// 4. Caso haja algum nó no caminho, a solução foi encontrada, caso contrário nada é retornado.
-		Optional<List<Acao<S>>> solucao = Optional.empty();
-		if (!caminho.isEmpty()) {
-			solucao = Optional.of(new ArrayList<>(caminho));
+		return buscarComLimite(Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Busca em profundidade limitada: nós na profundidade limite não são expandidos.
+	 * 
+	 * Usa uma pilha explícita de iteradores de sucessores, um por nível do caminho atual, e verifica ciclos
+	 * apenas contra os estados do caminho atual. Assim a memória utilizada é proporcional à profundidade, 
+	 * e não ao número de estados explorados. O tamanho da borda informado ao monitor, se houver, é o do caminho atual.
+	 * 
+	 * @param limite profundidade máxima, em número de ações, da solução.
+	 * @return Opcional com a lista de ações caso uma solução seja encontrada até o limite ou vazio, caso contrário.
+	 */
+	public Optional<List<Acao<S>>> buscarComLimite(int limite) {
+		Preconditions.verify(limite >= 0, "Limite não pode ser negativo");
+		return ExecucaoBusca.monitorada(getMonitor(), (monitor, controle) -> limitada(limite, monitor, controle));
+	}
+	
+	/**
+	 * Busca em profundidade limitada respeitando o orçamento, veja {@link #buscarComLimite(int)}. Os estados
+	 * guardados são os do caminho atual.
+	 * 
+	 * @param limite profundidade máxima, em número de ações, da solução.
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca. Sem solução, a situação é
+	 * {@link ResultadoBusca.Situacao#LIMITE_PROFUNDIDADE} se algum nó deixou de ser expandido pelo limite.
+	 */
+	public ResultadoBusca<S> buscarComLimite(int limite, Orcamento orcamento) {
+		Preconditions.verify(limite >= 0, "Limite não pode ser negativo");
+		return ExecucaoBusca.orcada(getMonitor(), orcamento, (monitor, controle) -> limitada(limite, monitor, controle));
+	}
+	
+	private Optional<List<Acao<S>>> limitada(int limite, MonitorBusca<S> monitor, Orcamento.Controle controle) {
+		Limitada<S> resultado = buscaLimitada(limite, new Expansoes<>(monitor, controle));
+		if (resultado.solucao == null && resultado.cortada && controle != null) {
+			controle.registraCorte();
 		}
-		
-		return solucao;
+		return Optional.ofNullable(resultado.solucao);
 	}
 	
-
-	private boolean buscaRecusiva(Acao<S> acaoAtual, Queue<Acao<S>> caminho, Set<S> fechados ) {
-		
+	/**
+	 * Busca com aprofundamento iterativo sem limite máximo, veja {@link #buscarAprofundamentoIterativo(int)}.
+	 * 
+	 * @return Opcional com a lista de ações caso a solução seja encontrada ou vazio, caso contrário.
+	 */
+	public Optional<List<Acao<S>>> buscarAprofundamentoIterativo() {
+		return buscarAprofundamentoIterativo(Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Busca com aprofundamento iterativo: repete a busca em profundidade limitada com limites 0, 1, 2, ...
+	 * até encontrar a solução. Como a busca em largura, encontra a solução mais rasa, mas com a memória
+	 * proporcional à profundidade da busca em profundidade.
+	 * 
+	 * A busca termina sem solução quando uma iteração não é interrompida por nenhum limite, isto é, quando
+	 * todos os caminhos sem ciclos foram explorados, ou quando o limite máximo é atingido.
+	 * 
+	 * O monitor, se houver, recebe os eventos de todas as iterações, e a duração de cada fase é a soma das iterações.
+	 * 
+	 * @param limiteMaximo maior profundidade, em número de ações, a ser tentada.
+	 * @return Opcional com a lista de ações caso a solução seja encontrada ou vazio, caso contrário.
+	 */
+	public Optional<List<Acao<S>>> buscarAprofundamentoIterativo(int limiteMaximo) {
+		Preconditions.verify(limiteMaximo >= 0, "Limite não pode ser negativo");
+		return ExecucaoBusca.monitorada(getMonitor(), (monitor, controle) -> aprofunda(limiteMaximo, monitor, controle));
+	}
+	
+	/**
+	 * Busca com aprofundamento iterativo respeitando o orçamento, veja {@link #buscarAprofundamentoIterativo(int)}.
+	 * As expansões de todas as iterações consomem o orçamento, e os estados guardados são os do caminho atual.
+	 * 
+	 * @param limiteMaximo maior profundidade, em número de ações, a ser tentada.
+	 * @param orcamento limites da busca.
+	 * @return situação final, solução e estatísticas da busca. Sem solução, a situação é
+	 * {@link ResultadoBusca.Situacao#LIMITE_PROFUNDIDADE} se a última iteração deixou nós sem expandir.
+	 */
+	public ResultadoBusca<S> buscarAprofundamentoIterativo(int limiteMaximo, Orcamento orcamento) {
+		Preconditions.verify(limiteMaximo >= 0, "Limite não pode ser negativo");
+		return ExecucaoBusca.orcada(getMonitor(), orcamento,
+				(monitor, controle) -> aprofunda(limiteMaximo, monitor, controle));
+	}
+	
+	private Optional<List<Acao<S>>> aprofunda(int limiteMaximo, MonitorBusca<S> monitor, Orcamento.Controle controle) {
+		Expansoes<S> expansoes = new Expansoes<>(monitor, controle);
+		for (int limite = 0; ; limite++) {
+			Limitada<S> resultado = buscaLimitada(limite, expansoes);
+			if (resultado.solucao != null) {
+				return Optional.of(resultado.solucao);
+			}
+			if (expansoes.interrompida() || !resultado.cortada) {
+				return Optional.empty();
+			}
+			if (limite == limiteMaximo) {
+				// O limite máximo foi atingido com nós ainda não expandidos: pode haver solução mais profunda.
+				if (controle != null) {
+					controle.registraCorte();
+				}
+				return Optional.empty();
+			}
+		}
+	}
+	
+	/**
+	 * Busca em profundidade até o limite. Com o monitor nulo nenhum evento é informado e nenhum tempo é medido, e
+	 * com o controle nulo não há outros limites além da profundidade.
+	 */
+	private Limitada<S> buscaLimitada(int limite, Expansoes<S> expansoes) {
 		T problema = getProblema();
+		MonitorBusca<S> monitor = expansoes.monitor;
+		Limitada<S> resultado = new Limitada<>();
+		if (problema.insoluvel()) {
+			return resultado;
+		}
+		long instante = monitor == null ? 0L : System.nanoTime();
 		
-		// 1. Verifica-se o estado alvo da ação selecionada.
-		S alvo = acaoAtual.getEstadoAlvo();
-
-		// 2. Adiciona-se esse estado aos estados fechados, e a ação selecionada ao caminho.
-		caminho.offer(acaoAtual);
-		fechados.add(alvo);
+		// 1. Caminho atual, da raiz até o nó sendo explorado, e o conjunto de seus estados para detectar ciclos.
+		List<Acao<S>> caminho = new ArrayList<>();
+		Fechados<S> noCaminho = Fechados.para(problema);
 		
-		// 3. Se esta é a solução, o problema está resolvido, retorna true.
-		if (problema.solucao(alvo)) {
-			return true;
+		// 2. Pilha explícita com o iterador dos sucessores ainda não explorados de cada nó do caminho.
+		Deque<Iterator<Acao<S>>> pilha = new ArrayDeque<>();
+		
+		// 3. Inicia pelo estado inicial.
+		S inicial = problema.estadoInicial();
+		caminho.add(Acao.nenhuma(inicial));
+		noCaminho.adiciona(inicial);
+		if (monitor != null) {
+			monitor.gerado(caminho.size());
+		}
+		instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
+		if (problema.solucao(inicial)) {
+			resultado.solucao = caminho;
+		} else if (limite == 0) {
+			resultado.cortada = true;
+		} else if (!expansoes.esgotado(caminho.size())) {
+			pilha.push(problema.sucessores(inicial).iterator());
 		}
 		
-		// 4. Caso contrário, para cada ação possível a partir do estado atual.
-		List<Acao<S>> sucessores = problema.sucessores(alvo);
-		for(Acao<S> proximaAcao : sucessores){
-			// 4.1 Se essa ação não leva a um estado anterior no caminho atual
-			if (!fechados.contains(proximaAcao.getEstadoAlvo())){
-				// 4.2 A ação é selecionada e a busca continua a partir dessa ação.
-				if(buscaRecusiva(proximaAcao, caminho, fechados)){
-					return true;
+		while (resultado.solucao == null && !pilha.isEmpty()) {
+			// 4. Se todos os sucessores do nó no topo foram explorados, retrocede.
+			Iterator<Acao<S>> sucessores = pilha.peek();
+			if (!sucessores.hasNext()) {
+				pilha.pop();
+				Acao<S> ultima = caminho.remove(caminho.size() - 1);
+				noCaminho.remove(ultima.getEstadoAlvo());
+				continue;
+			}
+			
+			// 5. Caso contrário, avança para o próximo sucessor que não forma ciclo com o caminho atual.
+			Acao<S> proximaAcao = sucessores.next();
+			S alvo = proximaAcao.getEstadoAlvo();
+			if (noCaminho.contem(alvo)) {
+				if (monitor != null) {
+					monitor.repetido();
+				}
+				continue;
+			}
+			caminho.add(proximaAcao);
+			if (monitor != null) {
+				monitor.gerado(caminho.size());
+			}
+			if (problema.solucao(alvo)) {
+				resultado.solucao = caminho;
+				break;
+			}
+			
+			// 6. Expande o sucessor somente se o limite de profundidade não foi atingido.
+			// Se o orçamento acabou, a busca é abandonada.
+			if (caminho.size() - 1 < limite) {
+				if (expansoes.esgotado(caminho.size())) {
+					break;
 				}
+				noCaminho.adiciona(alvo);
+				pilha.push(problema.sucessores(alvo).iterator());
+			} else {
+				resultado.cortada = true;
+				caminho.remove(caminho.size() - 1);
 			}
 		}
 		
-		// 5. Se chegamos até aqui, nesse nível da recursão nenhum resultado foi encontrado.
-		// Removemos esse estado do caminho e da lista de fechados.
-		fechados.remove(alvo);
-		caminho.poll();
-		
-		return false;
+		MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+		return resultado;
+	}
+	
+	/**
+	 * Resultado de uma busca limitada: a solução, se encontrada, e se algum nó deixou de ser expandido pelo limite.
+	 */
+	private static final class Limitada<S> {
+		private List<Acao<S>> solucao;
+		private boolean cortada;
 	}
 	
 	/**
 	 * Comportamento para inserção e remoção de ações (nós) da borda de uma Busca em Profundidade.
 	 * 	  
-	 * Basicamente decora uma pilha.
+	 * Basicamente decora uma pilha de identificadores de nós.
 	 * 
 	 * @author Welington Veiga
-	 *
-	 * @param <S> Tipo de estado para onde as ações da borda podem levar.
 	 */
-	private static class BordaPilha<S> implements Borda<S> {
+	private static class BordaPilha implements Borda {
 		
 		/**
 		 * OBS: A classe Stack do Java herda de Vector, o que não é desejével, não precisamos 
 		 * possuir suporte a acesso concorrente nesse contexto.
 		 * 
-		 * Por esse motivo estamos usando uma Lista Duplamente Encadeada para realizar o comportamento da pilha, 
+		 * Por esse motivo estamos usando um vetor de inteiros para realizar o comportamento da pilha, 
 		 * sempre adicionando e removendo do final.
 		 */
-		private final LinkedList<Acao<S>> pilha = new LinkedList<>();
+		private int[] pilha = new int[64];
+		private int tamanho;
 		
 		/**
-		 * Insere uma ação na borda, isto é, adiciona no fim da fila.
+		 * Insere uma ação na borda, isto é, adiciona no topo da pilha.
 		 */
 		@Override
-		public void insere(Acao<S> acao) {
-			pilha.addLast(acao);
+		public void insere(int no) {
+			if (tamanho == pilha.length) {
+				pilha = Arrays.copyOf(pilha, pilha.length << 1);
+			}
+			pilha[tamanho++] = no;
 		}
 
 
 		/**
-		 * Retira uma ação da borda, isto é, retorna e remove da primeira posição da fila.
+		 * Retira uma ação da borda, isto é, retorna e remove do topo da pilha.
 		 * 
-		 * @throws IllegalStateEsception se a fila estiver vazia.
+		 * @throws IllegalStateEsception se a pilha estiver vazia.
 		 */
 		@Override
-		public Acao<S> retira() {
+		public int retira() {
 			if (vazia()){
-				throw new IllegalStateException("Fila vazia");
+				throw new IllegalStateException("Pilha vazia");
 			} 
-			return pilha.removeLast();
+			return pilha[--tamanho];
 		}
 		
 
 		/**
-		 * Retorna true caso a fila esteja vazia, falso caso contrário.
+		 * Retorna true caso a pilha esteja vazia, falso caso contrário.
 		 * 
 		 */		
 		@Override
 		public boolean vazia() {
-			return pilha.isEmpty();
-		}
-
-		@Override
-		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = prime * result + ((pilha == null) ? 0 : pilha.hashCode());
-			return result;
+			return tamanho == 0;
 		}
 
 		@Override
-		public boolean equals(Object obj) {
-			if (this == obj)
-				return true;
-			if (obj == null)
-				return false;
-			if (getClass() != obj.getClass())
-				return false;
-			BordaPilha<?> other = (BordaPilha<?>) obj;
-			if (pilha == null) {
-				if (other.pilha != null)
-					return false;
-			} else if (!pilha.equals(other.pilha))
-				return false;
-			return true;
+		public int tamanho() {
+			return tamanho;
 		}
 
 		@Override
 		public String toString() {
-			return "BordaPilha [pilha=" + pilha + "]";
+			return "BordaPilha [tamanho=" + tamanho + "]";
 		}
 				
 	}	
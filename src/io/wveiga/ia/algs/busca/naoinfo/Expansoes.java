@@ -0,0 +1,51 @@
+package io.wveiga.ia.algs.busca.naoinfo;
+
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.Orcamento;
+
+/**
+ * Monitor, controle do orçamento e nós expandidos de uma execução que percorre o espaço de estados em várias
+ * passagens, como as iterações do aprofundamento iterativo ou as passagens da busca por camadas.
+ *
+ * O monitor e o controle podem ser nulos, como nos laços das buscas: sem eles nenhum evento é informado e não há
+ * limites.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca é realizada.
+ */
+final class Expansoes<S> {
+
+	final MonitorBusca<S> monitor;
+	private final Orcamento.Controle controle;
+	private long expandidos;
+
+	Expansoes(MonitorBusca<S> monitor, Orcamento.Controle controle) {
+		this.monitor = monitor;
+		this.controle = controle;
+	}
+
+	/**
+	 * Verifica o orçamento antes de uma expansão e, se ele permitir, contabiliza a expansão.
+	 *
+	 * @param guardados estados guardados pela passagem atual.
+	 * @return verdadeiro se o orçamento acabou e a busca deve parar.
+	 */
+	boolean esgotado(long guardados) {
+		if (controle != null && controle.esgotado(expandidos, guardados)) {
+			return true;
+		}
+		expandidos++;
+		if (monitor != null) {
+			monitor.expandido();
+		}
+		return false;
+	}
+
+	/**
+	 * @return verdadeiro se alguma passagem foi interrompida pelo orçamento.
+	 */
+	boolean interrompida() {
+		return controle != null && controle.getInterrupcao() != null;
+	}
+}
@@ -0,0 +1,88 @@
+package io.wveiga.ia.algs.busca.naoinfo;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import io.wveiga.ia.ed.ConjuntoLong;
+import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.problema.ProblemaCodificavel;
+
+/**
+ * Conjunto de estados fechados (já visitados) de uma busca.
+ *
+ * Quando o problema sabe codificar seus estados ({@link ProblemaCodificavel}) o conjunto guarda apenas
+ * os códigos em um {@link ConjuntoLong}, sem objetos por estado, caso contrário guarda os próprios estados.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estados guardados.
+ */
+abstract class Fechados<S> {
+
+	/**
+	 * Cria o conjunto de fechados mais adequado para o problema.
+	 */
+	static <S> Fechados<S> para(Problema<S> problema) {
+		if (problema instanceof ProblemaCodificavel) {
+			return new FechadosCodificados<>((ProblemaCodificavel<S>) problema);
+		}
+		return new FechadosEstados<>();
+	}
+
+	abstract boolean adiciona(S estado);
+
+	abstract boolean contem(S estado);
+
+	abstract boolean remove(S estado);
+
+	/**
+	 * Guarda os próprios estados em um HashSet.
+	 */
+	private static class FechadosEstados<S> extends Fechados<S> {
+
+		private final Set<S> estados = new HashSet<>();
+
+		@Override
+		boolean adiciona(S estado) {
+			return estados.add(estado);
+		}
+
+		@Override
+		boolean contem(S estado) {
+			return estados.contains(estado);
+		}
+
+		@Override
+		boolean remove(S estado) {
+			return estados.remove(estado);
+		}
+	}
+
+	/**
+	 * Guarda apenas os códigos dos estados, em um vetor de long com endereçamento aberto.
+	 */
+	private static class FechadosCodificados<S> extends Fechados<S> {
+
+		private final ProblemaCodificavel<S> problema;
+		private final ConjuntoLong codigos = new ConjuntoLong();
+
+		private FechadosCodificados(ProblemaCodificavel<S> problema) {
+			this.problema = problema;
+		}
+
+		@Override
+		boolean adiciona(S estado) {
+			return codigos.adiciona(problema.codifica(estado));
+		}
+
+		@Override
+		boolean contem(S estado) {
+			return codigos.contem(problema.codifica(estado));
+		}
+
+		@Override
+		boolean remove(S estado) {
+			return codigos.remove(problema.codifica(estado));
+		}
+	}
+}
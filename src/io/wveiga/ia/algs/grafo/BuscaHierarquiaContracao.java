@@ -0,0 +1,99 @@
+package io.wveiga.ia.algs.grafo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca.Fase;
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.ProblemaGrafo;
+import io.wveiga.ia.problema.ProblemaReversivel;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Busca do caminho de menor custo até o estado objetivo de um problema em grafo, usando uma
+ * {@link HierarquiaContracao} pré-processada do mesmo grafo.
+ *
+ * A solução é a mesma de uma busca de custo uniforme, como uma lista de ações do problema com os atalhos
+ * da hierarquia já expandidos.
+ *
+ * Não implementa {@link io.wveiga.ia.algs.busca.BuscaOrcada}: cada consulta fecha apenas os vértices acima da origem
+ * e do destino na hierarquia, uma pequena fração do grafo, sem um espaço de estados a esgotar como nas demais buscas.
+ * O custo está no pré-processamento da {@link HierarquiaContracao}, que não é uma busca.
+ *
+ * O monitor, se houver, é informado dos vértices fechados pelos dois lados da consulta, como nós expandidos, ao fim
+ * da exploração: as bordas são internas à {@link ConsultaHierarquia}. A reconstrução é a expansão dos atalhos do
+ * caminho nas ligações originais.
+ *
+ * Instâncias desta classe não devem ser compartilhadas entre threads.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ * @param <T> Problema que a busca vai resolver.
+ */
+public class BuscaHierarquiaContracao<S, T extends ProblemaGrafo<S> & ProblemaReversivel<S>> implements BuscaMonitoravel<S> {
+
+	private final T problema;
+	private final ConsultaHierarquia<S> consulta;
+	private MonitorBusca<S> monitor;
+
+	/**
+	 * @param problema problema a ser resolvido.
+	 * @param hierarquia hierarquia de contração do grafo do problema.
+	 */
+	public BuscaHierarquiaContracao(T problema, HierarquiaContracao<S> hierarquia) {
+		Preconditions.nonNull(problema, hierarquia);
+		Preconditions.verify(hierarquia.getGrafo() == problema.getGrafo(), "Hierarquia não foi construída a partir do grafo do problema");
+		this.problema = problema;
+		this.consulta = hierarquia.consulta();
+	}
+
+	@Override
+	public void setMonitor(MonitorBusca<S> monitor) {
+		this.monitor = monitor;
+	}
+
+	@Override
+	public Optional<List<Acao<S>>> buscar() {
+		return ExecucaoBusca.monitorada(monitor, (monitor, controle) -> busca(monitor));
+	}
+
+	private Optional<List<Acao<S>>> busca(MonitorBusca<S> monitor) {
+		if (problema.insoluvel()) {
+			return Optional.empty();
+		}
+		long instante = monitor == null ? 0L : System.nanoTime();
+		Grafo<S> grafo = problema.getGrafo();
+		int origem = grafo.indice(problema.estadoInicial());
+		int destino = grafo.indice(problema.estadoObjetivo());
+		if (origem == Grafo.AUSENTE || destino == Grafo.AUSENTE) {
+			return Optional.empty();
+		}
+		instante = MonitorBusca.marca(monitor, Fase.PREPARACAO, instante);
+
+		double distancia = consulta.consulta(origem, destino);
+		if (monitor != null) {
+			for (int i = 0; i < consulta.getFechados(); i++) {
+				monitor.expandido();
+			}
+		}
+		instante = MonitorBusca.marca(monitor, Fase.EXPLORACAO, instante);
+		if (distancia == Double.POSITIVE_INFINITY) {
+			return Optional.empty();
+		}
+
+		int[] caminho = consulta.caminho();
+		List<Acao<S>> solucao = new ArrayList<>(caminho.length);
+		solucao.add(Acao.nenhuma(problema.estadoInicial()));
+		for (int i = 1; i < caminho.length; i++) {
+			solucao.add(problema.acaoEntre(grafo.vertice(caminho[i - 1]), grafo.vertice(caminho[i])));
+		}
+		MonitorBusca.marca(monitor, Fase.RECONSTRUCAO, instante);
+		return Optional.of(solucao);
+	}
+}
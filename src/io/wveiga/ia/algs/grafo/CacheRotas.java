@@ -0,0 +1,191 @@
+package io.wveiga.ia.algs.grafo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import io.wveiga.ia.algs.busca.Busca;
+import io.wveiga.ia.algs.busca.BuscaMonitoravel;
+import io.wveiga.ia.algs.busca.ExecucaoBusca;
+import io.wveiga.ia.algs.busca.MonitorBusca;
+import io.wveiga.ia.ed.CacheTinyLFU;
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.ProblemaGrafo;
+import io.wveiga.ia.problema.ProblemaReversivel;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Cache de rotas na frente de uma busca em grafo, como {@link Dijkstra}, {@link BuscaHierarquiaContracao} ou A*.
+ *
+ * A chave de cada rota é a instância do grafo com os identificadores da origem e do objetivo, de forma que problemas
+ * diferentes sobre o mesmo grafo compartilham resultados. Supõe-se que a solução depende apenas desses três
+ * elementos, como em {@link io.wveiga.ia.problema.localizacao.Localizacao}. Rotas inexistentes também são guardadas.
+ *
+ * Instâncias desta classe podem ser compartilhadas entre threads; consultas simultâneas à mesma rota executam a
+ * busca uma única vez.
+ *
+ * As buscas obtidas por {@link #busca(ProblemaGrafo)} aceitam um monitor. Quando a rota não está no cache e a busca
+ * criada pelo motor é uma {@link BuscaMonitoravel}, o monitor recebe os eventos dela; em um acerto nenhum nó é
+ * expandido, e o monitor recebe apenas o início e o fim com a rota guardada.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo dos estado nos quais a busca vai ser realizada.
+ * @param <T> Problema que a busca vai resolver.
+ */
+public class CacheRotas<S, T extends ProblemaGrafo<S> & ProblemaReversivel<S>> {
+
+	private final CacheTinyLFU<Rota, Optional<List<Acao<S>>>> cache;
+	private final Function<? super T, ? extends Busca<S>> motor;
+
+	/**
+	 * @param capacidade número máximo de rotas guardadas.
+	 * @param motor cria a busca que resolve um problema ausente do cache.
+	 */
+	public CacheRotas(int capacidade, Function<? super T, ? extends Busca<S>> motor) {
+		Preconditions.nonNull(motor);
+		this.cache = new CacheTinyLFU<>(capacidade);
+		this.motor = motor;
+	}
+
+	/**
+	 * Obtém a rota do problema do cache ou, se ela ainda não foi calculada, executa a busca e guarda o resultado.
+	 * Problemas cuja origem ou objetivo não pertence ao grafo são repassados à busca sem passar pelo cache.
+	 *
+	 * @param problema problema a ser resolvido.
+	 * @return Opcional com a lista imutável de ações ou vazio, caso não exista rota.
+	 */
+	public Optional<List<Acao<S>>> buscar(T problema) {
+		Preconditions.nonNull(problema);
+		return buscar(problema, null);
+	}
+
+	private Optional<List<Acao<S>>> buscar(T problema, MonitorBusca<S> monitor) {
+		Grafo<S> grafo = problema.getGrafo();
+		int origem = grafo.indice(problema.estadoInicial());
+		int destino = grafo.indice(problema.estadoObjetivo());
+		if (origem == Grafo.AUSENTE || destino == Grafo.AUSENTE) {
+			return cria(problema, monitor).buscar();
+		}
+		return cache.obtem(new Rota(grafo, origem, destino),
+				rota -> cria(problema, monitor).buscar().map(Collections::unmodifiableList));
+	}
+
+	/**
+	 * Cria a busca do motor, repassando a ela os eventos intermediários do monitor, se houver. O início e o fim são
+	 * informados pela busca do cache.
+	 */
+	private Busca<S> cria(T problema, MonitorBusca<S> monitor) {
+		Busca<S> busca = motor.apply(problema);
+		if (monitor != null && busca instanceof BuscaMonitoravel) {
+			((BuscaMonitoravel<S>) busca).setMonitor(new Repasse<>(monitor));
+		}
+		return busca;
+	}
+
+	/**
+	 * @param problema problema a ser resolvido.
+	 * @return busca que consulta este cache.
+	 */
+	public BuscaMonitoravel<S> busca(T problema) {
+		Preconditions.nonNull(problema);
+		return new BuscaCache(problema);
+	}
+
+	/**
+	 * @return cache das rotas, com as estatísticas de acertos e falhas.
+	 */
+	public CacheTinyLFU<?, ?> getCache() {
+		return cache;
+	}
+
+	/**
+	 * Busca de um problema que consulta este cache.
+	 */
+	private final class BuscaCache implements BuscaMonitoravel<S> {
+
+		private final T problema;
+		private MonitorBusca<S> monitor;
+
+		private BuscaCache(T problema) {
+			this.problema = problema;
+		}
+
+		@Override
+		public void setMonitor(MonitorBusca<S> monitor) {
+			this.monitor = monitor;
+		}
+
+		@Override
+		public Optional<List<Acao<S>>> buscar() {
+			return ExecucaoBusca.monitorada(monitor, (monitor, controle) -> CacheRotas.this.buscar(problema, monitor));
+		}
+	}
+
+	/**
+	 * Monitor da busca do motor, que repassa todos os eventos exceto o início e o fim.
+	 */
+	private static final class Repasse<S> implements MonitorBusca<S> {
+
+		private final MonitorBusca<S> monitor;
+
+		private Repasse(MonitorBusca<S> monitor) {
+			this.monitor = monitor;
+		}
+
+		@Override
+		public void expandido() {
+			monitor.expandido();
+		}
+
+		@Override
+		public void gerado(int tamanhoBorda) {
+			monitor.gerado(tamanhoBorda);
+		}
+
+		@Override
+		public void repetido() {
+			monitor.repetido();
+		}
+
+		@Override
+		public void fase(Fase fase, long nanos) {
+			monitor.fase(fase, nanos);
+		}
+	}
+
+	/**
+	 * Chave de uma rota: grafo, comparado pela identidade, origem e destino.
+	 */
+	private static final class Rota {
+
+		private final Grafo<?> grafo;
+		private final int origem;
+		private final int destino;
+
+		private Rota(Grafo<?> grafo, int origem, int destino) {
+			this.grafo = grafo;
+			this.origem = origem;
+			this.destino = destino;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = System.identityHashCode(grafo);
+			hash = 31 * hash + origem;
+			return 31 * hash + destino;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Rota))
+				return false;
+			Rota other = (Rota) obj;
+			return grafo == other.grafo && origem == other.origem && destino == other.destino;
+		}
+	}
+}
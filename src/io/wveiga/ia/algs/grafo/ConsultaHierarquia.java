@@ -0,0 +1,235 @@
+package io.wveiga.ia.algs.grafo;
+
+import java.util.Arrays;
+
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.ed.HeapIndexado;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Consulta de caminho mais curto sobre uma {@link HierarquiaContracao}.
+ *
+ * A consulta é um Dijkstra bidirecional em que a busca a partir da origem só segue ligações para vértices de nível
+ * maior, e a busca a partir do destino só segue, no sentido inverso, ligações vindas de vértices de nível maior.
+ * Cada lado para quando a menor distância de sua borda não pode mais melhorar o melhor encontro. Os atalhos do
+ * caminho encontrado são então expandidos nas ligações originais que substituem.
+ *
+ * Um vértice fechado não é expandido quando algum vizinho de nível maior já alcançado oferece um caminho mais curto
+ * até ele (stall-on-demand): sua distância pela busca que sobe não é a real, e nenhum caminho ótimo passa por ele.
+ *
+ * Os vetores de trabalho são alocados uma única vez e reaproveitados entre consultas, com versões como no
+ * {@link Dijkstra}. Instâncias desta classe não devem ser compartilhadas entre threads.
+ *
+ * @author Welington Veiga
+ *
+ * @param <T> tipo dos vértices do grafo.
+ */
+public class ConsultaHierarquia<T> {
+
+	private final HierarquiaContracao<T> hierarquia;
+	private final Lado frente;
+	private final Lado tras;
+
+	private int origem;
+	private int encontro = Grafo.AUSENTE;
+	private double distancia = Double.POSITIVE_INFINITY;
+	private int fechados;
+
+	ConsultaHierarquia(HierarquiaContracao<T> hierarquia) {
+		this.hierarquia = hierarquia;
+		int n = hierarquia.getGrafo().getNumeroVertices();
+		this.frente = new Lado(n);
+		this.tras = new Lado(n);
+	}
+
+	public HierarquiaContracao<T> getHierarquia() {
+		return hierarquia;
+	}
+
+	/**
+	 * Calcula o caminho mais curto entre dois vértices.
+	 *
+	 * @param origem identificador do vértice de origem.
+	 * @param destino identificador do vértice de destino.
+	 * @return distância da origem ao destino, {@link Double#POSITIVE_INFINITY} se o destino não é alcançável.
+	 */
+	public double consulta(int origem, int destino) {
+		int n = hierarquia.getGrafo().getNumeroVertices();
+		Preconditions.verify(origem >= 0 && origem < n && destino >= 0 && destino < n, "Vértices não pertencem ao grafo");
+		this.origem = origem;
+		frente.inicia(origem);
+		tras.inicia(destino);
+		encontro = origem == destino ? origem : Grafo.AUSENTE;
+		distancia = origem == destino ? 0d : Double.POSITIVE_INFINITY;
+		fechados = 0;
+
+		while (true) {
+			// 1. Expande o lado de menor distância, enquanto ele ainda pode melhorar o encontro.
+			double minimoFrente = frente.minimo();
+			double minimoTras = tras.minimo();
+			if (Math.min(minimoFrente, minimoTras) >= distancia) {
+				return distancia;
+			}
+			if (minimoFrente <= minimoTras) {
+				int v = frente.heap.retira();
+				fechados++;
+				if (parado(frente, v, hierarquia.inicioDescida, hierarquia.descida, hierarquia.origens)) {
+					continue;
+				}
+				for (int i = hierarquia.inicioSubida[v]; i < hierarquia.inicioSubida[v + 1]; i++) {
+					int ligacao = hierarquia.subida[i];
+					relaxa(frente, tras, hierarquia.destinos[ligacao], frente.distancia(v) + hierarquia.pesos[ligacao], ligacao);
+				}
+			} else {
+				int v = tras.heap.retira();
+				fechados++;
+				if (parado(tras, v, hierarquia.inicioSubida, hierarquia.subida, hierarquia.destinos)) {
+					continue;
+				}
+				for (int i = hierarquia.inicioDescida[v]; i < hierarquia.inicioDescida[v + 1]; i++) {
+					int ligacao = hierarquia.descida[i];
+					relaxa(tras, frente, hierarquia.origens[ligacao], tras.distancia(v) + hierarquia.pesos[ligacao], ligacao);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Vértices fechados pela última consulta, somando os dois lados e contando também os vértices parados.
+	 *
+	 * @return número de vértices retirados das heaps.
+	 */
+	public int getFechados() {
+		return fechados;
+	}
+
+	/**
+	 * Verifica se um vizinho de nível maior, pelas ligações no sentido contrário ao da busca, alcança o vértice
+	 * por uma distância menor que a encontrada.
+	 */
+	private boolean parado(Lado lado, int v, int[] inicio, int[] contrarias, int[] vizinhos) {
+		for (int i = inicio[v]; i < inicio[v + 1]; i++) {
+			int ligacao = contrarias[i];
+			if (lado.distancia(vizinhos[ligacao]) + hierarquia.pesos[ligacao] < lado.distancia(v)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void relaxa(Lado lado, Lado outro, int w, double nova, int ligacao) {
+		if (nova < lado.distancia(w)) {
+			lado.alcanca(w, nova, ligacao);
+			// 2. Todo vértice alcançado pelos dois lados é um encontro.
+			double total = nova + outro.distancia(w);
+			if (total < distancia) {
+				distancia = total;
+				encontro = w;
+			}
+		}
+	}
+
+	/**
+	 * Vértices do caminho mais curto da última consulta, da origem ao destino, com os atalhos expandidos.
+	 *
+	 * @return identificadores dos vértices do caminho, vazio se o destino não foi alcançado.
+	 */
+	public int[] caminho() {
+		if (encontro == Grafo.AUSENTE) {
+			return new int[0];
+		}
+		// 1. Ligações da origem ao encontro e do encontro ao destino.
+		int[] ligacoes = new int[16];
+		int quantidade = 0;
+		for (int v = encontro; frente.pai(v) != Grafo.AUSENTE; v = hierarquia.origens[frente.pai(v)]) {
+			if (quantidade == ligacoes.length) {
+				ligacoes = Arrays.copyOf(ligacoes, quantidade * 2);
+			}
+			ligacoes[quantidade++] = frente.pai(v);
+		}
+		for (int i = 0, j = quantidade - 1; i < j; i++, j--) {
+			int troca = ligacoes[i];
+			ligacoes[i] = ligacoes[j];
+			ligacoes[j] = troca;
+		}
+		for (int v = encontro; tras.pai(v) != Grafo.AUSENTE; v = hierarquia.destinos[tras.pai(v)]) {
+			if (quantidade == ligacoes.length) {
+				ligacoes = Arrays.copyOf(ligacoes, quantidade * 2);
+			}
+			ligacoes[quantidade++] = tras.pai(v);
+		}
+
+		// 2. Expande os atalhos com uma pilha, visitando as ligações originais em ordem.
+		int[] caminho = new int[quantidade + 1];
+		int tamanho = 0;
+		caminho[tamanho++] = origem;
+		int[] pilha = new int[16];
+		for (int i = 0; i < quantidade; i++) {
+			int topo = 0;
+			pilha[topo++] = ligacoes[i];
+			while (topo > 0) {
+				int ligacao = pilha[--topo];
+				if (hierarquia.primeiros[ligacao] == HierarquiaContracao.ORIGINAL) {
+					if (tamanho == caminho.length) {
+						caminho = Arrays.copyOf(caminho, tamanho * 2);
+					}
+					caminho[tamanho++] = hierarquia.destinos[ligacao];
+				} else {
+					if (topo + 2 > pilha.length) {
+						pilha = Arrays.copyOf(pilha, pilha.length * 2);
+					}
+					pilha[topo++] = hierarquia.segundos[ligacao];
+					pilha[topo++] = hierarquia.primeiros[ligacao];
+				}
+			}
+		}
+		return Arrays.copyOf(caminho, tamanho);
+	}
+
+	/**
+	 * Vetores de trabalho de um dos lados da busca: distâncias, ligação que alcançou cada vértice e a heap.
+	 */
+	private static final class Lado {
+
+		private final HeapIndexado heap;
+		private final double[] distancias;
+		private final int[] pais;
+		private final int[] versoes;
+		private int versao;
+
+		private Lado(int n) {
+			this.heap = new HeapIndexado(n);
+			this.distancias = new double[n];
+			this.pais = new int[n];
+			this.versoes = new int[n];
+		}
+
+		void inicia(int raiz) {
+			if (++versao == 0) {
+				Arrays.fill(versoes, 0);
+				versao = 1;
+			}
+			heap.limpa();
+			alcanca(raiz, 0d, Grafo.AUSENTE);
+		}
+
+		void alcanca(int v, double distancia, int pai) {
+			versoes[v] = versao;
+			distancias[v] = distancia;
+			pais[v] = pai;
+			heap.insereOuDiminui(v, distancia);
+		}
+
+		double minimo() {
+			return heap.vazio() ? Double.POSITIVE_INFINITY : heap.chave(heap.minimo());
+		}
+
+		double distancia(int v) {
+			return versoes[v] == versao ? distancias[v] : Double.POSITIVE_INFINITY;
+		}
+
+		int pai(int v) {
+			return versoes[v] == versao ? pais[v] : Grafo.AUSENTE;
+		}
+	}
+}
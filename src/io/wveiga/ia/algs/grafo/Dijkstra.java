@@ -0,0 +1,170 @@
+package io.wveiga.ia.algs.grafo;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.ed.HeapIndexado;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * "O algoritmo de Dijkstra soluciona o problema do caminho mais curto num grafo dirigido com arestas de peso
+ * não negativo, em tempo O((V + E) log V)." (WIKIPEDIA)
+ *
+ * A busca é feita diretamente sobre os identificadores dos vértices do {@link Grafo}, com uma {@link HeapIndexado}
+ * que diminui a chave de vértices já presentes. Os vetores de distâncias, pais e a heap são alocados uma única vez e
+ * reaproveitados entre consultas: cada consulta recebe uma versão, e um vértice cuja versão não é a atual é
+ * considerado não alcançado, dispensando limpar os vetores.
+ *
+ * A busca também pode ser feita no sentido inverso das ligações, calculando a distância de cada vértice até a origem.
+ *
+ * Ligações de custo infinito são ignoradas. Instâncias desta classe não devem ser compartilhadas entre threads.
+ *
+ * @author Welington Veiga
+ *
+ * @see https://pt.wikipedia.org/wiki/Algoritmo_de_Dijkstra
+ *
+ * @param <T> tipo dos vértices do grafo.
+ */
+public class Dijkstra<T> {
+
+	private final Grafo<T> grafo;
+	private final boolean reverso;
+	private final HeapIndexado heap;
+	private final double[] distancias;
+	private final int[] pais;
+	private final int[] versoes;
+	private int versao;
+
+	public Dijkstra(Grafo<T> grafo) {
+		this(grafo, false);
+	}
+
+	/**
+	 * @param grafo grafo da busca, não nulo.
+	 * @param reverso se verdadeiro as ligações são percorridas do destino para a origem, e as distâncias calculadas
+	 * são as distâncias de cada vértice até a origem da busca.
+	 */
+	public Dijkstra(Grafo<T> grafo, boolean reverso) {
+		Preconditions.nonNull(grafo);
+		this.grafo = grafo;
+		this.reverso = reverso;
+		int n = grafo.getNumeroVertices();
+		this.heap = new HeapIndexado(n);
+		this.distancias = new double[n];
+		this.pais = new int[n];
+		this.versoes = new int[n];
+	}
+
+	public Grafo<T> getGrafo() {
+		return grafo;
+	}
+
+	/**
+	 * @return verdadeiro se as ligações são percorridas do destino para a origem.
+	 */
+	public boolean isReverso() {
+		return reverso;
+	}
+
+	/**
+	 * Calcula os caminhos mais curtos a partir da origem até encontrar um vértice que satisfaça o alvo.
+	 * Os vértices são fechados em ordem crescente de distância, então o vértice retornado é o alvo mais próximo.
+	 *
+	 * @param origem identificador do vértice de origem.
+	 * @param alvo condição de parada, avaliada para cada vértice fechado.
+	 * @return identificador do alvo encontrado, ou {@link Grafo#AUSENTE} se nenhum alvo é alcançável.
+	 */
+	public int busca(int origem, IntPredicate alvo) {
+		Preconditions.verify(origem >= 0 && origem < grafo.getNumeroVertices(), "Origem não pertence ao grafo");
+		iniciaVersao();
+		heap.limpa();
+		alcanca(origem, 0d, Grafo.AUSENTE);
+		heap.insereOuDiminui(origem, 0d);
+
+		while (!heap.vazio()) {
+			// 1. O vértice de menor distância tem sua distância definitiva.
+			int v = heap.retira();
+			if (alvo.test(v)) {
+				return v;
+			}
+
+			// 2. Relaxa as ligações que saem do vértice, ou que chegam a ele na busca reversa.
+			if (reverso) {
+				for (int l = grafo.inicioAntecessores(v); l < grafo.fimAntecessores(v); l++) {
+					relaxa(v, grafo.origem(l), grafo.pesoAntecessor(l));
+				}
+			} else {
+				for (int l = grafo.inicioAdjacentes(v); l < grafo.fimAdjacentes(v); l++) {
+					relaxa(v, grafo.destino(l), grafo.peso(l));
+				}
+			}
+		}
+		return Grafo.AUSENTE;
+	}
+
+	private void relaxa(int v, int w, double peso) {
+		double nova = distancias[v] + peso;
+		if (nova < distancia(w)) {
+			alcanca(w, nova, v);
+			heap.insereOuDiminui(w, nova);
+		}
+	}
+
+	/**
+	 * Calcula as distâncias da origem até todos os vértices alcançáveis.
+	 *
+	 * @param origem identificador do vértice de origem.
+	 */
+	public void buscaTodos(int origem) {
+		busca(origem, v -> false);
+	}
+
+	/**
+	 * Distância até o vértice calculada pela última busca, {@link Double#POSITIVE_INFINITY} se ele não foi alcançado.
+	 * Só é definitiva para os vértices fechados antes do fim da busca.
+	 */
+	public double distancia(int vertice) {
+		return versoes[vertice] == versao ? distancias[vertice] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Vértice anterior no caminho mais curto da última busca, {@link Grafo#AUSENTE} para a origem ou vértices não alcançados.
+	 */
+	public int pai(int vertice) {
+		return versoes[vertice] == versao ? pais[vertice] : Grafo.AUSENTE;
+	}
+
+	/**
+	 * Vértices do caminho mais curto da última busca, da origem até o destino, inclusive.
+	 *
+	 * @param destino vértice alcançado pela última busca.
+	 * @return identificadores dos vértices do caminho.
+	 */
+	public int[] caminho(int destino) {
+		Preconditions.verify(versoes[destino] == versao, "Destino não foi alcançado pela última busca");
+		int tamanho = 0;
+		for (int v = destino; v != Grafo.AUSENTE; v = pais[v]) {
+			tamanho++;
+		}
+		int[] caminho = new int[tamanho];
+		for (int v = destino; v != Grafo.AUSENTE; v = pais[v]) {
+			caminho[--tamanho] = v;
+		}
+		return caminho;
+	}
+
+	private void alcanca(int vertice, double distancia, int pai) {
+		versoes[vertice] = versao;
+		distancias[vertice] = distancia;
+		pais[vertice] = pai;
+	}
+
+	private void iniciaVersao() {
+		if (++versao == 0) {
+			// Depois de 2^32 consultas as versões antigas voltariam a valer.
+			Arrays.fill(versoes, 0);
+			versao = 1;
+		}
+	}
+}
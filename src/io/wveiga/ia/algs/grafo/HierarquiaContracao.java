@@ -0,0 +1,376 @@
+package io.wveiga.ia.algs.grafo;
+
+import java.util.Arrays;
+
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.ed.HeapIndexado;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Hierarquia de contração (contraction hierarchies) de um {@link Grafo}, para consultas de caminho mais curto
+ * entre dois vértices muito mais rápidas que o algoritmo de {@link Dijkstra}.
+ *
+ * No pré-processamento os vértices são contraídos um a um, do menos para o mais importante. Contrair um vértice v
+ * o remove do grafo restante e, para cada par de vizinhos u &rarr; v &rarr; w cujo caminho mais curto passa por v,
+ * adiciona um atalho u &rarr; w com o custo do caminho. A ordem é escolhida pela diferença de ligações (atalhos
+ * adicionados menos ligações removidas) somada ao número de vizinhos já contraídos, com atualização preguiçosa.
+ * Um atalho não é necessário quando uma busca local (testemunha) encontra um caminho tão curto quanto sem passar por v.
+ *
+ * Ao final, todo caminho mais curto pode ser percorrido subindo na hierarquia a partir da origem e descendo até o
+ * destino, então a {@link ConsultaHierarquia consulta} é uma busca bidirecional que só percorre ligações para
+ * vértices de nível maior, explorando uma pequena fração do grafo. Cada atalho guarda as duas ligações que substitui,
+ * para que o caminho encontrado seja expandido de volta às ligações originais.
+ *
+ * A hierarquia é imutável e pode ser compartilhada entre threads, cada uma com sua própria consulta.
+ *
+ * @author Welington Veiga
+ *
+ * @see http://algo2.iti.kit.edu/schultes/hwy/contract.pdf
+ *
+ * @param <T> tipo dos vértices do grafo.
+ */
+public final class HierarquiaContracao<T> {
+
+	/**
+	 * Filho de uma ligação original, que não é um atalho.
+	 */
+	static final int ORIGINAL = -1;
+
+	/**
+	 * Número máximo de vértices fechados por cada busca de testemunha.
+	 */
+	private static final int LIMITE_TESTEMUNHA = 500;
+
+	private final Grafo<T> grafo;
+	private final int[] niveis;
+
+	// Ligações originais e atalhos. Um atalho guarda as duas ligações que substitui.
+	final int[] origens;
+	final int[] destinos;
+	final double[] pesos;
+	final int[] primeiros;
+	final int[] segundos;
+
+	// Ligações para vértices de nível maior, indexadas pela origem.
+	final int[] inicioSubida;
+	final int[] subida;
+
+	// Ligações vindas de vértices de nível maior, indexadas pelo destino.
+	final int[] inicioDescida;
+	final int[] descida;
+
+	private HierarquiaContracao(Grafo<T> grafo, int[] niveis, Ligacoes ligacoes) {
+		this.grafo = grafo;
+		this.niveis = niveis;
+		int m = ligacoes.tamanho;
+		this.origens = Arrays.copyOf(ligacoes.origens, m);
+		this.destinos = Arrays.copyOf(ligacoes.destinos, m);
+		this.pesos = Arrays.copyOf(ligacoes.pesos, m);
+		this.primeiros = Arrays.copyOf(ligacoes.primeiros, m);
+		this.segundos = Arrays.copyOf(ligacoes.segundos, m);
+
+		// Cada ligação entra na subida da origem ou na descida do destino, conforme o nível de suas pontas.
+		int n = niveis.length;
+		this.inicioSubida = new int[n + 1];
+		this.inicioDescida = new int[n + 1];
+		int quantidadeSubida = 0;
+		for (int l = 0; l < m; l++) {
+			if (niveis[destinos[l]] > niveis[origens[l]]) {
+				inicioSubida[origens[l] + 1]++;
+				quantidadeSubida++;
+			} else {
+				inicioDescida[destinos[l] + 1]++;
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			inicioSubida[v + 1] += inicioSubida[v];
+			inicioDescida[v + 1] += inicioDescida[v];
+		}
+		this.subida = new int[quantidadeSubida];
+		this.descida = new int[m - quantidadeSubida];
+		int[] proximaSubida = Arrays.copyOf(inicioSubida, n);
+		int[] proximaDescida = Arrays.copyOf(inicioDescida, n);
+		for (int l = 0; l < m; l++) {
+			if (niveis[destinos[l]] > niveis[origens[l]]) {
+				subida[proximaSubida[origens[l]]++] = l;
+			} else {
+				descida[proximaDescida[destinos[l]]++] = l;
+			}
+		}
+	}
+
+	/**
+	 * Contrai todos os vértices do grafo, construindo a hierarquia. Ligações de custo infinito e laços são ignorados.
+	 *
+	 * @param grafo grafo estático.
+	 * @return hierarquia de contração do grafo.
+	 */
+	public static <T> HierarquiaContracao<T> constroi(Grafo<T> grafo) {
+		Preconditions.nonNull(grafo);
+		return new Contracao(grafo).contrai(grafo);
+	}
+
+	public Grafo<T> getGrafo() {
+		return grafo;
+	}
+
+	/**
+	 * @return nível do vértice na hierarquia, isto é, sua posição na ordem de contração.
+	 */
+	public int nivel(int vertice) {
+		return niveis[vertice];
+	}
+
+	/**
+	 * @return número de ligações da hierarquia, originais e atalhos.
+	 */
+	public int getNumeroLigacoes() {
+		return origens.length;
+	}
+
+	/**
+	 * Cria uma consulta sobre a hierarquia. Consultas guardam vetores de trabalho e não devem ser compartilhadas
+	 * entre threads, mas podem ser reaproveitadas para qualquer número de pares de vértices.
+	 *
+	 * @return nova consulta.
+	 */
+	public ConsultaHierarquia<T> consulta() {
+		return new ConsultaHierarquia<>(this);
+	}
+
+	@Override
+	public String toString() {
+		return "HierarquiaContracao [vertices=" + niveis.length + ", ligacoes=" + origens.length + "]";
+	}
+
+	/**
+	 * Vetores crescentes com as ligações originais e os atalhos criados durante a contração.
+	 */
+	private static final class Ligacoes {
+
+		private int[] origens = new int[64];
+		private int[] destinos = new int[64];
+		private double[] pesos = new double[64];
+		private int[] primeiros = new int[64];
+		private int[] segundos = new int[64];
+		private int tamanho;
+
+		int adiciona(int origem, int destino, double peso, int primeiro, int segundo) {
+			if (tamanho == origens.length) {
+				int capacidade = tamanho + (tamanho >> 1) + 1;
+				origens = Arrays.copyOf(origens, capacidade);
+				destinos = Arrays.copyOf(destinos, capacidade);
+				pesos = Arrays.copyOf(pesos, capacidade);
+				primeiros = Arrays.copyOf(primeiros, capacidade);
+				segundos = Arrays.copyOf(segundos, capacidade);
+			}
+			origens[tamanho] = origem;
+			destinos[tamanho] = destino;
+			pesos[tamanho] = peso;
+			primeiros[tamanho] = primeiro;
+			segundos[tamanho] = segundo;
+			return tamanho++;
+		}
+	}
+
+	/**
+	 * Estado do pré-processamento: as ligações de entrada e saída de cada vértice no grafo restante, os vértices
+	 * já contraídos e a busca de testemunhas.
+	 */
+	private static final class Contracao {
+
+		private final int n;
+		private final Ligacoes ligacoes = new Ligacoes();
+		private final int[][] saidas;
+		private final int[] grauSaida;
+		private final int[][] entradas;
+		private final int[] grauEntrada;
+		private final boolean[] contraidos;
+		private final int[] vizinhosContraidos;
+
+		// Busca de testemunhas, com versões como no Dijkstra.
+		private final HeapIndexado heap;
+		private final double[] distancias;
+		private final int[] versoes;
+		private int versao;
+
+		// Atalhos encontrados na contração de um vértice.
+		private int[] atalhos = new int[16];
+		private int quantidadeAtalhos;
+
+		private Contracao(Grafo<?> grafo) {
+			this.n = grafo.getNumeroVertices();
+			this.saidas = new int[n][];
+			this.grauSaida = new int[n];
+			this.entradas = new int[n][];
+			this.grauEntrada = new int[n];
+			this.contraidos = new boolean[n];
+			this.vizinhosContraidos = new int[n];
+			this.heap = new HeapIndexado(n);
+			this.distancias = new double[n];
+			this.versoes = new int[n];
+			for (int v = 0; v < n; v++) {
+				saidas[v] = new int[Math.max(1, grafo.fimAdjacentes(v) - grafo.inicioAdjacentes(v))];
+				entradas[v] = new int[Math.max(1, grafo.fimAntecessores(v) - grafo.inicioAntecessores(v))];
+			}
+			for (int v = 0; v < n; v++) {
+				for (int l = grafo.inicioAdjacentes(v); l < grafo.fimAdjacentes(v); l++) {
+					int w = grafo.destino(l);
+					if (w != v && grafo.peso(l) != Double.POSITIVE_INFINITY) {
+						liga(ligacoes.adiciona(v, w, grafo.peso(l), ORIGINAL, ORIGINAL));
+					}
+				}
+			}
+		}
+
+		<T> HierarquiaContracao<T> contrai(Grafo<T> grafo) {
+			// 1. Fila de vértices pela prioridade de contração.
+			HeapIndexado fila = new HeapIndexado(n);
+			for (int v = 0; v < n; v++) {
+				fila.insereOuDiminui(v, prioridade(v));
+			}
+
+			int[] niveis = new int[n];
+			int nivel = 0;
+			while (!fila.vazio()) {
+				// 2. A prioridade do vértice pode ter aumentado desde a sua inserção, ele só é contraído se
+				// continua sendo o menor.
+				int v = fila.retira();
+				double prioridade = prioridade(v);
+				if (!fila.vazio() && prioridade > fila.chave(fila.minimo())) {
+					fila.insereOuDiminui(v, prioridade);
+					continue;
+				}
+
+				// 3. Contrai o vértice, adicionando os atalhos necessários ao grafo restante.
+				contrai(v);
+				for (int i = 0; i < quantidadeAtalhos; i++) {
+					liga(atalhos[i]);
+				}
+				contraidos[v] = true;
+				niveis[v] = nivel++;
+				for (int i = 0; i < grauSaida[v]; i++) {
+					vizinhosContraidos[ligacoes.destinos[saidas[v][i]]]++;
+				}
+				for (int i = 0; i < grauEntrada[v]; i++) {
+					vizinhosContraidos[ligacoes.origens[entradas[v][i]]]++;
+				}
+			}
+			return new HierarquiaContracao<>(grafo, niveis, ligacoes);
+		}
+
+		/**
+		 * Diferença de ligações que a contração do vértice causaria, somada aos vizinhos já contraídos,
+		 * para espalhar as contrações pelo grafo.
+		 */
+		private double prioridade(int v) {
+			contrai(v);
+			// Os atalhos simulados são descartados.
+			ligacoes.tamanho -= quantidadeAtalhos;
+			int removidas = 0;
+			for (int i = 0; i < grauSaida[v]; i++) {
+				if (!contraidos[ligacoes.destinos[saidas[v][i]]]) {
+					removidas++;
+				}
+			}
+			for (int i = 0; i < grauEntrada[v]; i++) {
+				if (!contraidos[ligacoes.origens[entradas[v][i]]]) {
+					removidas++;
+				}
+			}
+			return 2 * (quantidadeAtalhos - removidas) + vizinhosContraidos[v];
+		}
+
+		/**
+		 * Cria os atalhos necessários para remover o vértice do grafo restante, guardando-os em {@link #atalhos}.
+		 */
+		private void contrai(int v) {
+			quantidadeAtalhos = 0;
+			for (int i = 0; i < grauEntrada[v]; i++) {
+				int entrada = entradas[v][i];
+				int u = ligacoes.origens[entrada];
+				if (contraidos[u]) {
+					continue;
+				}
+
+				// 1. Maior custo de um caminho u -> v -> w, que limita a busca de testemunhas.
+				double limite = Double.NEGATIVE_INFINITY;
+				for (int j = 0; j < grauSaida[v]; j++) {
+					int w = ligacoes.destinos[saidas[v][j]];
+					if (!contraidos[w] && w != u) {
+						limite = Math.max(limite, ligacoes.pesos[entrada] + ligacoes.pesos[saidas[v][j]]);
+					}
+				}
+				if (limite == Double.NEGATIVE_INFINITY) {
+					continue;
+				}
+				buscaTestemunhas(u, v, limite);
+
+				// 2. Cada caminho por v sem testemunha tão curta quanto ele precisa de um atalho.
+				for (int j = 0; j < grauSaida[v]; j++) {
+					int saida = saidas[v][j];
+					int w = ligacoes.destinos[saida];
+					double peso = ligacoes.pesos[entrada] + ligacoes.pesos[saida];
+					if (!contraidos[w] && w != u && distancia(w) > peso) {
+						if (quantidadeAtalhos == atalhos.length) {
+							atalhos = Arrays.copyOf(atalhos, quantidadeAtalhos * 2);
+						}
+						atalhos[quantidadeAtalhos++] = ligacoes.adiciona(u, w, peso, entrada, saida);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Dijkstra a partir de u no grafo restante, sem passar pelo vértice ignorado, até o limite de custo ou de
+		 * vértices fechados. Distâncias não encontradas são infinitas, o que só pode criar atalhos desnecessários.
+		 */
+		private void buscaTestemunhas(int u, int ignorado, double limite) {
+			if (++versao == 0) {
+				Arrays.fill(versoes, 0);
+				versao = 1;
+			}
+			heap.limpa();
+			versoes[u] = versao;
+			distancias[u] = 0d;
+			heap.insereOuDiminui(u, 0d);
+			int fechados = 0;
+			while (!heap.vazio() && fechados++ < LIMITE_TESTEMUNHA) {
+				int x = heap.retira();
+				if (distancias[x] > limite) {
+					break;
+				}
+				for (int i = 0; i < grauSaida[x]; i++) {
+					int ligacao = saidas[x][i];
+					int y = ligacoes.destinos[ligacao];
+					if (contraidos[y] || y == ignorado) {
+						continue;
+					}
+					double nova = distancias[x] + ligacoes.pesos[ligacao];
+					if (nova < distancia(y)) {
+						versoes[y] = versao;
+						distancias[y] = nova;
+						heap.insereOuDiminui(y, nova);
+					}
+				}
+			}
+		}
+
+		private double distancia(int v) {
+			return versoes[v] == versao ? distancias[v] : Double.POSITIVE_INFINITY;
+		}
+
+		private void liga(int ligacao) {
+			int origem = ligacoes.origens[ligacao];
+			int destino = ligacoes.destinos[ligacao];
+			if (grauSaida[origem] == saidas[origem].length) {
+				saidas[origem] = Arrays.copyOf(saidas[origem], grauSaida[origem] * 2);
+			}
+			saidas[origem][grauSaida[origem]++] = ligacao;
+			if (grauEntrada[destino] == entradas[destino].length) {
+				entradas[destino] = Arrays.copyOf(entradas[destino], grauEntrada[destino] * 2);
+			}
+			entradas[destino][grauEntrada[destino]++] = ligacao;
+		}
+	}
+}
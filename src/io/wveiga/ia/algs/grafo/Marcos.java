@@ -0,0 +1,267 @@
+package io.wveiga.ia.algs.grafo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import io.wveiga.ia.algs.busca.info.Heuristica;
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Marcos (landmarks) para a heurística ALT (A*, Landmarks e desigualdade Triangular).
+ *
+ * Para cada marco L são pré-calculadas as distâncias d(L, v) de L até todos os vértices e d(v, L) de todos os
+ * vértices até L. Pela desigualdade triangular, para qualquer par de vértices v e t:
+ * <ul>
+ * 	<li>d(v, t) &ge; d(L, t) - d(L, v);</li>
+ * 	<li>d(v, t) &ge; d(v, L) - d(t, L).</li>
+ * </ul>
+ * O maior desses limites entre todos os marcos é uma heurística admissível e consistente, que não depende de
+ * coordenadas dos vértices.
+ *
+ * Os marcos são escolhidos pelo vértice mais distante: cada novo marco é o vértice mais longe dos marcos já escolhidos,
+ * de forma que fiquem espalhados pelas bordas do grafo. As distâncias ficam em dois vetores planos, indexados por
+ * marco * vértices + vértice, que podem ser gravados e carregados por mapeamento em memória junto com o grafo.
+ *
+ * @author Welington Veiga
+ *
+ * @see http://research.microsoft.com/pubs/154937/soda05.pdf
+ *
+ * @param <T> tipo dos vértices do grafo.
+ */
+public final class Marcos<T> {
+
+	private static final int MAGICO = 0x414C544D; // "ALTM"
+	private static final int VERSAO = 1;
+	private static final int CABECALHO = 28;
+
+	private final Grafo<T> grafo;
+	private final int[] marcos;
+	private final DoubleBuffer daMarco;
+	private final DoubleBuffer ateMarco;
+
+	private Marcos(Grafo<T> grafo, int[] marcos, DoubleBuffer daMarco, DoubleBuffer ateMarco) {
+		this.grafo = grafo;
+		this.marcos = marcos;
+		this.daMarco = daMarco;
+		this.ateMarco = ateMarco;
+	}
+
+	/**
+	 * Escolhe os marcos do grafo e calcula suas distâncias, com duas buscas de Dijkstra por marco.
+	 *
+	 * @param grafo grafo, não vazio.
+	 * @param quantidade número de marcos desejado, limitado ao número de vértices.
+	 * @return marcos do grafo, mantidos em memória.
+	 */
+	public static <T> Marcos<T> seleciona(Grafo<T> grafo, int quantidade) {
+		Preconditions.nonNull(grafo);
+		Preconditions.verify(quantidade > 0, "Quantidade de marcos deve ser positiva");
+		int n = grafo.getNumeroVertices();
+		Preconditions.verify(n > 0, "Grafo não possui vértices");
+		int k = Math.min(quantidade, n);
+		Preconditions.verify((long) k * n < Integer.MAX_VALUE / Double.BYTES, "Marcos demais para o tamanho do grafo");
+
+		Dijkstra<T> frente = new Dijkstra<>(grafo);
+		Dijkstra<T> tras = new Dijkstra<>(grafo, true);
+		int[] marcos = new int[k];
+		double[] daMarco = new double[k * n];
+		double[] ateMarco = new double[k * n];
+
+		// 1. A proximidade de cada vértice é a menor distância de ida e volta até os marcos já escolhidos.
+		// O primeiro marco é o vértice mais distante do vértice 0.
+		double[] proximidade = new double[n];
+		Arrays.fill(proximidade, Double.POSITIVE_INFINITY);
+		frente.buscaTodos(0);
+		tras.buscaTodos(0);
+		int escolhido = maisDistante(frente, tras, proximidade, n);
+		Arrays.fill(proximidade, Double.POSITIVE_INFINITY);
+
+		for (int i = 0; i < k; i++) {
+			// 2. Distâncias do marco até os vértices e dos vértices até o marco.
+			marcos[i] = escolhido;
+			frente.buscaTodos(escolhido);
+			tras.buscaTodos(escolhido);
+			for (int v = 0; v < n; v++) {
+				daMarco[i * n + v] = frente.distancia(v);
+				ateMarco[i * n + v] = tras.distancia(v);
+			}
+
+			// 3. O próximo marco é o vértice mais distante de todos os marcos escolhidos.
+			escolhido = maisDistante(frente, tras, proximidade, n);
+		}
+		return new Marcos<>(grafo, marcos, DoubleBuffer.wrap(daMarco), DoubleBuffer.wrap(ateMarco));
+	}
+
+	/**
+	 * Atualiza a proximidade de cada vértice com as distâncias da última busca e retorna o vértice menos próximo.
+	 * Vértices que não alcançam ou não são alcançados pelos marcos têm proximidade infinita e são escolhidos primeiro,
+	 * cobrindo outras componentes do grafo.
+	 */
+	private static int maisDistante(Dijkstra<?> frente, Dijkstra<?> tras, double[] proximidade, int n) {
+		int escolhido = 0;
+		for (int v = 0; v < n; v++) {
+			proximidade[v] = Math.min(proximidade[v], frente.distancia(v) + tras.distancia(v));
+			if (proximidade[v] > proximidade[escolhido]) {
+				escolhido = v;
+			}
+		}
+		return escolhido;
+	}
+
+	/**
+	 * Carrega, por mapeamento em memória, marcos gravados por {@link #grava(Path)} para o mesmo grafo.
+	 *
+	 * @param arquivo arquivo dos marcos.
+	 * @param grafo grafo a partir do qual os marcos foram calculados.
+	 * @return marcos somente leitura.
+	 * @throws IOException se o arquivo não puder ser lido.
+	 */
+	public static <T> Marcos<T> carrega(Path arquivo, Grafo<T> grafo) throws IOException {
+		Preconditions.nonNull(arquivo, grafo);
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			// 1. O cabeçalho é lido diretamente do canal, e cada tabela é mapeada separadamente a partir da sua
+			// posição, de forma que apenas cada tabela, e não o arquivo inteiro, precisa caber em um mapeamento.
+			ByteBuffer cabecalho = le(canal, 0, CABECALHO, arquivo);
+			Preconditions.verify(cabecalho.getInt() == MAGICO, "Arquivo não é uma tabela de marcos: " + arquivo);
+			Preconditions.verify(cabecalho.getInt() == VERSAO, "Versão de tabela de marcos não suportada: " + arquivo);
+			int n = cabecalho.getInt();
+			int ligacoes = cabecalho.getInt();
+			long assinatura = cabecalho.getLong();
+			Preconditions.verify(n == grafo.getNumeroVertices() && ligacoes == grafo.getNumeroLigacoes()
+					&& assinatura == grafo.getAssinatura(), "Tabela de marcos foi calculada para outro grafo: " + arquivo);
+			int k = cabecalho.getInt();
+			Preconditions.verify(k > 0 && (long) k * n < Integer.MAX_VALUE / Double.BYTES,
+					"Tabela de marcos inválida: " + arquivo);
+			ByteBuffer indices = le(canal, CABECALHO, k * Integer.BYTES, arquivo);
+			int[] marcos = new int[k];
+			for (int i = 0; i < k; i++) {
+				marcos[i] = indices.getInt();
+			}
+
+			// 2. As distâncias a partir dos marcos e até os marcos, cada uma com k * n valores.
+			long inicio = alinha(CABECALHO + k * Integer.BYTES);
+			long tamanho = (long) k * n * Double.BYTES;
+			Preconditions.verify(canal.size() == inicio + 2 * tamanho, "Tabela de marcos incompleta: " + arquivo);
+			DoubleBuffer daMarco = canal.map(FileChannel.MapMode.READ_ONLY, inicio, tamanho).asDoubleBuffer();
+			DoubleBuffer ateMarco = canal.map(FileChannel.MapMode.READ_ONLY, inicio + tamanho, tamanho).asDoubleBuffer();
+			return new Marcos<>(grafo, marcos, daMarco, ateMarco);
+		}
+	}
+
+	/**
+	 * Lê uma seção do arquivo para um buffer em memória.
+	 */
+	private static ByteBuffer le(FileChannel canal, long posicao, int bytes, Path arquivo) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(bytes);
+		while (buffer.hasRemaining()) {
+			Preconditions.verify(canal.read(buffer, posicao + buffer.position()) >= 0,
+					"Tabela de marcos incompleta: " + arquivo);
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Grava os marcos em um arquivo binário: cabeçalho (mágico, versão, vértices, ligações e assinatura do grafo,
+	 * marcos) alinhado a 8 bytes, seguido das distâncias a partir dos marcos e das distâncias até os marcos.
+	 *
+	 * @param arquivo arquivo de destino.
+	 * @throws IOException se o arquivo não puder ser escrito.
+	 */
+	public void grava(Path arquivo) throws IOException {
+		try (OutputStream saida = Files.newOutputStream(arquivo);
+				DataOutputStream dados = new DataOutputStream(new BufferedOutputStream(saida))) {
+			dados.writeInt(MAGICO);
+			dados.writeInt(VERSAO);
+			dados.writeInt(grafo.getNumeroVertices());
+			dados.writeInt(grafo.getNumeroLigacoes());
+			dados.writeLong(grafo.getAssinatura());
+			dados.writeInt(marcos.length);
+			for (int marco : marcos) {
+				dados.writeInt(marco);
+			}
+			dados.write(new byte[alinha(dados.size()) - dados.size()]);
+			for (DoubleBuffer tabela : new DoubleBuffer[] {daMarco, ateMarco}) {
+				for (int i = 0; i < tabela.limit(); i++) {
+					dados.writeDouble(tabela.get(i));
+				}
+			}
+		}
+	}
+
+	private static int alinha(int posicao) {
+		return (posicao + Double.BYTES - 1) & -Double.BYTES;
+	}
+
+	/**
+	 * Limite inferior da distância entre dois vértices, pela desigualdade triangular sobre todos os marcos.
+	 *
+	 * @param v identificador do vértice de origem.
+	 * @param t identificador do vértice de destino.
+	 * @return estimativa admissível de d(v, t), {@link Double#POSITIVE_INFINITY} se t certamente não é alcançável a partir de v.
+	 */
+	public double estima(int v, int t) {
+		int n = grafo.getNumeroVertices();
+		double melhor = 0d;
+		for (int i = 0; i < marcos.length; i++) {
+			melhor = Math.max(melhor, limite(daMarco.get(i * n + v), daMarco.get(i * n + t)));
+			melhor = Math.max(melhor, limite(ateMarco.get(i * n + t), ateMarco.get(i * n + v)));
+		}
+		return melhor;
+	}
+
+	/**
+	 * Limite inferior de d(v, t) dado pela diferença maior - menor, isto é, d(L, t) - d(L, v) ou d(v, L) - d(t, L).
+	 * Se apenas a distância subtraída é finita, t não é alcançável a partir de v: por exemplo, se L alcança v mas não
+	 * alcança t, nenhum caminho de v leva a t.
+	 */
+	private static double limite(double menor, double maior) {
+		if (maior == Double.POSITIVE_INFINITY) {
+			return menor == Double.POSITIVE_INFINITY ? 0d : Double.POSITIVE_INFINITY;
+		}
+		return maior - menor;
+	}
+
+	/**
+	 * Heurística ALT para buscas até o destino informado.
+	 *
+	 * @param destino vértice de destino das buscas.
+	 * @return heurística admissível e consistente, nula se o destino não pertence ao grafo.
+	 */
+	public Heuristica<T> heuristica(T destino) {
+		int t = grafo.indice(destino);
+		if (t == Grafo.AUSENTE) {
+			return Heuristica.nula();
+		}
+		return estado -> {
+			int v = grafo.indice(estado);
+			return v == Grafo.AUSENTE ? 0d : estima(v, t);
+		};
+	}
+
+	public Grafo<T> getGrafo() {
+		return grafo;
+	}
+
+	/**
+	 * @return identificadores dos vértices escolhidos como marcos.
+	 */
+	public int[] getMarcos() {
+		return marcos.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "Marcos [marcos=" + Arrays.toString(marcos) + "]";
+	}
+}
@@ -0,0 +1,173 @@
+package io.wveiga.ia.algs.grafo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Matriz de distâncias mínimas entre um conjunto de origens e um conjunto de destinos de um {@link Grafo}.
+ *
+ * Cada linha da matriz é calculada por uma busca de {@link Dijkstra} a partir da origem, que para assim que todos os
+ * destinos têm distância definitiva. As linhas são distribuídas em blocos entre as threads de um {@link ForkJoinPool},
+ * e as buscas são reaproveitadas entre os blocos: cada bloco retira uma busca livre, com seus vetores já alocados,
+ * e a devolve ao terminar, de forma que existem no máximo tantas buscas quanto blocos em execução simultânea.
+ *
+ * @author Welington Veiga
+ *
+ * @param <T> tipo dos vértices do grafo.
+ */
+public final class MatrizDistancias<T> {
+
+	private static final int BLOCOS_POR_THREAD = 4;
+
+	private final Grafo<T> grafo;
+	private final double[][] distancias;
+	private final int[][][] caminhos;
+
+	private MatrizDistancias(Grafo<T> grafo, double[][] distancias, int[][][] caminhos) {
+		this.grafo = grafo;
+		this.distancias = distancias;
+		this.caminhos = caminhos;
+	}
+
+	/**
+	 * Calcula apenas as distâncias, no pool comum.
+	 *
+	 * @see #calcula(Grafo, List, List, boolean, ForkJoinPool)
+	 */
+	public static <T> MatrizDistancias<T> calcula(Grafo<T> grafo, List<T> origens, List<T> destinos) {
+		return calcula(grafo, origens, destinos, false, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param grafo grafo das buscas.
+	 * @param origens vértices das linhas da matriz, todos do grafo.
+	 * @param destinos vértices das colunas da matriz, todos do grafo.
+	 * @param caminhos se verdadeiro, guarda também o caminho de cada par, consultado por {@link #caminho(int, int)}.
+	 * @param pool pool onde as buscas são executadas.
+	 * @return matriz de distâncias.
+	 */
+	public static <T> MatrizDistancias<T> calcula(Grafo<T> grafo, List<T> origens, List<T> destinos, boolean caminhos,
+			ForkJoinPool pool) {
+		Preconditions.nonNull(grafo, origens, destinos, pool);
+		int[] linhas = indices(grafo, origens);
+		int[] colunas = indices(grafo, destinos);
+
+		// 1. Marca os destinos distintos, que encerram cada busca quando todos são fechados.
+		boolean[] destino = new boolean[grafo.getNumeroVertices()];
+		int distintos = 0;
+		for (int coluna : colunas) {
+			if (!destino[coluna]) {
+				destino[coluna] = true;
+				distintos++;
+			}
+		}
+		int totalDestinos = distintos;
+
+		double[][] distancias = new double[linhas.length][];
+		int[][][] rotas = caminhos ? new int[linhas.length][][] : null;
+		ConcurrentLinkedQueue<Dijkstra<T>> livres = new ConcurrentLinkedQueue<>();
+
+		// 2. Distribui as origens em blocos, cada bloco com uma busca reaproveitada.
+		int blocos = Math.min(linhas.length, pool.getParallelism() * BLOCOS_POR_THREAD);
+		List<ForkJoinTask<?>> tarefas = new ArrayList<>(blocos);
+		for (int b = 0; b < blocos; b++) {
+			int inicio = (int) ((long) linhas.length * b / blocos);
+			int fim = (int) ((long) linhas.length * (b + 1) / blocos);
+			tarefas.add(pool.submit(() -> {
+				Dijkstra<T> dijkstra = livres.poll();
+				if (dijkstra == null) {
+					dijkstra = new Dijkstra<>(grafo);
+				}
+				int[] restantes = new int[1];
+				for (int i = inicio; i < fim; i++) {
+					restantes[0] = totalDestinos;
+					dijkstra.busca(linhas[i], v -> destino[v] && --restantes[0] == 0);
+
+					// 3. Copia a linha da matriz e, se pedido, os caminhos até cada destino.
+					double[] linha = new double[colunas.length];
+					for (int j = 0; j < colunas.length; j++) {
+						linha[j] = dijkstra.distancia(colunas[j]);
+					}
+					distancias[i] = linha;
+					if (rotas != null) {
+						rotas[i] = new int[colunas.length][];
+						for (int j = 0; j < colunas.length; j++) {
+							rotas[i][j] = linha[j] == Double.POSITIVE_INFINITY ? null : dijkstra.caminho(colunas[j]);
+						}
+					}
+				}
+				livres.add(dijkstra);
+			}));
+		}
+		for (ForkJoinTask<?> tarefa : tarefas) {
+			tarefa.join();
+		}
+		return new MatrizDistancias<>(grafo, distancias, rotas);
+	}
+
+	private static <T> int[] indices(Grafo<T> grafo, List<T> vertices) {
+		int[] indices = new int[vertices.size()];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = grafo.indice(vertices.get(i));
+			Preconditions.verify(indices[i] != Grafo.AUSENTE, "Vértice não pertence ao grafo: " + vertices.get(i));
+		}
+		return indices;
+	}
+
+	/**
+	 * @param origem posição da origem na lista de origens.
+	 * @param destino posição do destino na lista de destinos.
+	 * @return menor distância da origem ao destino, {@link Double#POSITIVE_INFINITY} se não há caminho.
+	 */
+	public double distancia(int origem, int destino) {
+		return distancias[origem][destino];
+	}
+
+	/**
+	 * Matriz calculada, indexada pelas posições das origens e dos destinos. O vetor é o próprio vetor desta instância,
+	 * sem cópia, e não deve ser alterado.
+	 *
+	 * @return distâncias mínimas, {@link Double#POSITIVE_INFINITY} para pares sem caminho.
+	 */
+	public double[][] getDistancias() {
+		return distancias;
+	}
+
+	/**
+	 * @param origem posição da origem na lista de origens.
+	 * @param destino posição do destino na lista de destinos.
+	 * @return vértices do caminho mínimo, da origem ao destino inclusive, ou lista vazia se não há caminho.
+	 */
+	public List<T> caminho(int origem, int destino) {
+		Preconditions.verify(caminhos != null, "Matriz calculada sem caminhos");
+		int[] ids = caminhos[origem][destino];
+		if (ids == null) {
+			return new ArrayList<>(0);
+		}
+		List<T> caminho = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			caminho.add(grafo.vertice(id));
+		}
+		return caminho;
+	}
+
+	public Grafo<T> getGrafo() {
+		return grafo;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder saida = new StringBuilder("MatrizDistancias [\n");
+		for (double[] linha : distancias) {
+			saida.append(Arrays.toString(linha)).append('\n');
+		}
+		return saida.append(']').toString();
+	}
+}
@@ -0,0 +1,145 @@
+package io.wveiga.ia.ed;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Arena de nós de uma árvore de busca, guardada como vetores paralelos (struct-of-arrays).
+ *
+ * Cada nó é identificado por um <code>int</code> sequencial e guarda apenas o índice do seu pai, o identificador da
+ * ação que levou até ele (por exemplo sua posição entre os sucessores do pai) e o seu estado. Na arena codificada o
+ * estado é guardado como o seu código <code>long</code>, e o objeto só é refeito quando consultado: cada nó ocupa
+ * 16 bytes e não mantém nenhum objeto vivo. Bordas podem guardar somente os identificadores, e a reconstrução do
+ * caminho até a raiz é um percurso pelos vetores, sem consultas a tabelas hash.
+ *
+ * @author Welington Veiga
+ *
+ * @param <S> tipo do estado guardado em cada nó.
+ */
+public class ArenaNos<S> {
+
+	/**
+	 * Pai da raiz da árvore, e ação que leva até ela.
+	 */
+	public static final int NENHUM = -1;
+
+	private static final int CAPACIDADE_INICIAL = 64;
+
+	private final ToLongFunction<S> codifica;
+	private final LongFunction<S> decodifica;
+
+	private int[] pais;
+	private int[] acoes;
+	private long[] codigos;
+	private Object[] estados;
+	private int tamanho;
+
+	/**
+	 * Arena que guarda referências aos estados.
+	 */
+	public ArenaNos() {
+		this(null, null);
+	}
+
+	private ArenaNos(ToLongFunction<S> codifica, LongFunction<S> decodifica) {
+		this.codifica = codifica;
+		this.decodifica = decodifica;
+		this.pais = new int[CAPACIDADE_INICIAL];
+		this.acoes = new int[CAPACIDADE_INICIAL];
+		if (codifica == null) {
+			this.estados = new Object[CAPACIDADE_INICIAL];
+		} else {
+			this.codigos = new long[CAPACIDADE_INICIAL];
+		}
+	}
+
+	/**
+	 * Arena que guarda apenas os códigos dos estados.
+	 *
+	 * @param codifica codificação sem perda dos estados, não nula.
+	 * @param decodifica recupera o estado a partir do código, não nula.
+	 */
+	public static <S> ArenaNos<S> codificada(ToLongFunction<S> codifica, LongFunction<S> decodifica) {
+		Preconditions.nonNull(codifica, decodifica);
+		return new ArenaNos<>(codifica, decodifica);
+	}
+
+	/**
+	 * Adiciona um nó à arena.
+	 *
+	 * @param estado estado do nó.
+	 * @param acao identificador da ação que leva do pai ao nó, ou {@link #NENHUM} para a raiz.
+	 * @param pai identificador do nó pai, ou {@link #NENHUM} para a raiz.
+	 * @return identificador do novo nó.
+	 */
+	public int adiciona(S estado, int acao, int pai) {
+		if (tamanho == pais.length) {
+			Preconditions.verify(tamanho < Integer.MAX_VALUE - 8, "Capacidade máxima da arena excedida");
+			int capacidade = (int) Math.min(Integer.MAX_VALUE - 8L, tamanho + (tamanho >> 1) + 1L);
+			pais = Arrays.copyOf(pais, capacidade);
+			acoes = Arrays.copyOf(acoes, capacidade);
+			if (codigos != null) {
+				codigos = Arrays.copyOf(codigos, capacidade);
+			} else {
+				estados = Arrays.copyOf(estados, capacidade);
+			}
+		}
+		pais[tamanho] = pai;
+		acoes[tamanho] = acao;
+		if (codigos != null) {
+			codigos[tamanho] = codifica.applyAsLong(estado);
+		} else {
+			estados[tamanho] = estado;
+		}
+		return tamanho++;
+	}
+
+	/**
+	 * @return estado do nó, refeito a partir do código na arena codificada.
+	 */
+	@SuppressWarnings("unchecked")
+	public S estado(int no) {
+		return codigos != null ? decodifica.apply(codigos[no]) : (S) estados[no];
+	}
+
+	/**
+	 * @return identificador da ação que leva do pai ao nó, {@link #NENHUM} para a raiz.
+	 */
+	public int acao(int no) {
+		return acoes[no];
+	}
+
+	public int pai(int no) {
+		return pais[no];
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Nós do caminho da raiz até o nó informado, inclusive.
+	 *
+	 * @param no identificador do último nó do caminho.
+	 * @return identificadores dos nós do caminho, a partir da raiz.
+	 */
+	public int[] caminhoAte(int no) {
+		int profundidade = 0;
+		for (int atual = no; atual != NENHUM; atual = pais[atual]) {
+			profundidade++;
+		}
+		int[] caminho = new int[profundidade];
+		for (int atual = no; atual != NENHUM; atual = pais[atual]) {
+			caminho[--profundidade] = atual;
+		}
+		return caminho;
+	}
+
+	@Override
+	public String toString() {
+		return "ArenaNos [tamanho=" + tamanho + ", codificada=" + (codigos != null) + "]";
+	}
+}
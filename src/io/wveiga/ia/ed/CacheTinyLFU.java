@@ -0,0 +1,397 @@
+package io.wveiga.ia.ed;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Cache de tamanho limitado, seguro entre threads, com política de remoção W-TinyLFU.
+ *
+ * Os valores ficam em um {@link ConcurrentHashMap} de {@link CompletableFuture}, de forma que um acerto custa uma
+ * consulta à tabela e threads que pedem a mesma chave enquanto ela está sendo calculada aguardam o mesmo cálculo, em
+ * vez de repeti-lo.
+ *
+ * Os acertos não tomam a trava da política: a chave é registrada em um buffer de leituras dividido em faixas, uma por
+ * grupo de threads, e os registros são aplicados à política depois, em lote, por quem conseguir a trava sem esperar,
+ * ou pela próxima inserção. O buffer pode perder registros quando está cheio ou disputado, o que apenas torna as
+ * frequências e a ordem LRU um pouco menos precisas.
+ *
+ * A política divide a capacidade em duas regiões LRU:
+ * <ul>
+ * 	<li>a janela, com 1% da capacidade, que recebe toda chave nova e protege rajadas de chaves recentes;</li>
+ * 	<li>a região principal, com o restante, onde só entra a chave que sai da janela se ela for mais frequente que
+ * 	a chave menos recente da região principal, que então é removida.</li>
+ * </ul>
+ * As frequências são aproximadas por um count-min sketch de contadores de 4 bits, cujos valores são divididos por dois
+ * periodicamente para que chaves que deixaram de ser usadas percam prioridade.
+ *
+ * @author Welington Veiga
+ *
+ * @see https://arxiv.org/abs/1512.00727
+ *
+ * @param <K> tipo das chaves.
+ * @param <V> tipo dos valores, não nulos.
+ */
+public class CacheTinyLFU<K, V> {
+
+	private static final int JANELA = 100;
+
+	private final int capacidadeJanela;
+	private final int capacidadePrincipal;
+
+	private final ConcurrentHashMap<K, CompletableFuture<V>> valores;
+
+	// Estado da política, protegido pela trava politica.
+	private final ReentrantLock politica = new ReentrantLock();
+	private final Leituras<K> leituras = new Leituras<>();
+	private final LinkedHashMap<K, Boolean> janela = new LinkedHashMap<>(16, 0.75f, true);
+	private final LinkedHashMap<K, Boolean> principal = new LinkedHashMap<>(16, 0.75f, true);
+	private final Frequencias frequencias;
+
+	private final LongAdder acertos = new LongAdder();
+	private final LongAdder falhas = new LongAdder();
+	private final LongAdder remocoes = new LongAdder();
+
+	/**
+	 * @param capacidade número máximo de valores guardados.
+	 */
+	public CacheTinyLFU(int capacidade) {
+		Preconditions.verify(capacidade > 0, "Capacidade deve ser positiva");
+		this.capacidadeJanela = Math.max(1, capacidade / JANELA);
+		this.capacidadePrincipal = capacidade - capacidadeJanela;
+		this.valores = new ConcurrentHashMap<>(Math.min(capacidade, 1 << 16));
+		this.frequencias = new Frequencias(capacidade);
+	}
+
+	/**
+	 * Obtém o valor da chave, calculando-o na thread atual se ele não está no cache nem sendo calculado por outra thread.
+	 * Se o cálculo falhar, a exceção é repassada a todas as threads que o aguardavam e nada é guardado.
+	 *
+	 * @param chave chave do valor.
+	 * @param calculo calcula o valor da chave, não pode retornar nulo.
+	 * @return valor da chave.
+	 */
+	public V obtem(K chave, Function<? super K, ? extends V> calculo) {
+		Preconditions.nonNull(chave, calculo);
+		CompletableFuture<V> valor = valores.get(chave);
+		if (valor == null) {
+			CompletableFuture<V> novo = new CompletableFuture<>();
+			valor = valores.putIfAbsent(chave, novo);
+			if (valor == null) {
+				falhas.increment();
+				return calcula(chave, novo, calculo);
+			}
+		}
+		acertos.increment();
+		if (leituras.registra(chave) && politica.tryLock()) {
+			try {
+				drena();
+			} finally {
+				politica.unlock();
+			}
+		}
+		return aguarda(valor);
+	}
+
+	/**
+	 * Aplica à política os acertos registrados no buffer de leituras. Deve ser chamado com a trava da política.
+	 */
+	private void drena() {
+		leituras.drena(this::acessa);
+	}
+
+	private void acessa(K chave) {
+		frequencias.incrementa(chave);
+		if (janela.get(chave) == null) {
+			principal.get(chave);
+		}
+	}
+
+	private V calcula(K chave, CompletableFuture<V> novo, Function<? super K, ? extends V> calculo) {
+		V valor;
+		try {
+			valor = calculo.apply(chave);
+			Preconditions.nonNull(valor, "Valor calculado para o cache não pode ser nulo");
+		} catch (RuntimeException | Error e) {
+			valores.remove(chave, novo);
+			novo.completeExceptionally(e);
+			throw e;
+		}
+		novo.complete(valor);
+		admite(chave, novo);
+		return valor;
+	}
+
+	private static <V> V aguarda(CompletableFuture<V> valor) {
+		try {
+			return valor.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Coloca a chave recém calculada na janela. A chave que sai da janela disputa com a vítima da região principal,
+	 * e a de menor frequência é removida do cache.
+	 */
+	private void admite(K chave, CompletableFuture<V> valor) {
+		politica.lock();
+		try {
+			drena();
+			if (valores.get(chave) != valor) {
+				// Invalidada durante o cálculo.
+				return;
+			}
+			frequencias.incrementa(chave);
+			janela.put(chave, Boolean.TRUE);
+			if (janela.size() <= capacidadeJanela) {
+				return;
+			}
+			K candidato = primeira(janela);
+			janela.remove(candidato);
+			if (principal.size() < capacidadePrincipal) {
+				principal.put(candidato, Boolean.TRUE);
+				return;
+			}
+			K vitima = principal.isEmpty() ? null : primeira(principal);
+			if (vitima != null && frequencias.frequencia(candidato) > frequencias.frequencia(vitima)) {
+				principal.remove(vitima);
+				principal.put(candidato, Boolean.TRUE);
+				remove(vitima);
+			} else {
+				remove(candidato);
+			}
+		} finally {
+			politica.unlock();
+		}
+	}
+
+	private static <K> K primeira(LinkedHashMap<K, Boolean> regiao) {
+		Iterator<K> chaves = regiao.keySet().iterator();
+		return chaves.next();
+	}
+
+	private void remove(K chave) {
+		valores.remove(chave);
+		remocoes.increment();
+	}
+
+	/**
+	 * Descarta o valor da chave. Um cálculo em andamento não é interrompido, mas seu resultado não é guardado.
+	 */
+	public void invalida(K chave) {
+		politica.lock();
+		try {
+			drena();
+			valores.remove(chave);
+			if (janela.remove(chave) == null) {
+				principal.remove(chave);
+			}
+		} finally {
+			politica.unlock();
+		}
+	}
+
+	/**
+	 * Descarta todos os valores, mantendo as estatísticas.
+	 */
+	public void limpa() {
+		politica.lock();
+		try {
+			drena();
+			valores.clear();
+			janela.clear();
+			principal.clear();
+		} finally {
+			politica.unlock();
+		}
+	}
+
+	/**
+	 * @return número de valores guardados ou em cálculo.
+	 */
+	public int tamanho() {
+		return valores.size();
+	}
+
+	public long getAcertos() {
+		return acertos.sum();
+	}
+
+	public long getFalhas() {
+		return falhas.sum();
+	}
+
+	/**
+	 * @return número de valores removidos pela política para respeitar a capacidade.
+	 */
+	public long getRemocoes() {
+		return remocoes.sum();
+	}
+
+	/**
+	 * @return fração das consultas atendidas pelo cache, 0 se nenhuma consulta foi feita.
+	 */
+	public double taxaAcertos() {
+		long a = getAcertos();
+		long total = a + getFalhas();
+		return total == 0 ? 0d : (double) a / total;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheTinyLFU [tamanho=" + tamanho() + ", acertos=" + getAcertos() + ", falhas=" + getFalhas()
+				+ ", remocoes=" + getRemocoes() + "]";
+	}
+
+	/**
+	 * Buffer de leituras com perdas, dividido em faixas. Cada faixa é um anel de tamanho fixo escrito por qualquer
+	 * thread com um compare-and-set do contador de escritas, e lido apenas por quem tem a trava da política. Uma
+	 * escrita que encontra a faixa cheia ou perde a disputa pelo contador é descartada, sem nenhuma espera.
+	 */
+	private static final class Leituras<K> {
+
+		private static final int TAMANHO_FAIXA = 16;
+		private static final int MASCARA = TAMANHO_FAIXA - 1;
+		private static final int LIMIAR_DRENAGEM = TAMANHO_FAIXA / 2;
+
+		private final Faixa[] faixas;
+		private final int mascaraFaixas;
+
+		private Leituras() {
+			int processadores = Runtime.getRuntime().availableProcessors();
+			int quantidade = Math.min(64, Integer.highestOneBit(Math.max(1, processadores) * 2 - 1) << 1);
+			this.faixas = new Faixa[quantidade];
+			for (int i = 0; i < quantidade; i++) {
+				faixas[i] = new Faixa();
+			}
+			this.mascaraFaixas = quantidade - 1;
+		}
+
+		/**
+		 * Registra a leitura da chave na faixa da thread atual.
+		 *
+		 * @return verdadeiro se a faixa acumulou leituras suficientes para ser drenada.
+		 */
+		boolean registra(K chave) {
+			long id = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+			Faixa faixa = faixas[(int) (id >>> 32) & mascaraFaixas];
+			long lidas = faixa.lidas;
+			long escritas = faixa.escritas.get();
+			long pendentes = escritas - lidas;
+			if (pendentes >= TAMANHO_FAIXA) {
+				return true;
+			}
+			if (faixa.escritas.compareAndSet(escritas, escritas + 1)) {
+				faixa.chaves.lazySet((int) escritas & MASCARA, chave);
+				return pendentes + 1 >= LIMIAR_DRENAGEM;
+			}
+			return false;
+		}
+
+		/**
+		 * Repassa as leituras registradas, na ordem de cada faixa. Deve ser chamado com a trava da política.
+		 */
+		@SuppressWarnings("unchecked")
+		void drena(Consumer<K> acessa) {
+			for (Faixa faixa : faixas) {
+				long lidas = faixa.lidas;
+				long escritas = faixa.escritas.get();
+				for (; lidas < escritas; lidas++) {
+					int posicao = (int) lidas & MASCARA;
+					Object chave = faixa.chaves.get(posicao);
+					if (chave == null) {
+						// Escrita reservada mas ainda não publicada, será lida na próxima drenagem.
+						break;
+					}
+					faixa.chaves.lazySet(posicao, null);
+					acessa.accept((K) chave);
+				}
+				faixa.lidas = lidas;
+			}
+		}
+
+		private static final class Faixa {
+			private final AtomicLong escritas = new AtomicLong();
+			private final AtomicReferenceArray<Object> chaves = new AtomicReferenceArray<>(TAMANHO_FAIXA);
+			private volatile long lidas;
+		}
+	}
+
+	/**
+	 * Count-min sketch com contadores de 4 bits e envelhecimento.
+	 */
+	private static final class Frequencias {
+
+		private static final int LINHAS = 4;
+		private static final int MAXIMO = 15;
+		private static final int[] SEMENTES = {0x9E3779B1, 0x85EBCA77, 0xC2B2AE3D, 0x27D4EB2F};
+
+		private final byte[] contadores;
+		private final int largura;
+		private final int deslocamento;
+		private final int amostra;
+		private int incrementos;
+
+		private Frequencias(int capacidade) {
+			this.largura = Integer.highestOneBit(Math.max(16, capacidade) - 1) << 1;
+			this.deslocamento = Integer.numberOfLeadingZeros(largura) + 1;
+			this.contadores = new byte[LINHAS * largura];
+			this.amostra = 10 * largura;
+		}
+
+		private int posicao(int hash, int linha) {
+			return linha * largura + ((hash * SEMENTES[linha]) >>> deslocamento);
+		}
+
+		private static int espalha(Object chave) {
+			int h = chave.hashCode();
+			return h ^ (h >>> 16);
+		}
+
+		void incrementa(Object chave) {
+			int hash = espalha(chave);
+			for (int linha = 0; linha < LINHAS; linha++) {
+				int p = posicao(hash, linha);
+				if (contadores[p] < MAXIMO) {
+					contadores[p]++;
+				}
+			}
+			if (++incrementos == amostra) {
+				envelhece();
+			}
+		}
+
+		int frequencia(Object chave) {
+			int hash = espalha(chave);
+			int menor = MAXIMO;
+			for (int linha = 0; linha < LINHAS; linha++) {
+				menor = Math.min(menor, contadores[posicao(hash, linha)]);
+			}
+			return menor;
+		}
+
+		private void envelhece() {
+			for (int i = 0; i < contadores.length; i++) {
+				contadores[i] >>>= 1;
+			}
+			incrementos /= 2;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package io.wveiga.ia.ed;
+
+import java.util.Arrays;
+
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Conjunto de valores <code>long</code> primitivos com endereçamento aberto.
+ *
+ * Os valores ficam em um único vetor <code>long[]</code> de tamanho potência de dois, com sondagem linear
+ * e redimensionamento ao atingir a carga máxima. Não há objetos por elemento nem boxing, o que reduz o consumo
+ * de memória em relação a um <code>HashSet&lt;Long&gt;</code> e mantém as consultas em posições contíguas da memória.
+ *
+ * O valor 0 marca posições vazias do vetor e por isso é guardado à parte.
+ *
+ * @author Welington Veiga
+ */
+public class ConjuntoLong {
+
+	private static final int CAPACIDADE_INICIAL = 16;
+	private static final double CARGA_MAXIMA = 0.6;
+
+	private long[] valores;
+	private int mascara;
+	private int tamanho;
+	private int limite;
+	private boolean contemZero;
+
+	public ConjuntoLong() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	/**
+	 * @param capacidade número de elementos esperado, evita redimensionamentos.
+	 */
+	public ConjuntoLong(int capacidade) {
+		Preconditions.verify(capacidade >= 0, "Capacidade não pode ser negativa");
+		int posicoes = Integer.highestOneBit(Math.max(CAPACIDADE_INICIAL, (int) (capacidade / CARGA_MAXIMA)) - 1) << 1;
+		aloca(posicoes);
+	}
+
+	/**
+	 * Adiciona um valor ao conjunto.
+	 *
+	 * @return verdadeiro se o valor ainda não estava no conjunto.
+	 */
+	public boolean adiciona(long valor) {
+		if (valor == 0) {
+			if (contemZero) {
+				return false;
+			}
+			contemZero = true;
+			tamanho++;
+			return true;
+		}
+		int posicao = indice(valor);
+		while (valores[posicao] != 0) {
+			if (valores[posicao] == valor) {
+				return false;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+		valores[posicao] = valor;
+		if (++tamanho > limite) {
+			redimensiona();
+		}
+		return true;
+	}
+
+	public boolean contem(long valor) {
+		if (valor == 0) {
+			return contemZero;
+		}
+		int posicao = indice(valor);
+		long atual;
+		while ((atual = valores[posicao]) != 0) {
+			if (atual == valor) {
+				return true;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+		return false;
+	}
+
+	/**
+	 * Remove um valor do conjunto, reposicionando os valores seguintes da mesma sequência de sondagem
+	 * para que continuem alcançáveis.
+	 *
+	 * @return verdadeiro se o valor estava no conjunto.
+	 */
+	public boolean remove(long valor) {
+		if (valor == 0) {
+			if (!contemZero) {
+				return false;
+			}
+			contemZero = false;
+			tamanho--;
+			return true;
+		}
+		int posicao = indice(valor);
+		while (valores[posicao] != valor) {
+			if (valores[posicao] == 0) {
+				return false;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+
+		int vazia = posicao;
+		int proxima = (vazia + 1) & mascara;
+		long atual;
+		while ((atual = valores[proxima]) != 0) {
+			int ideal = indice(atual);
+			// O valor pode ocupar a posição vazia se ela estiver entre sua posição ideal e a atual (circularmente).
+			if (((proxima - ideal) & mascara) >= ((proxima - vazia) & mascara)) {
+				valores[vazia] = atual;
+				vazia = proxima;
+			}
+			proxima = (proxima + 1) & mascara;
+		}
+		valores[vazia] = 0;
+		tamanho--;
+		return true;
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	public boolean vazio() {
+		return tamanho == 0;
+	}
+
+	public void limpa() {
+		Arrays.fill(valores, 0);
+		contemZero = false;
+		tamanho = 0;
+	}
+
+	private int indice(long valor) {
+		return Espalhamento.espalha(valor) & mascara;
+	}
+
+	private void aloca(int posicoes) {
+		valores = new long[posicoes];
+		mascara = posicoes - 1;
+		limite = (int) (posicoes * CARGA_MAXIMA);
+	}
+
+	private void redimensiona() {
+		Preconditions.verify(valores.length < (1 << 30), "Capacidade máxima do conjunto excedida");
+		long[] antigos = valores;
+		aloca(antigos.length << 1);
+		for (long valor : antigos) {
+			if (valor != 0) {
+				int posicao = indice(valor);
+				while (valores[posicao] != 0) {
+					posicao = (posicao + 1) & mascara;
+				}
+				valores[posicao] = valor;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ConjuntoLong [tamanho=" + tamanho + "]";
+	}
+}
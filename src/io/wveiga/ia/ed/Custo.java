@@ -4,56 +4,85 @@ import io.wveiga.ia.util.Preconditions;
 
 /**
  * Classe que representa o custo de uma ação.
- * 
- * O custo encapsula um double que representa esse valor.
- * 
+ *
+ * O custo encapsula um double primitivo que representa esse valor, e o custo infinito é o próprio
+ * {@link Double#POSITIVE_INFINITY}. Assim as buscas podem acumular e comparar custos como <code>double</code>
+ * (por exemplo em vetores de custos por nó) e usar esta classe apenas nas ações do problema.
+ *
  * Esta classe também disponibiliza três custos estáticos:
  * <ul>
  * 	<li>INFINITO, que é um custo não mensurável, ou impossível.</li>
  *  <li>ZERO, que é uma ação sem custo.</li>
  *  <li>UNIFORME, que é uma ação com custo padrão 1.</li>
  * </ul>
- * 
+ *
  * @author Welington Veiga
  * @since 1
  *
  */
-public class Custo {
+public final class Custo implements Comparable<Custo> {
 	
-	public static Custo INFINITO = new Custo(null);
+	public static final Custo INFINITO = new Custo(Double.POSITIVE_INFINITY);
 	
-	public static Custo ZERO = new Custo(0d);
+	public static final Custo ZERO = new Custo(0d);
 	
-	public static Custo UNIFORME = new Custo(1d);
+	public static final Custo UNIFORME = new Custo(1d);
 	
-	private final Double valor;
+	private final double valor;
 	
-	private Custo(Double valor){
+	private Custo(double valor){
 		this.valor = valor;
 	}
 	
-	public Double toDouble(){
+	/**
+	 * @return o valor do custo, {@link Double#POSITIVE_INFINITY} para o custo infinito.
+	 */
+	public double toDouble(){
 		return valor;
 	}
 	
 	public boolean finito(){
-		return valor!=null;
+		return valor != Double.POSITIVE_INFINITY;
 	}
 	
+	/**
+	 * Soma dos dois custos, infinita se algum deles é infinito.
+	 */
+	public Custo soma(Custo outro) {
+		return de(valor + outro.valor);
+	}
+	
+	/**
+	 * Obtém o custo de um valor, reaproveitando as constantes para zero, um e infinito.
+	 *
+	 * @param valor valor não negativo, {@link Double#POSITIVE_INFINITY} para o custo infinito.
+	 * @return custo do valor.
+	 */
 	public static Custo de(double valor) {
-		Preconditions.nonNull(valor, "Custo não pode ser nulo");
+		Preconditions.verify(!Double.isNaN(valor), "Custo não pode ser NaN");
 		Preconditions.verify(valor >= 0, "Custo não pode ser negativo");
+		if (valor == 0d) {
+			return ZERO;
+		}
+		if (valor == 1d) {
+			return UNIFORME;
+		}
+		if (valor == Double.POSITIVE_INFINITY) {
+			return INFINITO;
+		}
 		return new Custo(valor);
 	}
-
+	
+	@Override
+	public int compareTo(Custo outro) {
+		return Double.compare(valor, outro.valor);
+	}
+	
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result + ((valor == null) ? 0 : valor.hashCode());
-		return result;
+		return Double.hashCode(valor);
 	}
-
+	
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj)
@@ -63,12 +92,7 @@ public class Custo {
 		if (getClass() != obj.getClass())
 			return false;
 		Custo other = (Custo) obj;
-		if (valor == null) {
-			if (other.valor != null)
-				return false;
-		} else if (!valor.equals(other.valor))
-			return false;
-		return true;
+		return Double.compare(valor, other.valor) == 0;
 	}
 	
 	@Override
@@ -0,0 +1,30 @@
+package io.wveiga.ia.ed;
+
+/**
+ * Função de espalhamento compartilhada pelas tabelas de endereçamento aberto com chaves <code>long</code>
+ * ({@link ConjuntoLong} e {@link MapaLongInt}).
+ *
+ * @author Welington Veiga
+ */
+final class Espalhamento {
+
+	private Espalhamento() {
+	}
+
+	/**
+	 * Finalizador do MurmurHash3, espalha os bits da chave para que a máscara de uma tabela com tamanho potência de 2
+	 * não dependa apenas dos bits mais baixos.
+	 *
+	 * @param chave chave a espalhar.
+	 * @return chave espalhada, a ser combinada com a máscara da tabela.
+	 */
+	static int espalha(long chave) {
+		long h = chave;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return (int) h;
+	}
+}
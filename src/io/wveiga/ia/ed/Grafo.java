@@ -1,50 +1,433 @@
 package io.wveiga.ia.ed;
 
-import java.util.Collections;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import io.wveiga.ia.ed.Grafo.GrafoBuilder;
+import io.wveiga.ia.util.Preconditions;
 
+/**
+ * Grafo dirigido e imutável, guardado no formato CSR (compressed sparse row).
+ * 
+ * Cada vértice recebe um identificador <code>int</code> denso, na ordem em que foi adicionado ao {@link GrafoBuilder}.
+ * As ligações que saem do vértice v ocupam as posições de <code>inicio[v]</code> a <code>inicio[v+1]</code> dos vetores
+ * de destinos e pesos, ordenadas pelo identificador do destino. As ligações que chegam a cada vértice são guardadas
+ * da mesma forma, em vetores próprios.
+ * 
+ * Além dos métodos por vértice, que criam objetos {@link Ligacao}, o grafo pode ser percorrido pelos identificadores
+ * sem nenhuma alocação:
+ * <pre>
+ * int v = grafo.indice(vertice);
+ * for (int l = grafo.inicioAdjacentes(v); l &lt; grafo.fimAdjacentes(v); l++) {
+ *     visita(grafo.destino(l), grafo.peso(l));
+ * }
+ * </pre>
+ * 
+ * Grafos grandes podem ser lidos de arquivos texto por {@link LeitorGrafo}, gravados em um formato binário por
+ * {@link #grava(Path)} e carregados de volta por mapeamento em memória em {@link #carrega(Path, Vertices)}, sem
+ * nenhuma conversão: os vetores do grafo são o próprio arquivo.
+ * 
+ * @author Welington Veiga
+ *
+ * @param <T> tipo dos vértices.
+ */
 public class Grafo<T> {
+	
+	/**
+	 * Identificador de um vértice que não pertence ao grafo.
+	 */
+	public static final int AUSENTE = -1;
+	
+	private static final int MAGICO = 0x4752464F; // "GRFO"
+	private static final int VERSAO = 1;
+	private static final int CABECALHO = 24;
 
-	private final Map<T, Map<T, Custo>> adjacencias;
+	private final Vertices<T> vertices;
+	
+	private final IntBuffer inicio;
+	private final IntBuffer destinos;
+	private final DoubleBuffer pesos;
+	
+	private final IntBuffer inicioAntecessores;
+	private final IntBuffer origens;
+	private final DoubleBuffer pesosAntecessores;
+	
+	private final long assinatura;
 	
-	private Grafo (Map<T, Map<T, Custo>> adjacencias){
-		this.adjacencias = adjacencias;
+	private Grafo(Vertices<T> vertices, IntBuffer inicio, IntBuffer destinos, DoubleBuffer pesos,
+			IntBuffer inicioAntecessores, IntBuffer origens, DoubleBuffer pesosAntecessores, long assinatura) {
+		this.vertices = vertices;
+		this.inicio = inicio;
+		this.destinos = destinos;
+		this.pesos = pesos;
+		this.inicioAntecessores = inicioAntecessores;
+		this.origens = origens;
+		this.pesosAntecessores = pesosAntecessores;
+		this.assinatura = assinatura;
 	}
 	
-	public Optional<Custo> getCustoLigacaoEntre(T origem, T destino) {
-		Optional<Custo> custo = Optional.empty();
+	/**
+	 * Monta o grafo a partir de uma lista de ligações, em tempo linear e sem objetos por ligação.
+	 * 
+	 * As ligações são ordenadas por origem e destino com duas ordenações por contagem. Ligações repetidas entre
+	 * os mesmos vértices são reduzidas à de menor peso.
+	 * 
+	 * @param vertices vértices do grafo.
+	 * @param quantidade número de ligações, as primeiras posições dos vetores.
+	 * @param origens identificador da origem de cada ligação.
+	 * @param destinos identificador do destino de cada ligação.
+	 * @param pesos peso de cada ligação, não negativo; {@link Double#POSITIVE_INFINITY} para ligações de custo infinito.
+	 * @return grafo com as ligações.
+	 */
+	static <T> Grafo<T> deLigacoes(Vertices<T> vertices, int quantidade, int[] origens, int[] destinos, double[] pesos) {
+		int n = vertices.tamanho();
+		for (int l = 0; l < quantidade; l++) {
+			Preconditions.verify(origens[l] >= 0 && origens[l] < n && destinos[l] >= 0 && destinos[l] < n,
+					"Ligação com vértice inexistente");
+			Preconditions.verify(pesos[l] >= 0, "Custo não pode ser negativo");
+		}
+		
+		// 1. Ordena por destino e, de forma estável, por origem: as ligações de cada origem ficam ordenadas por destino.
+		int[] porDestino = ordenaPorContagem(null, destinos, quantidade, n);
+		int[] ordem = ordenaPorContagem(porDestino, origens, quantidade, n);
 		
-		Map<T, Custo> adjacentes = adjacencias.get(origem);
-		if (adjacentes.containsKey(destino)){
-			custo = Optional.of(adjacentes.get(destino));
+		// 2. Ligações de saída, descartando as repetidas de maior peso.
+		int[] inicio = new int[n + 1];
+		int[] saida = new int[quantidade];
+		double[] pesosSaida = new double[quantidade];
+		int m = 0;
+		int anterior = -1;
+		for (int i = 0; i < quantidade; i++) {
+			int l = ordem[i];
+			if (anterior >= 0 && origens[l] == origens[anterior] && destinos[l] == destinos[anterior]) {
+				pesosSaida[m - 1] = Math.min(pesosSaida[m - 1], pesos[l]);
+				continue;
+			}
+			inicio[origens[l] + 1]++;
+			saida[m] = destinos[l];
+			pesosSaida[m] = pesos[l];
+			m++;
+			anterior = l;
+		}
+		for (int v = 0; v < n; v++) {
+			inicio[v + 1] += inicio[v];
 		}
 		
-		return custo;
+		// 3. Ligações de entrada, distribuídas pela contagem de graus; como as origens são percorridas em ordem,
+		// cada vértice fica com seus antecessores ordenados.
+		int[] inicioAntecessores = new int[n + 1];
+		for (int l = 0; l < m; l++) {
+			inicioAntecessores[saida[l] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			inicioAntecessores[v + 1] += inicioAntecessores[v];
+		}
+		int[] entrada = new int[m];
+		double[] pesosEntrada = new double[m];
+		int[] proximo = new int[n];
+		System.arraycopy(inicioAntecessores, 0, proximo, 0, n);
+		for (int v = 0; v < n; v++) {
+			for (int a = inicio[v]; a < inicio[v + 1]; a++) {
+				int posicao = proximo[saida[a]]++;
+				entrada[posicao] = v;
+				pesosEntrada[posicao] = pesosSaida[a];
+			}
+		}
+		
+		IntBuffer destinosBuffer = IntBuffer.wrap(saida, 0, m).slice();
+		DoubleBuffer pesosBuffer = DoubleBuffer.wrap(pesosSaida, 0, m).slice();
+		IntBuffer inicioBuffer = IntBuffer.wrap(inicio);
+		return new Grafo<>(vertices, inicioBuffer, destinosBuffer, pesosBuffer, IntBuffer.wrap(inicioAntecessores),
+				IntBuffer.wrap(entrada), DoubleBuffer.wrap(pesosEntrada), calculaAssinatura(n, inicioBuffer, destinosBuffer, pesosBuffer));
+	}
+	
+	/**
+	 * Ordenação estável por contagem das posições de <code>ordem</code> (ou de 0 a quantidade - 1, se nula)
+	 * pela chave de cada posição.
+	 */
+	private static int[] ordenaPorContagem(int[] ordem, int[] chaves, int quantidade, int n) {
+		int[] contagem = new int[n + 1];
+		for (int l = 0; l < quantidade; l++) {
+			contagem[chaves[l] + 1]++;
+		}
+		for (int v = 0; v < n; v++) {
+			contagem[v + 1] += contagem[v];
+		}
+		int[] ordenada = new int[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			int l = ordem == null ? i : ordem[i];
+			ordenada[contagem[chaves[l]]++] = l;
+		}
+		return ordenada;
+	}
+	
+	/**
+	 * Carrega, por mapeamento em memória, um grafo gravado por {@link #grava(Path)}. Os vetores do grafo são
+	 * as próprias páginas do arquivo, então o carregamento não depende do tamanho do grafo.
+	 * 
+	 * O arquivo guarda apenas a estrutura do grafo; os vértices são informados na carga, na mesma numeração
+	 * do grafo gravado, por exemplo {@link Vertices#numerados(int, java.util.function.IntFunction, java.util.function.ToIntFunction)}.
+	 * 
+	 * @param arquivo arquivo do grafo.
+	 * @param vertices vértices do grafo.
+	 * @return grafo somente leitura.
+	 * @throws IOException se o arquivo não puder ser lido.
+	 */
+	public static <T> Grafo<T> carrega(Path arquivo, Vertices<T> vertices) throws IOException {
+		Preconditions.nonNull(arquivo, vertices);
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			ByteBuffer cabecalho = canal.map(FileChannel.MapMode.READ_ONLY, 0, CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+			Preconditions.verify(cabecalho.getInt() == MAGICO, "Arquivo não é um grafo: " + arquivo);
+			Preconditions.verify(cabecalho.getInt() == VERSAO, "Versão de grafo não suportada: " + arquivo);
+			int n = cabecalho.getInt();
+			int m = cabecalho.getInt();
+			long assinatura = cabecalho.getLong();
+			Preconditions.verify(n == vertices.tamanho(), "Número de vértices difere do grafo gravado: " + arquivo);
+			
+			long[] posicao = {CABECALHO};
+			IntBuffer inicio = mapeia(canal, posicao, n + 1, Integer.BYTES).asIntBuffer();
+			IntBuffer destinos = mapeia(canal, posicao, m, Integer.BYTES).asIntBuffer();
+			DoubleBuffer pesos = mapeia(canal, posicao, m, Double.BYTES).asDoubleBuffer();
+			IntBuffer inicioAntecessores = mapeia(canal, posicao, n + 1, Integer.BYTES).asIntBuffer();
+			IntBuffer origens = mapeia(canal, posicao, m, Integer.BYTES).asIntBuffer();
+			DoubleBuffer pesosAntecessores = mapeia(canal, posicao, m, Double.BYTES).asDoubleBuffer();
+			Preconditions.verify(posicao[0] == canal.size(), "Grafo incompleto: " + arquivo);
+			return new Grafo<>(vertices, inicio, destinos, pesos, inicioAntecessores, origens, pesosAntecessores, assinatura);
+		}
+	}
+	
+	/**
+	 * Mapeia uma seção do arquivo, alinhada a 8 bytes, avançando a posição.
+	 */
+	private static ByteBuffer mapeia(FileChannel canal, long[] posicao, int quantidade, int bytes) throws IOException {
+		long inicio = alinha(posicao[0]);
+		long tamanho = (long) quantidade * bytes;
+		Preconditions.verify(inicio + tamanho <= canal.size(), "Grafo incompleto");
+		posicao[0] = inicio + tamanho;
+		return canal.map(FileChannel.MapMode.READ_ONLY, inicio, tamanho).order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	private static long alinha(long posicao) {
+		return (posicao + Double.BYTES - 1) & -Double.BYTES;
+	}
+	
+	/**
+	 * Grava a estrutura do grafo em um arquivo binário <i>little-endian</i>: cabeçalho (mágico, versão, vértices,
+	 * ligações e assinatura) seguido, cada um alinhado a 8 bytes, dos vetores de ligações de saída e de entrada.
+	 * 
+	 * @param arquivo arquivo de destino.
+	 * @throws IOException se o arquivo não puder ser escrito.
+	 */
+	public void grava(Path arquivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer bloco = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+			bloco.putInt(MAGICO).putInt(VERSAO).putInt(getNumeroVertices()).putInt(getNumeroLigacoes()).putLong(assinatura);
+			for (Object vetor : new Object[] {inicio, destinos, pesos, inicioAntecessores, origens, pesosAntecessores}) {
+				while (canal.position() + bloco.position() != alinha(canal.position() + bloco.position())) {
+					bloco.put((byte) 0);
+				}
+				if (vetor instanceof IntBuffer) {
+					IntBuffer inteiros = (IntBuffer) vetor;
+					for (int i = 0; i < inteiros.limit(); i++) {
+						if (bloco.remaining() < Integer.BYTES) {
+							descarrega(canal, bloco);
+						}
+						bloco.putInt(inteiros.get(i));
+					}
+				} else {
+					DoubleBuffer reais = (DoubleBuffer) vetor;
+					for (int i = 0; i < reais.limit(); i++) {
+						if (bloco.remaining() < Double.BYTES) {
+							descarrega(canal, bloco);
+						}
+						bloco.putDouble(reais.get(i));
+					}
+				}
+			}
+			descarrega(canal, bloco);
+		}
+	}
+	
+	private static void descarrega(FileChannel canal, ByteBuffer bloco) throws IOException {
+		bloco.flip();
+		while (bloco.hasRemaining()) {
+			canal.write(bloco);
+		}
+		bloco.clear();
+	}
+	
+	public Optional<Custo> getCustoLigacaoEntre(T origem, T destino) {
+		int o = indice(origem);
+		int d = indice(destino);
+		if (o == AUSENTE || d == AUSENTE) {
+			return Optional.empty();
+		}
+		int l = ligacao(o, d);
+		return l == AUSENTE ? Optional.empty() : Optional.of(Custo.de(peso(l)));
 	}
 	
 	public Set<Ligacao<T>> getAdjacentes(T vertice) {
 		Set<Ligacao<T>> ligacoes = new HashSet<>();
-		
-		for (Map.Entry<T, Custo> adjacentes : adjacencias.getOrDefault(vertice, Collections.emptyMap()).entrySet()) {
-			ligacoes.add(new Ligacao<>(adjacentes.getKey(), adjacentes.getValue()));
+		int v = indice(vertice);
+		if (v != AUSENTE) {
+			for (int l = inicioAdjacentes(v); l < fimAdjacentes(v); l++) {
+				ligacoes.add(new Ligacao<>(vertice(destino(l)), Custo.de(peso(l))));
+			}
+		}
+		return ligacoes;
+	}
+	
+	/**
+	 * Ligações que chegam a um vértice, o destino de cada ligação retornada é a origem da ligação original.
+	 * 
+	 * @param vertice vértice de destino das ligações.
+	 * @return ligações invertidas que chegam ao vértice.
+	 */
+	public Set<Ligacao<T>> getAntecessores(T vertice) {
+		Set<Ligacao<T>> ligacoes = new HashSet<>();
+		int v = indice(vertice);
+		if (v != AUSENTE) {
+			for (int l = inicioAntecessores(v); l < fimAntecessores(v); l++) {
+				ligacoes.add(new Ligacao<>(vertice(origem(l)), Custo.de(pesoAntecessor(l))));
+			}
 		}
-				
 		return ligacoes;
 	}
 	
+	public int getNumeroVertices() {
+		return vertices.tamanho();
+	}
+	
+	public int getNumeroLigacoes() {
+		return destinos.limit();
+	}
+	
+	/**
+	 * @param vertice vértice do grafo.
+	 * @return identificador do vértice, ou {@link #AUSENTE} se ele não pertence ao grafo.
+	 */
+	public int indice(T vertice) {
+		return vertices.indice(vertice);
+	}
+	
+	public T vertice(int indice) {
+		return vertices.vertice(indice);
+	}
+	
+	/**
+	 * Primeira ligação que sai do vértice.
+	 */
+	public int inicioAdjacentes(int vertice) {
+		return inicio.get(vertice);
+	}
+	
+	/**
+	 * Posição seguinte à última ligação que sai do vértice.
+	 */
+	public int fimAdjacentes(int vertice) {
+		return inicio.get(vertice + 1);
+	}
+	
+	public int destino(int ligacao) {
+		return destinos.get(ligacao);
+	}
+	
+	public double peso(int ligacao) {
+		return pesos.get(ligacao);
+	}
+	
+	/**
+	 * Primeira ligação que chega ao vértice, na numeração das ligações de entrada.
+	 */
+	public int inicioAntecessores(int vertice) {
+		return inicioAntecessores.get(vertice);
+	}
+	
+	/**
+	 * Posição seguinte à última ligação que chega ao vértice, na numeração das ligações de entrada.
+	 */
+	public int fimAntecessores(int vertice) {
+		return inicioAntecessores.get(vertice + 1);
+	}
+	
+	public int origem(int ligacaoEntrada) {
+		return origens.get(ligacaoEntrada);
+	}
+	
+	public double pesoAntecessor(int ligacaoEntrada) {
+		return pesosAntecessores.get(ligacaoEntrada);
+	}
+	
+	/**
+	 * Resumo de 64 bits da estrutura do grafo: número de vértices, ligações e pesos, na numeração dos identificadores.
+	 * Dados pré-processados a partir do grafo e gravados em arquivo podem guardar a assinatura para verificar, ao
+	 * serem carregados, que correspondem ao mesmo grafo. Os próprios vértices não fazem parte da assinatura.
+	 * 
+	 * @return assinatura do grafo.
+	 */
+	public long getAssinatura() {
+		return assinatura;
+	}
+	
+	private static long calculaAssinatura(int n, IntBuffer inicio, IntBuffer destinos, DoubleBuffer pesos) {
+		long h = 0x9E3779B97F4A7C15L ^ n;
+		for (int v = 0; v < n; v++) {
+			h = mistura(h, inicio.get(v + 1));
+		}
+		for (int l = 0; l < destinos.limit(); l++) {
+			h = mistura(h, destinos.get(l));
+			h = mistura(h, Double.doubleToLongBits(pesos.get(l)));
+		}
+		return h;
+	}
+	
+	private static long mistura(long h, long valor) {
+		h = (h ^ valor) * 0xFF51AFD7ED558CCDL;
+		return h ^ (h >>> 32);
+	}
+	
+	/**
+	 * Busca binária entre os destinos ordenados da origem.
+	 * 
+	 * @return a ligação de origem a destino, ou {@link #AUSENTE} se ela não existe.
+	 */
+	public int ligacao(int origem, int destino) {
+		int baixo = inicioAdjacentes(origem);
+		int alto = fimAdjacentes(origem) - 1;
+		while (baixo <= alto) {
+			int meio = (baixo + alto) >>> 1;
+			int d = destinos.get(meio);
+			if (d < destino) {
+				baixo = meio + 1;
+			} else if (d > destino) {
+				alto = meio - 1;
+			} else {
+				return meio;
+			}
+		}
+		return AUSENTE;
+	}
+	
 	public static <T> GrafoBuilder<T> builder(){
 		return new GrafoBuilder<>();
 	}
 	
 	public static class GrafoBuilder<T>{
 		
-		private final Map<T, Map<T, Custo>> adjacencias = new HashMap<>();
+		private final Map<T, Map<T, Custo>> adjacencias = new LinkedHashMap<>();
 		
 		private GrafoBuilder(){}
 		
@@ -67,7 +450,25 @@ public class Grafo<T> {
 		}
 		
 		public Grafo<T> build(){
-			return new Grafo<>(adjacencias);
+			Vertices<T> vertices = Vertices.mapeados(adjacencias.keySet());
+			int quantidade = 0;
+			for (Map<T, Custo> destinos : adjacencias.values()) {
+				quantidade += destinos.size();
+			}
+			int[] origens = new int[quantidade];
+			int[] destinos = new int[quantidade];
+			double[] pesos = new double[quantidade];
+			int l = 0;
+			for (Map.Entry<T, Map<T, Custo>> origem : adjacencias.entrySet()) {
+				int o = vertices.indice(origem.getKey());
+				for (Map.Entry<T, Custo> destino : origem.getValue().entrySet()) {
+					origens[l] = o;
+					destinos[l] = vertices.indice(destino.getKey());
+					pesos[l] = destino.getValue().toDouble();
+					l++;
+				}
+			}
+			return deLigacoes(vertices, quantidade, origens, destinos, pesos);
 		}
 		
 	}
@@ -0,0 +1,188 @@
+package io.wveiga.ia.ed;
+
+import java.util.Arrays;
+
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Heap binária de mínimo sobre identificadores inteiros densos, a partir de 0, com diminuição de chave.
+ *
+ * A posição de cada identificador na heap é guardada em um vetor, de forma que diminuir a chave de um elemento
+ * já inserido custa O(log n) e não gera entradas obsoletas. Os vetores crescem conforme identificadores maiores são
+ * inseridos, e nenhum objeto é alocado além disso.
+ *
+ * Cada elemento tem, além da chave, um desempate opcional: entre chaves iguais sai primeiro o de menor desempate.
+ *
+ * @author Welington Veiga
+ */
+public class HeapIndexado {
+
+	private static final int FORA = -1;
+
+	private static final int CAPACIDADE_INICIAL = 64;
+
+	private int[] heap;
+	private int[] posicoes;
+	private double[] chaves;
+	private double[] desempates;
+	private int tamanho;
+
+	public HeapIndexado() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	public HeapIndexado(int capacidade) {
+		Preconditions.verify(capacidade >= 0, "Capacidade não pode ser negativa");
+		this.heap = new int[capacidade];
+		this.posicoes = new int[capacidade];
+		this.chaves = new double[capacidade];
+		this.desempates = new double[capacidade];
+		Arrays.fill(posicoes, FORA);
+	}
+
+	/**
+	 * Insere o identificador, ou diminui sua chave se ele já está na heap com uma chave maior.
+	 *
+	 * @param id identificador do elemento.
+	 * @param chave prioridade do elemento, menores saem primeiro.
+	 * @return verdadeiro se o elemento foi inserido ou teve a chave diminuída.
+	 */
+	public boolean insereOuDiminui(int id, double chave) {
+		return insereOuDiminui(id, chave, 0d);
+	}
+
+	/**
+	 * Insere o identificador, ou diminui sua prioridade se ele já está na heap com uma prioridade maior.
+	 *
+	 * @param id identificador do elemento.
+	 * @param chave prioridade do elemento, menores saem primeiro.
+	 * @param desempate prioridade entre elementos de mesma chave, menores saem primeiro.
+	 * @return verdadeiro se o elemento foi inserido ou teve a prioridade diminuída.
+	 */
+	public boolean insereOuDiminui(int id, double chave, double desempate) {
+		Preconditions.verify(id >= 0, "Identificador não pode ser negativo");
+		if (id >= posicoes.length) {
+			cresce(id);
+		}
+		int posicao = posicoes[id];
+		if (posicao == FORA) {
+			posicao = tamanho++;
+		} else if (chave > chaves[id] || (chave == chaves[id] && desempate >= desempates[id])) {
+			return false;
+		}
+		chaves[id] = chave;
+		desempates[id] = desempate;
+		sobe(id, posicao);
+		return true;
+	}
+
+	/**
+	 * Retira o identificador de menor chave.
+	 */
+	public int retira() {
+		if (vazio()) {
+			throw new IllegalStateException("Heap vazia");
+		}
+		int minimo = heap[0];
+		posicoes[minimo] = FORA;
+		int ultimo = heap[--tamanho];
+		if (tamanho > 0) {
+			desce(ultimo, 0);
+		}
+		return minimo;
+	}
+
+	public int minimo() {
+		if (vazio()) {
+			throw new IllegalStateException("Heap vazia");
+		}
+		return heap[0];
+	}
+
+	public double chave(int id) {
+		return chaves[id];
+	}
+
+	public boolean contem(int id) {
+		return id < posicoes.length && posicoes[id] != FORA;
+	}
+
+	public boolean vazio() {
+		return tamanho == 0;
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Copia os identificadores presentes na heap, em ordem arbitrária, sem alterá-la.
+	 *
+	 * @return identificadores dos elementos.
+	 */
+	public int[] elementos() {
+		return Arrays.copyOf(heap, tamanho);
+	}
+
+	/**
+	 * Remove todos os elementos, em tempo proporcional ao número de elementos presentes.
+	 */
+	public void limpa() {
+		for (int i = 0; i < tamanho; i++) {
+			posicoes[heap[i]] = FORA;
+		}
+		tamanho = 0;
+	}
+
+	private void sobe(int id, int posicao) {
+		while (posicao > 0) {
+			int pai = (posicao - 1) >>> 1;
+			if (!menor(id, heap[pai])) {
+				break;
+			}
+			coloca(heap[pai], posicao);
+			posicao = pai;
+		}
+		coloca(id, posicao);
+	}
+
+	private void desce(int id, int posicao) {
+		int metade = tamanho >>> 1;
+		while (posicao < metade) {
+			int filho = 2 * posicao + 1;
+			if (filho + 1 < tamanho && menor(heap[filho + 1], heap[filho])) {
+				filho++;
+			}
+			if (!menor(heap[filho], id)) {
+				break;
+			}
+			coloca(heap[filho], posicao);
+			posicao = filho;
+		}
+		coloca(id, posicao);
+	}
+
+	private boolean menor(int um, int outro) {
+		return chaves[um] < chaves[outro] || (chaves[um] == chaves[outro] && desempates[um] < desempates[outro]);
+	}
+
+	private void cresce(int id) {
+		int capacidade = (int) Math.min(Integer.MAX_VALUE - 8L, Math.max(id + 1L, posicoes.length + (posicoes.length >> 1) + 1L));
+		int anterior = posicoes.length;
+		heap = Arrays.copyOf(heap, capacidade);
+		posicoes = Arrays.copyOf(posicoes, capacidade);
+		chaves = Arrays.copyOf(chaves, capacidade);
+		desempates = Arrays.copyOf(desempates, capacidade);
+		Arrays.fill(posicoes, anterior, capacidade, FORA);
+	}
+
+	private void coloca(int id, int posicao) {
+		heap[posicao] = id;
+		posicoes[id] = posicao;
+	}
+
+	@Override
+	public String toString() {
+		return "HeapIndexado [tamanho=" + tamanho + "]";
+	}
+}
@@ -0,0 +1,245 @@
+package io.wveiga.ia.ed;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Leitura de grafos a partir de formatos texto, em uma única passagem pelo arquivo.
+ *
+ * As ligações são acumuladas em vetores primitivos e o grafo é montado diretamente no formato CSR, sem as
+ * tabelas por vértice do {@link Grafo.GrafoBuilder}. Ligações repetidas são reduzidas à de menor peso.
+ *
+ * @author Welington Veiga
+ */
+public final class LeitorGrafo {
+
+	private static final int BLOCO = 1 << 16;
+
+	private LeitorGrafo() {}
+
+	/**
+	 * Lê um grafo no formato DIMACS do 9º desafio de caminhos mais curtos (<code>.gr</code>):
+	 * <ul>
+	 * 	<li><code>c comentário</code></li>
+	 * 	<li><code>p sp vértices ligações</code>, antes de qualquer ligação;</li>
+	 * 	<li><code>a origem destino peso</code>, com vértices numerados a partir de 1 e peso inteiro.</li>
+	 * </ul>
+	 * O arquivo é lido byte a byte, sem criar objetos por linha.
+	 *
+	 * @param arquivo arquivo DIMACS.
+	 * @param vertices cria os vértices a partir do número de vértices do arquivo; o identificador de cada vértice
+	 * é seu número no arquivo menos um.
+	 * @return grafo lido.
+	 * @throws IOException se o arquivo não puder ser lido.
+	 */
+	public static <T> Grafo<T> dimacs(Path arquivo, IntFunction<Vertices<T>> vertices) throws IOException {
+		Preconditions.nonNull(arquivo, vertices);
+		try (InputStream entrada = Files.newInputStream(arquivo)) {
+			Bytes leitor = new Bytes(entrada);
+			Ligacoes ligacoes = null;
+			int n = -1;
+			int tipo;
+			while ((tipo = leitor.proximoNaoBranco()) != -1) {
+				if (tipo == 'p') {
+					Preconditions.verify(n < 0, "Linha p repetida: " + arquivo);
+					leitor.palavra();
+					n = leitor.inteiro();
+					ligacoes = new Ligacoes(leitor.inteiro());
+				} else if (tipo == 'a') {
+					Preconditions.verify(ligacoes != null, "Ligação antes da linha p: " + arquivo);
+					int origem = leitor.inteiro() - 1;
+					int destino = leitor.inteiro() - 1;
+					ligacoes.adiciona(origem, destino, leitor.inteiro());
+				} else if (tipo != 'c') {
+					throw new IllegalArgumentException("Linha DIMACS desconhecida '" + (char) tipo + "': " + arquivo);
+				}
+				leitor.fimDaLinha();
+			}
+			Preconditions.verify(ligacoes != null, "Arquivo sem linha p: " + arquivo);
+			return Grafo.deLigacoes(vertices.apply(n), ligacoes.tamanho, ligacoes.origens, ligacoes.destinos, ligacoes.pesos);
+		}
+	}
+
+	/**
+	 * Lê um grafo de uma lista de ligações separada por vírgulas, uma ligação por linha: <code>origem,destino,peso</code>.
+	 * Uma primeira linha cujo peso não é numérico é tratada como cabeçalho, e linhas vazias são ignoradas.
+	 * Os vértices recebem identificadores na ordem em que aparecem pela primeira vez.
+	 *
+	 * @param arquivo arquivo CSV, em UTF-8.
+	 * @param vertice cria o vértice a partir do nome usado no arquivo.
+	 * @return grafo lido.
+	 * @throws IOException se o arquivo não puder ser lido.
+	 */
+	public static <T> Grafo<T> csv(Path arquivo, Function<String, T> vertice) throws IOException {
+		Preconditions.nonNull(arquivo, vertice);
+		Map<String, Integer> indices = new HashMap<>();
+		List<T> vertices = new ArrayList<>();
+		Ligacoes ligacoes = new Ligacoes(BLOCO);
+		try (BufferedReader leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+			String linha;
+			int numero = 0;
+			while ((linha = leitor.readLine()) != null) {
+				numero++;
+				if (linha.trim().isEmpty()) {
+					continue;
+				}
+				int primeira = linha.indexOf(',');
+				int segunda = primeira < 0 ? -1 : linha.indexOf(',', primeira + 1);
+				Preconditions.verify(segunda > 0, "Linha " + numero + " não possui três campos: " + arquivo);
+				double peso;
+				try {
+					peso = Double.parseDouble(linha.substring(segunda + 1).trim());
+				} catch (NumberFormatException e) {
+					if (numero == 1) {
+						continue;
+					}
+					throw new IllegalArgumentException("Peso inválido na linha " + numero + ": " + arquivo, e);
+				}
+				int origem = indice(linha.substring(0, primeira).trim(), indices, vertices, vertice);
+				int destino = indice(linha.substring(primeira + 1, segunda).trim(), indices, vertices, vertice);
+				ligacoes.adiciona(origem, destino, peso);
+			}
+		}
+		return Grafo.deLigacoes(Vertices.mapeados(vertices), ligacoes.tamanho, ligacoes.origens, ligacoes.destinos, ligacoes.pesos);
+	}
+
+	private static <T> int indice(String nome, Map<String, Integer> indices, List<T> vertices, Function<String, T> vertice) {
+		Integer indice = indices.get(nome);
+		if (indice == null) {
+			indice = vertices.size();
+			indices.put(nome, indice);
+			vertices.add(vertice.apply(nome));
+		}
+		return indice;
+	}
+
+	/**
+	 * Vetores crescentes com as ligações lidas.
+	 */
+	private static final class Ligacoes {
+
+		private int[] origens;
+		private int[] destinos;
+		private double[] pesos;
+		private int tamanho;
+
+		private Ligacoes(int capacidade) {
+			Preconditions.verify(capacidade >= 0, "Número de ligações não pode ser negativo");
+			this.origens = new int[capacidade];
+			this.destinos = new int[capacidade];
+			this.pesos = new double[capacidade];
+		}
+
+		void adiciona(int origem, int destino, double peso) {
+			if (tamanho == origens.length) {
+				int capacidade = (int) Math.min(Integer.MAX_VALUE - 8L, tamanho + (tamanho >> 1) + 1L);
+				origens = Arrays.copyOf(origens, capacidade);
+				destinos = Arrays.copyOf(destinos, capacidade);
+				pesos = Arrays.copyOf(pesos, capacidade);
+			}
+			origens[tamanho] = origem;
+			destinos[tamanho] = destino;
+			pesos[tamanho] = peso;
+			tamanho++;
+		}
+	}
+
+	/**
+	 * Leitura de palavras e inteiros ASCII a partir de um bloco de bytes.
+	 */
+	private static final class Bytes {
+
+		private final InputStream entrada;
+		private final byte[] bloco = new byte[BLOCO];
+		private int posicao;
+		private int limite;
+
+		private Bytes(InputStream entrada) {
+			this.entrada = entrada;
+		}
+
+		private int le() throws IOException {
+			if (posicao == limite) {
+				limite = entrada.read(bloco, 0, bloco.length);
+				posicao = 0;
+				if (limite <= 0) {
+					limite = 0;
+					return -1;
+				}
+			}
+			// Sem a máscara, o byte 0xFF seria estendido para -1 e confundido com o fim do arquivo.
+			return bloco[posicao++] & 0xFF;
+		}
+
+		/**
+		 * Primeiro caractere que não é espaço nem quebra de linha, -1 no fim do arquivo.
+		 */
+		int proximoNaoBranco() throws IOException {
+			int c;
+			do {
+				c = le();
+			} while (c == ' ' || c == '\t' || c == '\r' || c == '\n');
+			return c;
+		}
+
+		/**
+		 * Descarta o restante da linha atual.
+		 */
+		void fimDaLinha() throws IOException {
+			int c;
+			do {
+				c = le();
+			} while (c != '\n' && c != -1);
+		}
+
+		void palavra() throws IOException {
+			int c = pulaEspacos();
+			while (c != ' ' && c != '\t' && c != '\r' && c != '\n' && c != -1) {
+				c = le();
+			}
+			if (c != -1) {
+				posicao--;
+			}
+		}
+
+		int inteiro() throws IOException {
+			int c = pulaEspacos();
+			boolean negativo = c == '-';
+			if (negativo) {
+				c = le();
+			}
+			Preconditions.verify(c >= '0' && c <= '9', "Número esperado no arquivo DIMACS");
+			long valor = 0;
+			while (c >= '0' && c <= '9') {
+				valor = valor * 10 + (c - '0');
+				Preconditions.verify(valor <= Integer.MAX_VALUE, "Número grande demais no arquivo DIMACS");
+				c = le();
+			}
+			if (c != -1) {
+				posicao--;
+			}
+			return (int) (negativo ? -valor : valor);
+		}
+
+		private int pulaEspacos() throws IOException {
+			int c;
+			do {
+				c = le();
+			} while (c == ' ' || c == '\t');
+			return c;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package io.wveiga.ia.ed;
+
+import java.util.Arrays;
+
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Mapa de chaves <code>long</code> para valores <code>int</code> não negativos, com endereçamento aberto.
+ *
+ * Segue a organização de {@link ConjuntoLong}: as chaves ficam em um vetor <code>long[]</code> de tamanho potência de
+ * dois com sondagem linear, e os valores em um vetor <code>int[]</code> paralelo. Não há objetos por elemento nem
+ * boxing, ao contrário de um <code>HashMap&lt;Long, Integer&gt;</code>.
+ *
+ * A chave 0 marca posições vazias do vetor e por isso seu valor é guardado à parte.
+ *
+ * @author Welington Veiga
+ */
+public class MapaLongInt {
+
+	/**
+	 * Valor retornado para chaves que não estão no mapa.
+	 */
+	public static final int AUSENTE = -1;
+
+	private static final int CAPACIDADE_INICIAL = 16;
+	private static final double CARGA_MAXIMA = 0.6;
+
+	private long[] chaves;
+	private int[] valores;
+	private int mascara;
+	private int tamanho;
+	private int limite;
+	private int valorZero = AUSENTE;
+
+	public MapaLongInt() {
+		this(CAPACIDADE_INICIAL);
+	}
+
+	/**
+	 * @param capacidade número de elementos esperado, evita redimensionamentos.
+	 */
+	public MapaLongInt(int capacidade) {
+		Preconditions.verify(capacidade >= 0, "Capacidade não pode ser negativa");
+		int posicoes = Integer.highestOneBit(Math.max(CAPACIDADE_INICIAL, (int) (capacidade / CARGA_MAXIMA)) - 1) << 1;
+		aloca(posicoes);
+	}
+
+	/**
+	 * @return valor associado à chave, ou {@link #AUSENTE}.
+	 */
+	public int obtem(long chave) {
+		if (chave == 0) {
+			return valorZero;
+		}
+		int posicao = indice(chave);
+		long atual;
+		while ((atual = chaves[posicao]) != 0) {
+			if (atual == chave) {
+				return valores[posicao];
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+		return AUSENTE;
+	}
+
+	/**
+	 * Associa o valor à chave, substituindo o valor anterior.
+	 *
+	 * @param valor valor não negativo.
+	 */
+	public void associa(long chave, int valor) {
+		Preconditions.verify(valor >= 0, "Valor não pode ser negativo");
+		if (chave == 0) {
+			if (valorZero == AUSENTE) {
+				tamanho++;
+			}
+			valorZero = valor;
+			return;
+		}
+		int posicao = indice(chave);
+		long atual;
+		while ((atual = chaves[posicao]) != 0) {
+			if (atual == chave) {
+				valores[posicao] = valor;
+				return;
+			}
+			posicao = (posicao + 1) & mascara;
+		}
+		chaves[posicao] = chave;
+		valores[posicao] = valor;
+		if (++tamanho > limite) {
+			redimensiona();
+		}
+	}
+
+	public int tamanho() {
+		return tamanho;
+	}
+
+	public boolean vazio() {
+		return tamanho == 0;
+	}
+
+	public void limpa() {
+		Arrays.fill(chaves, 0);
+		valorZero = AUSENTE;
+		tamanho = 0;
+	}
+
+	private int indice(long chave) {
+		return Espalhamento.espalha(chave) & mascara;
+	}
+
+	private void aloca(int posicoes) {
+		chaves = new long[posicoes];
+		valores = new int[posicoes];
+		mascara = posicoes - 1;
+		limite = (int) (posicoes * CARGA_MAXIMA);
+	}
+
+	private void redimensiona() {
+		Preconditions.verify(chaves.length < (1 << 30), "Capacidade máxima do mapa excedida");
+		long[] antigasChaves = chaves;
+		int[] antigosValores = valores;
+		aloca(antigasChaves.length << 1);
+		for (int i = 0; i < antigasChaves.length; i++) {
+			long chave = antigasChaves[i];
+			if (chave != 0) {
+				int posicao = indice(chave);
+				while (chaves[posicao] != 0) {
+					posicao = (posicao + 1) & mascara;
+				}
+				chaves[posicao] = chave;
+				valores[posicao] = antigosValores[i];
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MapaLongInt [tamanho=" + tamanho + "]";
+	}
+}
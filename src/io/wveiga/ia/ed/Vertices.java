@@ -0,0 +1,94 @@
+package io.wveiga.ia.ed;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Correspondência entre os vértices de um {@link Grafo} e seus identificadores densos, de 0 a tamanho - 1.
+ *
+ * @author Welington Veiga
+ *
+ * @param <T> tipo dos vértices.
+ */
+public interface Vertices<T> {
+
+	/**
+	 * Vértices guardados em um vetor, com uma tabela hash do vértice para o identificador.
+	 *
+	 * @param vertices vértices distintos, na ordem dos identificadores.
+	 * @return vértices mapeados.
+	 */
+	static <T> Vertices<T> mapeados(Collection<T> vertices) {
+		Preconditions.nonNull(vertices);
+		Object[] vetor = vertices.toArray();
+		Map<T, Integer> indices = new HashMap<>(vetor.length * 4 / 3 + 1);
+		for (T vertice : vertices) {
+			Preconditions.verify(indices.put(vertice, indices.size()) == null, "Vértice repetido: " + vertice);
+		}
+		return new Vertices<T>() {
+			@Override
+			public int tamanho() {
+				return vetor.length;
+			}
+
+			@Override
+			public int indice(T vertice) {
+				Integer indice = indices.get(vertice);
+				return indice == null ? Grafo.AUSENTE : indice;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T vertice(int indice) {
+				return (T) vetor[indice];
+			}
+		};
+	}
+
+	/**
+	 * Vértices calculados a partir do identificador e vice-versa, sem nenhuma tabela. Adequado para grafos grandes
+	 * cujos vértices já são numerados, como os do formato DIMACS.
+	 *
+	 * @param tamanho número de vértices.
+	 * @param vertice cria o vértice de um identificador.
+	 * @param indice obtém o identificador de um vértice, valores fora do intervalo indicam vértices que não pertencem
+	 * ao grafo.
+	 * @return vértices numerados.
+	 */
+	static <T> Vertices<T> numerados(int tamanho, IntFunction<T> vertice, ToIntFunction<T> indice) {
+		Preconditions.nonNull(vertice, indice);
+		Preconditions.verify(tamanho >= 0, "Número de vértices não pode ser negativo");
+		return new Vertices<T>() {
+			@Override
+			public int tamanho() {
+				return tamanho;
+			}
+
+			@Override
+			public int indice(T v) {
+				int i = indice.applyAsInt(v);
+				return i >= 0 && i < tamanho ? i : Grafo.AUSENTE;
+			}
+
+			@Override
+			public T vertice(int i) {
+				return vertice.apply(i);
+			}
+		};
+	}
+
+	int tamanho();
+
+	/**
+	 * @param vertice vértice do grafo.
+	 * @return identificador do vértice, ou {@link Grafo#AUSENTE} se ele não pertence ao grafo.
+	 */
+	int indice(T vertice);
+
+	T vertice(int indice);
+}
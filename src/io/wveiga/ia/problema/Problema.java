@@ -52,5 +52,17 @@ public interface Problema<T> {
 	 * @return verdadeiro, se o estado é solução, caso contrário retorna falso.
 	 */
 	boolean solucao(T estado);
+	
+	/**
+	 * Indica, sem realizar nenhuma busca, que o problema certamente não possui solução.
+	 * 
+	 * As buscas consultam este método antes de começar e retornam imediatamente quando ele é verdadeiro.
+	 * Problemas que não sabem fazer essa verificação retornam falso, que é o padrão.
+	 * 
+	 * @return verdadeiro se é sabido que nenhuma solução existe.
+	 */
+	default boolean insoluvel() {
+		return false;
+	}
 		
 }
@@ -0,0 +1,32 @@
+package io.wveiga.ia.problema;
+
+/**
+ * Problema cujos estados podem ser codificados, sem perda, em um <code>long</code>.
+ *
+ * As buscas podem usar essa codificação para manter os estados visitados de forma compacta,
+ * sem precisar guardar referências aos objetos de estado.
+ *
+ * @author Welington Veiga
+ *
+ * @param <T> tipo de estado do problema.
+ */
+public interface ProblemaCodificavel<T> extends Problema<T> {
+
+	/**
+	 * Codifica um estado do problema.
+	 *
+	 * Estados iguais devem sempre gerar o mesmo código e estados diferentes códigos diferentes.
+	 *
+	 * @param estado estado a ser codificado.
+	 * @return código do estado.
+	 */
+	long codifica(T estado);
+
+	/**
+	 * Recupera o estado a partir de seu código.
+	 *
+	 * @param codigo código obtido por {@link #codifica(Object)}.
+	 * @return estado correspondente ao código.
+	 */
+	T decodifica(long codigo);
+}
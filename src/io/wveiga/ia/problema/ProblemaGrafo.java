@@ -0,0 +1,45 @@
+package io.wveiga.ia.problema;
+
+import io.wveiga.ia.ed.Grafo;
+
+/**
+ * Problema cujos estados são os vértices de um {@link Grafo} e cujas ações são as ligações do grafo, com o mesmo custo.
+ *
+ * Buscas podem usar o grafo diretamente, percorrendo as ligações pelos identificadores dos vértices.
+ *
+ * @author Welington Veiga
+ *
+ * @param <T> tipo de estado do problema, o mesmo dos vértices do grafo.
+ */
+public interface ProblemaGrafo<T> extends Problema<T> {
+
+	/**
+	 * Grafo sobre o qual o problema é definido.
+	 *
+	 * @return grafo do problema.
+	 */
+	Grafo<T> getGrafo();
+
+	/**
+	 * Ação do problema que corresponde à ligação entre dois vértices adjacentes, usada pelas buscas que percorrem
+	 * o grafo diretamente para montar a solução. Se houver mais de uma, retorna a de menor custo.
+	 *
+	 * @param origem vértice de origem da ligação.
+	 * @param destino vértice de destino da ligação.
+	 * @return ação de origem a destino.
+	 * @throws IllegalStateException se nenhuma ação de custo finito leva de origem a destino.
+	 */
+	default Acao<T> acaoEntre(T origem, T destino) {
+		Acao<T> melhor = null;
+		for (Acao<T> acao : sucessores(origem)) {
+			if (acao.getEstadoAlvo().equals(destino) && acao.getCusto().finito()
+					&& (melhor == null || acao.getCusto().compareTo(melhor.getCusto()) < 0)) {
+				melhor = acao;
+			}
+		}
+		if (melhor == null) {
+			throw new IllegalStateException("Nenhuma ação leva de " + origem + " a " + destino);
+		}
+		return melhor;
+	}
+}
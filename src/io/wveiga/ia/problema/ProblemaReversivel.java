@@ -0,0 +1,50 @@
+package io.wveiga.ia.problema;
+
+import java.util.List;
+
+/**
+ * Problema com um único estado objetivo conhecido e cujas ações podem ser percorridas no sentido inverso,
+ * permitindo buscas que partem também da solução em direção ao estado inicial.
+ *
+ * @author Welington Veiga
+ *
+ * @param <T> tipo de estado do problema.
+ */
+public interface ProblemaReversivel<T> extends Problema<T> {
+
+	/**
+	 * Estado objetivo do problema, o único estado para o qual {@link #solucao(Object)} é verdadeiro.
+	 *
+	 * @return estado objetivo.
+	 */
+	T estadoObjetivo();
+
+	/**
+	 * Retorna os antecessores de determinado estado, isto é, uma ação para cada estado a partir do qual
+	 * alguma ação leva ao estado informado. O estado alvo de cada ação é o antecessor e seu custo é o custo
+	 * da ação original, do antecessor até o estado.
+	 *
+	 * @param estado Estado cujos antecessores devem ser obtidos.
+	 * @return lista de ações que levam aos antecessores do estado.
+	 */
+	List<Acao<T>> antecessores(T estado);
+
+	/**
+	 * Verifica se alguma ação leva diretamente da origem ao destino. Buscas que dependem de todas as ações poderem
+	 * ser desfeitas usam este método para verificar, a cada estado gerado, se a ação que o gerou tem volta.
+	 * 
+	 * A implementação padrão percorre os sucessores da origem, os problemas podem fornecer uma verificação mais barata.
+	 *
+	 * @param origem estado de partida.
+	 * @param destino estado que deve ser alcançado com uma única ação.
+	 * @return verdadeiro se alguma ação leva da origem ao destino.
+	 */
+	default boolean existeAcao(T origem, T destino) {
+		for (Acao<T> acao : sucessores(origem)) {
+			if (acao.getEstadoAlvo().equals(destino)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
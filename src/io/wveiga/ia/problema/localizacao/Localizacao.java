@@ -1,21 +1,29 @@
 package io.wveiga.ia.problema.localizacao;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import io.wveiga.ia.ed.Custo;
 import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.ed.Vertices;
 import io.wveiga.ia.problema.Acao;
-import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.problema.ProblemaGrafo;
+import io.wveiga.ia.problema.ProblemaReversivel;
 import io.wveiga.ia.util.Preconditions;
 
-public class Localizacao implements Problema<Local>{
+/**
+ * Problema de encontrar uma rota entre dois locais de um mapa.
+ * 
+ * As ações de cada local são criadas a cada expansão, percorrendo as ligações do grafo pelos identificadores dos
+ * vértices. O problema não guarda nada por vértice, e criá-lo para cada consulta custa O(1) mesmo em mapas grandes.
+ */
+public class Localizacao implements ProblemaReversivel<Local>, ProblemaGrafo<Local>{
 
 	private final Grafo<Local> mapa;
 	private final Local origem;
 	private final Local destino;
 	
-	
-	
 	public Localizacao(Grafo<Local> mapa, Local origem, Local destino) {
 		Preconditions.nonNull(mapa, origem, destino);
 		this.mapa = mapa;
@@ -23,6 +31,40 @@ public class Localizacao implements Problema<Local>{
 		this.destino = destino;
 	}
 
+	/**
+	 * Locais nomeados pela sua numeração a partir de 1, como os vértices de um arquivo DIMACS lido por
+	 * {@link io.wveiga.ia.ed.LeitorGrafo#dimacs(java.nio.file.Path, java.util.function.IntFunction)}.
+	 * Os locais são criados sob demanda, sem nenhuma tabela.
+	 * 
+	 * @param quantidade número de locais.
+	 * @return locais numerados.
+	 */
+	public static Vertices<Local> locaisNumerados(int quantidade) {
+		return Vertices.numerados(quantidade, i -> new Local(Integer.toString(i + 1)), Localizacao::numero);
+	}
+	
+	private static int numero(Local local) {
+		String nome = local.getName();
+		// Zeros à esquerda ("01", "001") dariam o número de outro local, que não é o vértice nomeado.
+		if (nome == null || nome.isEmpty() || nome.length() > 10 || nome.charAt(0) == '0') {
+			return Grafo.AUSENTE;
+		}
+		long numero = 0;
+		for (int i = 0; i < nome.length(); i++) {
+			char c = nome.charAt(i);
+			if (c < '0' || c > '9') {
+				return Grafo.AUSENTE;
+			}
+			numero = numero * 10 + (c - '0');
+		}
+		return numero < 1 || numero > Integer.MAX_VALUE ? Grafo.AUSENTE : (int) (numero - 1);
+	}
+
+	@Override
+	public Grafo<Local> getGrafo() {
+		return mapa;
+	}
+
 	@Override
 	public Local estadoInicial() {
 		return origem;
@@ -30,12 +72,15 @@ public class Localizacao implements Problema<Local>{
 
 	@Override
 	public List<Acao<Local>> sucessores(Local local) {
-		List<Acao<Local>> sucessores = new LinkedList<>();
-		for(Grafo.Ligacao<Local> ligacao : mapa.getAdjacentes(local)){
-			sucessores.add(new Ir(ligacao.getDestino(), ligacao.getCusto()));
+		int v = mapa.indice(local);
+		if (v == Grafo.AUSENTE) {
+			return Collections.emptyList();
+		}
+		List<Acao<Local>> acoes = new ArrayList<>(mapa.fimAdjacentes(v) - mapa.inicioAdjacentes(v));
+		for (int l = mapa.inicioAdjacentes(v); l < mapa.fimAdjacentes(v); l++) {
+			acoes.add(new Ir(mapa.vertice(mapa.destino(l)), Custo.de(mapa.peso(l))));
 		}
-		
-		return sucessores;
+		return acoes;
 	}
 
 	@Override
@@ -43,4 +88,32 @@ public class Localizacao implements Problema<Local>{
 		return estado.equals(destino);
 	}
 
+	@Override
+	public Local estadoObjetivo() {
+		return destino;
+	}
+
+	@Override
+	public List<Acao<Local>> antecessores(Local local) {
+		int v = mapa.indice(local);
+		if (v == Grafo.AUSENTE) {
+			return Collections.emptyList();
+		}
+		List<Acao<Local>> acoes = new ArrayList<>(mapa.fimAntecessores(v) - mapa.inicioAntecessores(v));
+		for (int l = mapa.inicioAntecessores(v); l < mapa.fimAntecessores(v); l++) {
+			acoes.add(new Ir(mapa.vertice(mapa.origem(l)), Custo.de(mapa.pesoAntecessor(l))));
+		}
+		return acoes;
+	}
+
+	/**
+	 * Consulta a ligação diretamente no grafo, o que também detecta ligações de mão única em mapas direcionados.
+	 */
+	@Override
+	public boolean existeAcao(Local origem, Local destino) {
+		int o = mapa.indice(origem);
+		int d = mapa.indice(destino);
+		return o != Grafo.AUSENTE && d != Grafo.AUSENTE && mapa.ligacao(o, d) != Grafo.AUSENTE;
+	}
+
 }
@@ -0,0 +1,34 @@
+package io.wveiga.ia.problema.localizacao;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.wveiga.ia.algs.busca.info.Heuristica;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Heurística tabelada para o problema de localização, a partir de estimativas conhecidas da distância
+ * de cada local até o destino, por exemplo a distância em linha reta.
+ * 
+ * Locais sem estimativa recebem zero, o que mantém a heurística admissível desde que as estimativas
+ * informadas também sejam.
+ * 
+ * @author Welington Veiga
+ */
+public class LocalizacaoHeuristica implements Heuristica<Local> {
+	
+	private final Map<Local, Double> estimativas = new HashMap<>();
+	
+	public LocalizacaoHeuristica addEstimativa(Local local, double distancia) {
+		Preconditions.nonNull(local);
+		Preconditions.verify(distancia >= 0, "Estimativa não pode ser negativa");
+		estimativas.put(local, distancia);
+		return this;
+	}
+
+	@Override
+	public double estima(Local local) {
+		return estimativas.getOrDefault(local, 0d);
+	}
+
+}
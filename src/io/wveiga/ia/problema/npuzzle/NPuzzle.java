@@ -4,15 +4,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import io.wveiga.ia.problema.Acao;
-import io.wveiga.ia.problema.Problema;
+import io.wveiga.ia.problema.ProblemaCodificavel;
+import io.wveiga.ia.problema.ProblemaReversivel;
 import io.wveiga.ia.util.Preconditions;
 
-public class NPuzzle implements Problema<NPuzzleTabuleiro> {
+public class NPuzzle implements ProblemaCodificavel<NPuzzleTabuleiro>, ProblemaReversivel<NPuzzleTabuleiro> {
 	
 	private final NPuzzleTabuleiro estadoInicial;
 	
 	public NPuzzle(int n) {
-		Preconditions.verify(n>=2);
+		Preconditions.verify(n>=NPuzzleTabuleiro.TAMANHO_MINIMO && n<=NPuzzleTabuleiro.TAMANHO_MAXIMO);
 		this.estadoInicial = new NPuzzleTabuleiro(n);
 	}
 
@@ -44,4 +45,41 @@ public class NPuzzle implements Problema<NPuzzleTabuleiro> {
 		return estado.eSolucao();
 	}
 
+	/**
+	 * Metade dos tabuleiros não alcança a solução, o que é verificado pela paridade das inversões do tabuleiro inicial.
+	 */
+	@Override
+	public boolean insoluvel() {
+		return !estadoInicial.eSolucionavel();
+	}
+
+	@Override
+	public NPuzzleTabuleiro estadoObjetivo() {
+		return NPuzzleTabuleiro.objetivo(estadoInicial.getTamanho());
+	}
+
+	/**
+	 * Todo movimento do N-Puzzle é desfeito pelo movimento oposto, então os antecessores de um tabuleiro
+	 * são exatamente os seus sucessores.
+	 */
+	@Override
+	public List<Acao<NPuzzleTabuleiro>> antecessores(NPuzzleTabuleiro estado) {
+		return sucessores(estado);
+	}
+
+	@Override
+	public boolean existeAcao(NPuzzleTabuleiro origem, NPuzzleTabuleiro destino) {
+		return origem.eVizinhoDe(destino);
+	}
+
+	@Override
+	public long codifica(NPuzzleTabuleiro estado) {
+		return estado.getCodigo();
+	}
+
+	@Override
+	public NPuzzleTabuleiro decodifica(long codigo) {
+		return NPuzzleTabuleiro.decodifica(estadoInicial.getTamanho(), codigo);
+	}
+
 }
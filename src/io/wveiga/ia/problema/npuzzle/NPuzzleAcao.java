@@ -4,22 +4,35 @@ import io.wveiga.ia.ed.Custo;
 import io.wveiga.ia.problema.Acao;
 import io.wveiga.ia.util.Preconditions;
 
+/**
+ * Ação de mover o espaço vazio de um tabuleiro.
+ *
+ * O tabuleiro alvo é calculado uma única vez, na criação da ação, e apenas o movimento e o alvo
+ * são guardados, o tabuleiro de origem não é referenciado. Ele é refeito a partir do alvo, com o movimento
+ * oposto, apenas para exibir a ação.
+ *
+ * @author Welington Veiga
+ */
 public class NPuzzleAcao implements Acao<NPuzzleTabuleiro> {
-		
+
 	private final NPuzzleMovimento movimento;
-	private final NPuzzleTabuleiro tabuleiro;
-	
-	
+	private final NPuzzleTabuleiro estadoAlvo;
+
+
 	public NPuzzleAcao(NPuzzleMovimento movimento, NPuzzleTabuleiro tabuleiro) {
 		Preconditions.nonNull(movimento, tabuleiro);
 		Preconditions.verify(tabuleiro.eAplicavelA(movimento));
 		this.movimento = movimento;
-		this.tabuleiro = tabuleiro;
+		this.estadoAlvo = tabuleiro.aplica(movimento);
+	}
+
+	public NPuzzleMovimento getMovimento() {
+		return movimento;
 	}
 
 	@Override
 	public NPuzzleTabuleiro getEstadoAlvo() {
-		return tabuleiro.aplica(movimento);
+		return estadoAlvo;
 	}
 
 	@Override
@@ -32,17 +45,17 @@ public class NPuzzleAcao implements Acao<NPuzzleTabuleiro> {
 		StringBuilder builder = new StringBuilder();
 		builder.append(movimento);
 		builder.append("\n");
-		builder.append(tabuleiro);
+		builder.append(estadoAlvo.aplica(movimento.getOposto()));
 		builder.append("\n\n");
 		return builder.toString();
 	}
-	
-		@Override
+
+	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((movimento == null) ? 0 : movimento.hashCode());
-		result = prime * result + ((tabuleiro == null) ? 0 : tabuleiro.hashCode());
+		result = prime * result + ((estadoAlvo == null) ? 0 : estadoAlvo.hashCode());
 		return result;
 	}
 
@@ -57,14 +70,14 @@ public class NPuzzleAcao implements Acao<NPuzzleTabuleiro> {
 		NPuzzleAcao other = (NPuzzleAcao) obj;
 		if (movimento != other.movimento)
 			return false;
-		if (tabuleiro == null) {
-			if (other.tabuleiro != null)
+		if (estadoAlvo == null) {
+			if (other.estadoAlvo != null)
 				return false;
-		} else if (!tabuleiro.equals(other.tabuleiro))
+		} else if (!estadoAlvo.equals(other.estadoAlvo))
 			return false;
 		return true;
 	}
-	
+
 	@Override
 	public String toString() {
 		return getNone();
@@ -0,0 +1,374 @@
+package io.wveiga.ia.problema.npuzzle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Banco de padrões (pattern database) de um subconjunto das peças do N-Puzzle.
+ *
+ * Para cada disposição possível das peças do padrão, o banco guarda o menor número de movimentos
+ * <b>dessas peças</b> necessário para levá-las às suas posições na solução, ignorando a identidade das demais.
+ * Como apenas os movimentos das peças do padrão são contados, bancos de padrões disjuntos podem ser somados
+ * sem perder a admissibilidade, veja {@link NPuzzlePadroesDisjuntos}.
+ *
+ * O banco é gerado por uma busca em largura retrógrada a partir da solução usada por
+ * {@link NPuzzleTabuleiro#eSolucao()}, gravado em um arquivo binário compacto (um byte por disposição) e
+ * carregado por mapeamento em memória, de forma que vários processos compartilhem as mesmas páginas
+ * sem custo de heap nem de geração.
+ *
+ * @author Welington Veiga
+ */
+public final class NPuzzleBancoPadroes {
+
+	private static final int MAGICO = 0x4E504442; // "NPDB"
+	private static final int VERSAO = 1;
+	private static final int DESCONHECIDO = 0xFF;
+
+	private final int n;
+	private final int[] pecas;
+	private final ByteBuffer tabela;
+	private final int inicio;
+
+	private NPuzzleBancoPadroes(int n, int[] pecas, ByteBuffer tabela, int inicio) {
+		this.n = n;
+		this.pecas = pecas;
+		this.tabela = tabela;
+		this.inicio = inicio;
+	}
+
+	/**
+	 * Gera o banco de padrões das peças informadas.
+	 *
+	 * A geração percorre todas as disposições das peças do padrão e do espaço vazio, o que limita o tamanho
+	 * do padrão: para o 15-puzzle, padrões de até 7 peças.
+	 *
+	 * @param n tamanho do tabuleiro.
+	 * @param pecas peças do padrão, distintas e diferentes de zero.
+	 * @return banco de padrões gerado, mantido em memória.
+	 */
+	public static NPuzzleBancoPadroes gera(int n, int... pecas) {
+		Preconditions.verify(n>=NPuzzleTabuleiro.TAMANHO_MINIMO && n<=NPuzzleTabuleiro.TAMANHO_MAXIMO);
+		int posicoes = n * n;
+		Preconditions.verify(pecas.length > 0 && pecas.length < posicoes - 1, "Padrão deve ter entre 1 e n²-2 peças");
+		boolean[] usadas = new boolean[posicoes];
+		for (int peca : pecas) {
+			Preconditions.verify(peca > 0 && peca < posicoes && !usadas[peca], "Peças do padrão devem ser distintas, entre 1 e n²-1");
+			usadas[peca] = true;
+		}
+		Preconditions.verify(arranjos(posicoes, pecas.length + 1) < Integer.MAX_VALUE - 8,
+				String.format("Padrão de %d peças é grande demais para ser gerado", pecas.length));
+
+		byte[] distancias = new Gerador(n, pecas.clone()).gera();
+		return new NPuzzleBancoPadroes(n, pecas.clone(), ByteBuffer.wrap(distancias).asReadOnlyBuffer(), 0);
+	}
+
+	/**
+	 * Carrega, por mapeamento em memória, um banco gravado por {@link #grava(Path)}.
+	 *
+	 * @param arquivo arquivo do banco.
+	 * @return banco de padrões somente leitura.
+	 * @throws IOException se o arquivo não puder ser lido.
+	 */
+	public static NPuzzleBancoPadroes carrega(Path arquivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			ByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+			Preconditions.verify(mapa.getInt() == MAGICO, "Arquivo não é um banco de padrões: " + arquivo);
+			Preconditions.verify(mapa.getInt() == VERSAO, "Versão de banco de padrões não suportada: " + arquivo);
+			int n = mapa.getInt();
+			int[] pecas = new int[mapa.getInt()];
+			for (int i = 0; i < pecas.length; i++) {
+				pecas[i] = mapa.getInt();
+			}
+			int inicio = mapa.position();
+			Preconditions.verify(canal.size() - inicio == arranjos(n * n, pecas.length),
+					"Banco de padrões incompleto: " + arquivo);
+			return new NPuzzleBancoPadroes(n, pecas, mapa, inicio);
+		}
+	}
+
+	/**
+	 * Grava o banco em um arquivo binário: cabeçalho (mágico, versão, n, peças) seguido de um byte por disposição.
+	 *
+	 * @param arquivo arquivo de destino.
+	 * @throws IOException se o arquivo não puder ser escrito.
+	 */
+	public void grava(Path arquivo) throws IOException {
+		try (OutputStream saida = Files.newOutputStream(arquivo);
+				DataOutputStream dados = new DataOutputStream(new BufferedOutputStream(saida))) {
+			dados.writeInt(MAGICO);
+			dados.writeInt(VERSAO);
+			dados.writeInt(n);
+			dados.writeInt(pecas.length);
+			for (int peca : pecas) {
+				dados.writeInt(peca);
+			}
+			byte[] bloco = new byte[1 << 16];
+			int total = tamanho();
+			for (int i = 0; i < total; i += bloco.length) {
+				int quantidade = Math.min(bloco.length, total - i);
+				for (int j = 0; j < quantidade; j++) {
+					bloco[j] = tabela.get(inicio + i + j);
+				}
+				dados.write(bloco, 0, quantidade);
+			}
+		}
+	}
+
+	/**
+	 * Menor número de movimentos das peças do padrão para levá-las à solução.
+	 *
+	 * @param posicoes posição de cada peça do tabuleiro, indexada pela peça.
+	 * @return custo do padrão.
+	 */
+	int custo(int[] posicoes) {
+		int indice = 0;
+		int livres = n * n;
+		long ocupadas = 0;
+		for (int i = 0; i < pecas.length; i++) {
+			int posicao = posicoes[pecas[i]];
+			indice = indice * livres + posicao - Long.bitCount(ocupadas & ((1L << posicao) - 1));
+			ocupadas |= 1L << posicao;
+			livres--;
+		}
+		return tabela.get(inicio + indice) & 0xFF;
+	}
+
+	/**
+	 * Menor número de movimentos das peças do padrão para levá-las à solução.
+	 *
+	 * @param tabuleiro tabuleiro avaliado, do mesmo tamanho do banco.
+	 * @return custo do padrão.
+	 */
+	public int custo(NPuzzleTabuleiro tabuleiro) {
+		Preconditions.verify(tabuleiro.getTamanho() == n);
+		return custo(NPuzzlePadroesDisjuntos.posicoes(tabuleiro));
+	}
+
+	public int getTamanho() {
+		return n;
+	}
+
+	public int[] getPecas() {
+		return pecas.clone();
+	}
+
+	private int tamanho() {
+		return (int) arranjos(n * n, pecas.length);
+	}
+
+	/**
+	 * Número de arranjos de k elementos escolhidos entre m, m!/(m-k)!.
+	 */
+	private static long arranjos(int m, int k) {
+		long total = 1;
+		for (int i = 0; i < k; i++) {
+			total *= m - i;
+		}
+		return total;
+	}
+
+	@Override
+	public String toString() {
+		return "NPuzzleBancoPadroes [n=" + n + ", pecas=" + Arrays.toString(pecas) + "]";
+	}
+
+	/**
+	 * Busca em largura retrógrada sobre o espaço abstrato formado pelas posições das peças do padrão e do espaço vazio.
+	 *
+	 * Mover o espaço vazio sobre uma peça fora do padrão custa zero, sobre uma peça do padrão custa um. Por isso cada
+	 * nível da busca primeiro se espalha por toda a região alcançável pelo espaço vazio sem mover peças do padrão
+	 * e depois gera o próximo nível movendo as peças do padrão vizinhas a essa região.
+	 *
+	 * O índice de um estado é o posto do arranjo (peças do padrão..., vazio), de forma que o índice do padrão sem o
+	 * espaço vazio é simplesmente <code>indice / (n² - k)</code>.
+	 */
+	private static final class Gerador {
+
+		private final int n;
+		private final int posicoes;
+		private final int[] pecas;
+		private final int k;
+		private final int livres;
+
+		private final byte[] distancias;
+		private final long[] expandidos;
+
+		private final int[] arranjo;
+		private final int[] ocupante;
+		private final int[] regiao;
+		private final boolean[] naRegiao;
+
+		private Gerador(int n, int[] pecas) {
+			this.n = n;
+			this.posicoes = n * n;
+			this.pecas = pecas;
+			this.k = pecas.length;
+			this.livres = posicoes - k;
+			int estados = (int) arranjos(posicoes, k + 1);
+			this.distancias = new byte[estados];
+			this.expandidos = new long[(estados >>> 6) + 1];
+			this.arranjo = new int[k + 1];
+			this.ocupante = new int[posicoes];
+			this.regiao = new int[posicoes];
+			this.naRegiao = new boolean[posicoes];
+		}
+
+		private byte[] gera() {
+			Arrays.fill(distancias, (byte) DESCONHECIDO);
+
+			// 1. Na solução a peça p ocupa a posição p e o espaço vazio a posição 0.
+			for (int i = 0; i < k; i++) {
+				arranjo[i] = pecas[i];
+			}
+			arranjo[k] = 0;
+			distancias[posto()] = 0;
+
+			// 2. Expande nível a nível até que nenhum estado novo seja encontrado.
+			boolean encontrou = true;
+			for (int nivel = 0; encontrou; nivel++) {
+				encontrou = false;
+				for (int indice = 0; indice < distancias.length; indice++) {
+					if ((distancias[indice] & 0xFF) == nivel && !expandido(indice)) {
+						expande(indice, nivel);
+						encontrou = true;
+					}
+				}
+			}
+
+			// 3. Projeta no padrão sem o espaço vazio, guardando o menor custo entre todas as posições do vazio.
+			byte[] tabela = new byte[(int) arranjos(posicoes, k)];
+			Arrays.fill(tabela, (byte) DESCONHECIDO);
+			for (int indice = 0; indice < distancias.length; indice++) {
+				int projecao = indice / livres;
+				if ((distancias[indice] & 0xFF) < (tabela[projecao] & 0xFF)) {
+					tabela[projecao] = distancias[indice];
+				}
+			}
+			return tabela;
+		}
+
+		private void expande(int indice, int nivel) {
+			desfazPosto(indice);
+			Arrays.fill(ocupante, -1);
+			for (int i = 0; i < k; i++) {
+				ocupante[arranjo[i]] = i;
+			}
+
+			// 1. Região alcançável pelo espaço vazio sem mover peças do padrão, todas com o mesmo custo.
+			int tamanho = 0;
+			Arrays.fill(naRegiao, false);
+			regiao[tamanho++] = arranjo[k];
+			naRegiao[arranjo[k]] = true;
+			for (int i = 0; i < tamanho; i++) {
+				int celula = regiao[i];
+				for (int vizinho = 0; vizinho < 4; vizinho++) {
+					int proxima = vizinha(celula, vizinho);
+					if (proxima >= 0 && !naRegiao[proxima] && ocupante[proxima] < 0) {
+						naRegiao[proxima] = true;
+						regiao[tamanho++] = proxima;
+					}
+				}
+			}
+			for (int i = 0; i < tamanho; i++) {
+				arranjo[k] = regiao[i];
+				int estado = posto();
+				marcaExpandido(estado);
+				if ((distancias[estado] & 0xFF) > nivel) {
+					distancias[estado] = (byte) nivel;
+				}
+			}
+
+			// 2. Peças do padrão vizinhas à região podem ocupar a posição vazia, com custo um.
+			for (int i = 0; i < tamanho; i++) {
+				int vazia = regiao[i];
+				for (int vizinho = 0; vizinho < 4; vizinho++) {
+					int origem = vizinha(vazia, vizinho);
+					if (origem < 0 || ocupante[origem] < 0) {
+						continue;
+					}
+					int peca = ocupante[origem];
+					arranjo[peca] = vazia;
+					arranjo[k] = origem;
+					int estado = posto();
+					if ((distancias[estado] & 0xFF) > nivel + 1) {
+						distancias[estado] = (byte) (nivel + 1);
+					}
+					arranjo[peca] = origem;
+				}
+			}
+		}
+
+		private int vizinha(int celula, int direcao) {
+			int i = celula / n;
+			int j = celula % n;
+			switch (direcao) {
+			case 0:
+				return i > 0 ? celula - n : -1;
+			case 1:
+				return i < n - 1 ? celula + n : -1;
+			case 2:
+				return j > 0 ? celula - 1 : -1;
+			default:
+				return j < n - 1 ? celula + 1 : -1;
+			}
+		}
+
+		private int posto() {
+			int indice = 0;
+			int restantes = posicoes;
+			long ocupadas = 0;
+			for (int i = 0; i <= k; i++) {
+				int posicao = arranjo[i];
+				indice = indice * restantes + posicao - Long.bitCount(ocupadas & ((1L << posicao) - 1));
+				ocupadas |= 1L << posicao;
+				restantes--;
+			}
+			return indice;
+		}
+
+		private void desfazPosto(int indice) {
+			// Os dígitos do posto, em base mista, são extraídos do último para o primeiro.
+			int restantes = posicoes - k;
+			for (int i = k; i >= 0; i--) {
+				arranjo[i] = indice % restantes;
+				indice /= restantes;
+				restantes++;
+			}
+			// Cada dígito é a ordem da posição entre as ainda livres.
+			long ocupadas = 0;
+			for (int i = 0; i <= k; i++) {
+				int ordem = arranjo[i];
+				int posicao = 0;
+				while (true) {
+					if ((ocupadas & (1L << posicao)) == 0) {
+						if (ordem == 0) {
+							break;
+						}
+						ordem--;
+					}
+					posicao++;
+				}
+				arranjo[i] = posicao;
+				ocupadas |= 1L << posicao;
+			}
+		}
+
+		private boolean expandido(int indice) {
+			return (expandidos[indice >>> 6] & (1L << indice)) != 0;
+		}
+
+		private void marcaExpandido(int indice) {
+			expandidos[indice >>> 6] |= 1L << indice;
+		}
+	}
+}
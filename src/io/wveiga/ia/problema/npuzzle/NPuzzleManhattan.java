@@ -0,0 +1,30 @@
+package io.wveiga.ia.problema.npuzzle;
+
+import io.wveiga.ia.algs.busca.info.Heuristica;
+
+/**
+ * Heurística da distância de Manhattan para o N-Puzzle: soma, para cada peça, do número de linhas e 
+ * colunas que a separam de sua posição na solução. O espaço vazio não é contado.
+ * 
+ * É admissível e consistente, já que cada movimento aproxima ou afasta uma única peça em uma posição.
+ * 
+ * @author Welington Veiga
+ */
+public class NPuzzleManhattan implements Heuristica<NPuzzleTabuleiro> {
+
+	@Override
+	public double estima(NPuzzleTabuleiro tabuleiro) {
+		int n = tabuleiro.getTamanho();
+		int distancia = 0;
+		for(int i = 0; i < n; i++){
+			for(int j = 0; j < n; j++){
+				int peca = tabuleiro.getPeca(i, j);
+				if (peca != 0) {
+					// Na solução a peça p ocupa a posição p.
+					distancia += Math.abs(i - peca / n) + Math.abs(j - peca % n);
+				}
+			}
+		}
+		return distancia;
+	}
+}
@@ -17,5 +17,23 @@ public enum NPuzzleMovimento {
 
 	public int getHorizontal() {
 		return horizontal;
-	}	
+	}
+	
+	/**
+	 * Movimento que desfaz este movimento.
+	 * 
+	 * @return movimento na direção oposta.
+	 */
+	public NPuzzleMovimento getOposto() {
+		switch (this) {
+		case ESQUERDA:
+			return DIREITA;
+		case DIREITA:
+			return ESQUERDA;
+		case CIMA:
+			return BAIXO;
+		default:
+			return CIMA;
+		}
+	}
 }
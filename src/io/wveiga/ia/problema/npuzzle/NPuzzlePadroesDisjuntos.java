@@ -0,0 +1,101 @@
+package io.wveiga.ia.problema.npuzzle;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.wveiga.ia.algs.busca.info.Heuristica;
+import io.wveiga.ia.util.Preconditions;
+
+/**
+ * Heurística de bancos de padrões disjuntos aditivos para o N-Puzzle.
+ *
+ * Cada peça pertence a no máximo um banco e cada banco conta apenas os movimentos de suas peças, então a soma
+ * dos custos dos bancos continua admissível e domina a distância de Manhattan, reduzindo em ordens de grandeza
+ * o número de nós expandidos pela busca A*.
+ *
+ * Partições usuais do 15-puzzle (com o espaço vazio no canto superior esquerdo) estão disponíveis em
+ * {@link #particao663()} e {@link #particao555()}.
+ *
+ * @author Welington Veiga
+ */
+public class NPuzzlePadroesDisjuntos implements Heuristica<NPuzzleTabuleiro> {
+
+	private final int n;
+	private final List<NPuzzleBancoPadroes> bancos;
+
+	public NPuzzlePadroesDisjuntos(NPuzzleBancoPadroes... bancos) {
+		Preconditions.verify(bancos.length > 0, "Ao menos um banco de padrões é necessário");
+		this.n = bancos[0].getTamanho();
+		boolean[] usadas = new boolean[n * n];
+		for (NPuzzleBancoPadroes banco : bancos) {
+			Preconditions.verify(banco.getTamanho() == n, "Bancos de padrões de tamanhos diferentes");
+			for (int peca : banco.getPecas()) {
+				Preconditions.verify(!usadas[peca], "Bancos de padrões não são disjuntos, peça repetida: " + peca);
+				usadas[peca] = true;
+			}
+		}
+		this.bancos = Arrays.asList(bancos.clone());
+	}
+
+	/**
+	 * Gera os bancos de padrões de uma partição das peças.
+	 *
+	 * @param n tamanho do tabuleiro.
+	 * @param particao peças de cada padrão.
+	 * @return heurística com os bancos gerados.
+	 */
+	public static NPuzzlePadroesDisjuntos gera(int n, int[]... particao) {
+		NPuzzleBancoPadroes[] bancos = new NPuzzleBancoPadroes[particao.length];
+		for (int i = 0; i < particao.length; i++) {
+			bancos[i] = NPuzzleBancoPadroes.gera(n, particao[i]);
+		}
+		return new NPuzzlePadroesDisjuntos(bancos);
+	}
+
+	/**
+	 * Partição 6-6-3 do 15-puzzle: as duas metades de seis peças à direita e a coluna da esquerda.
+	 */
+	public static int[][] particao663() {
+		return new int[][] {
+			{1, 2, 3, 5, 6, 7},
+			{9, 10, 11, 13, 14, 15},
+			{4, 8, 12}
+		};
+	}
+
+	/**
+	 * Partição 5-5-5 do 15-puzzle.
+	 */
+	public static int[][] particao555() {
+		return new int[][] {
+			{1, 2, 3, 5, 6},
+			{4, 7, 8, 11, 12},
+			{9, 10, 13, 14, 15}
+		};
+	}
+
+	@Override
+	public double estima(NPuzzleTabuleiro tabuleiro) {
+		Preconditions.verify(tabuleiro.getTamanho() == n);
+		int[] posicoes = posicoes(tabuleiro);
+		int custo = 0;
+		for (NPuzzleBancoPadroes banco : bancos) {
+			custo += banco.custo(posicoes);
+		}
+		return custo;
+	}
+
+	/**
+	 * Posição de cada peça do tabuleiro, indexada pela peça.
+	 */
+	static int[] posicoes(NPuzzleTabuleiro tabuleiro) {
+		int n = tabuleiro.getTamanho();
+		int[] posicoes = new int[n * n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				posicoes[tabuleiro.getPeca(i, j)] = i * n + j;
+			}
+		}
+		return posicoes;
+	}
+}
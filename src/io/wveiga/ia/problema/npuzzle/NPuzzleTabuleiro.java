@@ -1,102 +1,281 @@
 package io.wveiga.ia.problema.npuzzle;
 
-import java.util.Arrays;
+import java.util.Random;
 
 import io.wveiga.ia.util.Aleatorio;
 import io.wveiga.ia.util.Preconditions;
+import io.wveiga.ia.util.PreconditionsFailed;
 
+/**
+ * Tabuleiro do N-Puzzle codificado em um único <code>long</code>.
+ *
+ * Cada peça ocupa 4 bits, a posição <code>p = i*n+j</code> fica nos bits <code>[4p, 4p+3]</code>,
+ * o que permite representar qualquer tabuleiro até o 15-puzzle (4x4) em 64 bits. Assim, aplicar um movimento,
+ * verificar a solução, <code>equals</code> e <code>hashCode</code> se tornam operações sobre bits,
+ * sem cópia de matrizes.
+ *
+ * O tabuleiro também guarda a posição do espaço vazio e um hash de Zobrist, ambos atualizados em O(1)
+ * a cada movimento, evitando percorrer o tabuleiro nas verificações de movimentos e nas consultas a hashes.
+ *
+ * @author Welington Veiga
+ */
 public class NPuzzleTabuleiro {
 	private static final String ESTADO_INVALIDO = "Não é possível instanciar um jogo de tamanho %d com um tabuleiro de %d posições";
-	private final int estado[][];
+	private static final String TAMANHO_INVALIDO = "O tabuleiro codificado suporta apenas tamanhos de %d a %d, recebido %d";
+
+	public static final int TAMANHO_MINIMO = 2;
+	public static final int TAMANHO_MAXIMO = 4;
+
+	private static final int BITS_PECA = 4;
+	private static final long MASCARA_PECA = 0xFL;
+
+	/**
+	 * Chaves de Zobrist, uma para cada par (peça, posição), geradas com semente fixa
+	 * para que o hash de um mesmo tabuleiro seja estável entre execuções.
+	 */
+	private static final long[][] ZOBRIST = new long[TAMANHO_MAXIMO*TAMANHO_MAXIMO][TAMANHO_MAXIMO*TAMANHO_MAXIMO];
+	static {
+		Random rg = new Random(0x5EED_2B0AL);
+		for (long[] chaves : ZOBRIST) {
+			for (int p = 0; p < chaves.length; p++) {
+				chaves[p] = rg.nextLong();
+			}
+		}
+	}
+
+	/**
+	 * Código do tabuleiro solução para cada tamanho suportado, indexado pelo tamanho.
+	 */
+	private static final long[] OBJETIVOS = new long[TAMANHO_MAXIMO+1];
+	static {
+		for (int n = TAMANHO_MINIMO; n <= TAMANHO_MAXIMO; n++) {
+			OBJETIVOS[n] = codigoObjetivo(n);
+		}
+	}
+
+	private final long estado;
 	private final int n;
-	
+	private final int vazia;
+	private final long zobrist;
+
 	public NPuzzleTabuleiro(int n, int[][] estado){
-		Preconditions.verify(n>=2);
-		Preconditions.verify(estado.length*estado[0].length == Math.pow(n, 2), 
-				String.format(ESTADO_INVALIDO, n, estado.length*estado[0].length));
+		this(n, codifica(n, estado));
+	}
+
+	public NPuzzleTabuleiro(int n){
+		this(n, codificaAleatorio(n));
+	}
+
+	public NPuzzleTabuleiro(){
+		this(3);
+	}
+
+	private NPuzzleTabuleiro(int n, long estado){
 		this.n = n;
 		this.estado = estado;
+
+		int vazia = -1;
+		long zobrist = 0;
+		for(int p = 0; p < n*n; p++){
+			int peca = peca(p);
+			if (peca == 0){
+				vazia = p;
+			}
+			zobrist ^= ZOBRIST[peca][p];
+		}
+		if (vazia < 0){
+			throw new IllegalStateException("Tabuleiro sem peças vazias!");
+		}
+		this.vazia = vazia;
+		this.zobrist = zobrist;
 	}
-	
-	public NPuzzleTabuleiro(int n){
-		this(n, new int[n][n]);
-		
-		int[] vetor = Aleatorio.vetorInteiros(n*n);
+
+	private NPuzzleTabuleiro(int n, long estado, int vazia, long zobrist){
+		this.n = n;
+		this.estado = estado;
+		this.vazia = vazia;
+		this.zobrist = zobrist;
+	}
+
+	/**
+	 * Recria um tabuleiro a partir de sua codificação, veja {@link #getCodigo()}.
+	 *
+	 * @param n tamanho do tabuleiro.
+	 * @param codigo codificação do tabuleiro.
+	 * @return tabuleiro correspondente ao código.
+	 */
+	public static NPuzzleTabuleiro decodifica(int n, long codigo){
+		verificaTamanho(n);
+		return new NPuzzleTabuleiro(n, codigo);
+	}
+
+	/**
+	 * Tabuleiro solução de tamanho n, isto é, com a peça p na posição p e o espaço vazio no canto superior esquerdo.
+	 *
+	 * @param n tamanho do tabuleiro.
+	 * @return tabuleiro solução.
+	 */
+	public static NPuzzleTabuleiro objetivo(int n){
+		verificaTamanho(n);
+		return new NPuzzleTabuleiro(n, OBJETIVOS[n]);
+	}
+
+	private static long codigoObjetivo(int n) {
+		long codigo = 0;
+		for(int p = 0; p < n*n; p++){
+			codigo |= ((long) p) << (p * BITS_PECA);
+		}
+		return codigo;
+	}
+
+	private static void verificaTamanho(int n) {
+		Preconditions.verify(n>=TAMANHO_MINIMO && n<=TAMANHO_MAXIMO,
+				String.format(TAMANHO_INVALIDO, TAMANHO_MINIMO, TAMANHO_MAXIMO, n));
+	}
+
+	private static long codifica(int n, int[][] estado) {
+		verificaTamanho(n);
+		Preconditions.verify(estado.length*estado[0].length == n*n,
+				String.format(ESTADO_INVALIDO, n, estado.length*estado[0].length));
+		long codigo = 0;
 		for(int i = 0; i < n; i++){
 			for(int j = 0; j < n; j++){
-				this.estado[i][j] = vetor[j*n+i];
+				codigo |= ((long) estado[i][j]) << ((i*n+j) * BITS_PECA);
 			}
 		}
+		return codigo;
 	}
-	
-	public NPuzzleTabuleiro(){
-		this(3);
-	}
-	
-	public int[] gePosicaoVazia(){
+
+	private static long codificaAleatorio(int n) {
+		verificaTamanho(n);
+		int[] vetor = Aleatorio.vetorInteiros(n*n);
+		long codigo = 0;
 		for(int i = 0; i < n; i++){
 			for(int j = 0; j < n; j++){
-				if (estado[i][j] == 0){
-					return new int[]{i, j};
-				}	
+				codigo |= ((long) vetor[j*n+i]) << ((i*n+j) * BITS_PECA);
 			}
 		}
-		throw new IllegalStateException("Tabuleiro sem peças vazias!");
+		return codigo;
 	}
-	
-	
+
+	/**
+	 * Peça na linha i e coluna j do tabuleiro, 0 representa o espaço vazio.
+	 */
+	public int getPeca(int i, int j){
+		return peca(i*n+j);
+	}
+
+	private int peca(int posicao){
+		return (int) ((estado >>> (posicao * BITS_PECA)) & MASCARA_PECA);
+	}
+
+	public int[] gePosicaoVazia(){
+		return new int[]{vazia / n, vazia % n};
+	}
+
+
 	public boolean eAplicavelA(NPuzzleMovimento movimento){
 		Preconditions.nonNull(movimento);
-		int[] posicao = gePosicaoVazia();
-		int i = posicao[0]+movimento.getVertical();
-		int j = posicao[1]+movimento.getHorizontal();
-		
+		int i = vazia / n + movimento.getVertical();
+		int j = vazia % n + movimento.getHorizontal();
+
 		return i>=0 && i<n && j>=0 && j<n;
 	}
-	
+
 	public NPuzzleTabuleiro aplica(NPuzzleMovimento movimento){
-		Preconditions.verify(eAplicavelA(movimento), String.format("O movimento '%s' não é aplicável ao tabuleiro %s\n", movimento,this));
-		int[] posicao = gePosicaoVazia();
-		int[] novaPos = new int[]{
-				posicao[0]+movimento.getVertical(), 
-				posicao[1]+movimento.getHorizontal()
-		};
-		
-		int[][] tabuleiro = new int[n][n];
-		for(int i = 0; i < n; i++){
-			for(int j = 0; j < n; j++){
-				tabuleiro[i][j] = estado[i][j];
-			}
+		// A mensagem só é formatada em caso de falha, evitando o custo de toString() a cada movimento.
+		if (!eAplicavelA(movimento)) {
+			throw new PreconditionsFailed(String.format("O movimento '%s' não é aplicável ao tabuleiro %s\n", movimento,this));
 		}
-		
-		tabuleiro[posicao[0]][posicao[1]] = tabuleiro[novaPos[0]][novaPos[1]];
-		tabuleiro[novaPos[0]][novaPos[1]] = 0; 
-		
-		return new NPuzzleTabuleiro(n, tabuleiro);
+		int posicao = vazia;
+		int novaPos = posicao + movimento.getVertical()*n + movimento.getHorizontal();
+
+		// A peça da nova posição vai para a posição vazia atual, e a nova posição passa a ser vazia (0).
+		int peca = peca(novaPos);
+		long tabuleiro = estado & ~(MASCARA_PECA << (novaPos * BITS_PECA));
+		tabuleiro |= ((long) peca) << (posicao * BITS_PECA);
+
+		// Apenas duas posições mudaram, o hash é atualizado removendo e incluindo suas chaves.
+		long hash = zobrist
+				^ ZOBRIST[peca][novaPos] ^ ZOBRIST[0][posicao]
+				^ ZOBRIST[peca][posicao] ^ ZOBRIST[0][novaPos];
+
+		return new NPuzzleTabuleiro(n, tabuleiro, novaPos, hash);
 	}
-	
-	public boolean eSolucao() {		
-		int peca = 0;
-		for(int i = 0; i < n; i++){
-			for(int j = 0; j < n; j++){
-				if (estado[i][j] != peca) {
-					return false;
+
+	/**
+	 * Verifica se um único movimento leva deste tabuleiro ao outro, isto é, se os espaços vazios são vizinhos e
+	 * o outro tabuleiro é este com a peça vizinha deslizada para o espaço vazio.
+	 *
+	 * @param outro tabuleiro a comparar.
+	 * @return verdadeiro se algum movimento leva deste tabuleiro ao outro.
+	 */
+	public boolean eVizinhoDe(NPuzzleTabuleiro outro){
+		if (n != outro.n) {
+			return false;
+		}
+		int distancia = Math.abs(vazia / n - outro.vazia / n) + Math.abs(vazia % n - outro.vazia % n);
+		if (distancia != 1) {
+			return false;
+		}
+		int peca = peca(outro.vazia);
+		long tabuleiro = estado & ~(MASCARA_PECA << (outro.vazia * BITS_PECA));
+		tabuleiro |= ((long) peca) << (vazia * BITS_PECA);
+		return tabuleiro == outro.estado;
+	}
+
+	public boolean eSolucao() {
+		return estado == OBJETIVOS[n];
+	}
+
+	/**
+	 * Verifica se a solução pode ser alcançada a partir deste tabuleiro, pela paridade das inversões.
+	 * 
+	 * Uma inversão é um par de peças (sem contar o espaço vazio) em ordem trocada na leitura linha a linha.
+	 * Movimentos horizontais não alteram as inversões, e um movimento vertical salta a peça sobre n-1 outras:
+	 * <ul>
+	 * 	<li>com n ímpar a paridade das inversões nunca muda, e a solução (zero inversões) exige que seja par;</li>
+	 * 	<li>com n par cada movimento vertical muda a paridade das inversões e a linha do espaço vazio, então a paridade
+	 * 		da soma das inversões com a linha do vazio é invariante e, como na solução o vazio está na linha 0, deve ser par.</li>
+	 * </ul>
+	 * 
+	 * @return verdadeiro se a solução é alcançável, falso caso contrário.
+	 */
+	public boolean eSolucionavel() {
+		int inversoes = 0;
+		for (int p = 0; p < n*n; p++) {
+			int peca = peca(p);
+			for (int q = p + 1; q < n*n; q++) {
+				int outra = peca(q);
+				if (outra != 0 && outra < peca) {
+					inversoes++;
 				}
-				peca++;
 			}
 		}
-		return true;
+		if (n % 2 == 1) {
+			return inversoes % 2 == 0;
+		}
+		return (inversoes + vazia / n) % 2 == 0;
 	}
 	
 	public int getTamanho(){
 		return n;
 	}
-	
+
+	/**
+	 * Codificação do tabuleiro em 64 bits, 4 bits por peça.
+	 *
+	 * @return código do tabuleiro.
+	 */
+	public long getCodigo(){
+		return estado;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + Arrays.deepHashCode(estado);
+		result = prime * result + Long.hashCode(zobrist);
 		result = prime * result + n;
 		return result;
 	}
@@ -110,7 +289,7 @@ public class NPuzzleTabuleiro {
 		if (getClass() != obj.getClass())
 			return false;
 		NPuzzleTabuleiro other = (NPuzzleTabuleiro) obj;
-		if (!Arrays.deepEquals(estado, other.estado))
+		if (estado != other.estado)
 			return false;
 		if (n != other.n)
 			return false;
@@ -123,7 +302,7 @@ public class NPuzzleTabuleiro {
 		for(int i = 0; i < n; i++){
 			builder.append("|");
 			for(int j = 0; j < n; j++){
-				int peca = estado[i][j];
+				int peca = getPeca(i, j);
 				if (peca>0) {
 					builder.append(peca);
 				} else {
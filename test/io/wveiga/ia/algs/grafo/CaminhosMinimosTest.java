@@ -0,0 +1,141 @@
+package io.wveiga.ia.algs.grafo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.wveiga.ia.algs.busca.info.BuscaAEstrela;
+import io.wveiga.ia.algs.busca.info.BuscaAEstrelaAnytime;
+import io.wveiga.ia.ed.Custo;
+import io.wveiga.ia.ed.Grafo;
+import io.wveiga.ia.problema.Acao;
+import io.wveiga.ia.problema.localizacao.Local;
+import io.wveiga.ia.problema.localizacao.Localizacao;
+
+/**
+ * Compara as buscas com pré-processamento (hierarquia de contração e marcos), o A* anytime e a matriz de distâncias
+ * com o {@link Dijkstra} em grafos direcionados aleatórios, gerados com sementes fixas.
+ *
+ * Os pesos são inteiros, de forma que as somas são exatas e as distâncias podem ser comparadas sem tolerância. Os
+ * grafos são esparsos, e alguns pares de vértices não têm caminho.
+ *
+ * @author Welington Veiga
+ */
+class CaminhosMinimosTest {
+
+	private static final int VERTICES = 300;
+	private static final int LIGACOES_POR_VERTICE = 3;
+	private static final int PARES = 40;
+
+	@ParameterizedTest
+	@ValueSource(longs = {1L, 2L, 3L, 42L, 2024L})
+	void buscasConcordamComDijkstra(long semente) {
+		Random aleatorio = new Random(semente);
+		Grafo<Local> grafo = grafoAleatorio(aleatorio);
+		Dijkstra<Local> dijkstra = new Dijkstra<>(grafo);
+		HierarquiaContracao<Local> hierarquia = HierarquiaContracao.constroi(grafo);
+		ConsultaHierarquia<Local> consulta = hierarquia.consulta();
+		Marcos<Local> marcos = Marcos.seleciona(grafo, 4);
+
+		for (int par = 0; par < PARES; par++) {
+			int origem = aleatorio.nextInt(VERTICES);
+			int destino = aleatorio.nextInt(VERTICES);
+			dijkstra.buscaTodos(origem);
+			double esperada = dijkstra.distancia(destino);
+			Localizacao problema = new Localizacao(grafo, grafo.vertice(origem), grafo.vertice(destino));
+			String caso = "semente " + semente + ", de " + origem + " a " + destino;
+
+			assertEquals(esperada, consulta.consulta(origem, destino), caso + ": consulta da hierarquia");
+			verificaSolucao(esperada, problema, new BuscaHierarquiaContracao<>(problema, hierarquia).buscar(),
+					caso + ": hierarquia de contração");
+			verificaSolucao(esperada, problema,
+					new BuscaAEstrela<>(problema, marcos.heuristica(problema.estadoObjetivo())).buscar(), caso + ": ALT");
+			verificaSolucao(esperada, problema,
+					new BuscaAEstrelaAnytime<>(problema, marcos.heuristica(problema.estadoObjetivo())).buscar(),
+					caso + ": A* anytime");
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = {1L, 7L, 42L})
+	void matrizConcordaComDijkstra(long semente) {
+		Random aleatorio = new Random(semente);
+		Grafo<Local> grafo = grafoAleatorio(aleatorio);
+		List<Local> origens = sorteia(grafo, aleatorio, 12);
+		List<Local> destinos = sorteia(grafo, aleatorio, 15);
+		MatrizDistancias<Local> matriz = MatrizDistancias.calcula(grafo, origens, destinos);
+
+		Dijkstra<Local> dijkstra = new Dijkstra<>(grafo);
+		for (int i = 0; i < origens.size(); i++) {
+			dijkstra.buscaTodos(grafo.indice(origens.get(i)));
+			for (int j = 0; j < destinos.size(); j++) {
+				assertEquals(dijkstra.distancia(grafo.indice(destinos.get(j))), matriz.distancia(i, j),
+						"semente " + semente + ", linha " + i + ", coluna " + j);
+			}
+		}
+	}
+
+	/**
+	 * Verifica que a solução existe apenas quando o Dijkstra alcança o destino, que liga a origem ao destino e que
+	 * tem o custo mínimo.
+	 */
+	private static void verificaSolucao(double esperada, Localizacao problema, Optional<List<Acao<Local>>> solucao,
+			String caso) {
+		if (esperada == Double.POSITIVE_INFINITY) {
+			assertFalse(solucao.isPresent(), caso + ": destino inalcançável");
+			return;
+		}
+		assertTrue(solucao.isPresent(), caso + ": solução não encontrada");
+		List<Acao<Local>> acoes = solucao.get();
+		assertEquals(problema.estadoInicial(), acoes.get(0).getEstadoAlvo(), caso + ": início");
+		assertEquals(problema.estadoObjetivo(), acoes.get(acoes.size() - 1).getEstadoAlvo(), caso + ": fim");
+		double custo = 0d;
+		for (int i = 1; i < acoes.size(); i++) {
+			Optional<Custo> ligacao = problema.getGrafo()
+					.getCustoLigacaoEntre(acoes.get(i - 1).getEstadoAlvo(), acoes.get(i).getEstadoAlvo());
+			assertTrue(ligacao.isPresent(), caso + ": ação " + i + " não é uma ligação do grafo");
+			custo += acoes.get(i).getCusto().toDouble();
+		}
+		assertEquals(esperada, custo, caso + ": custo");
+	}
+
+	/**
+	 * Grafo direcionado com pesos inteiros de 1 a 100, sem laços nem ligações repetidas.
+	 */
+	private static Grafo<Local> grafoAleatorio(Random aleatorio) {
+		Grafo.GrafoBuilder<Local> builder = Grafo.builder();
+		List<Local> locais = new ArrayList<>(VERTICES);
+		for (int i = 0; i < VERTICES; i++) {
+			Local local = new Local("v" + i);
+			locais.add(local);
+			builder.addVertice(local);
+		}
+		Set<Long> ligacoes = new HashSet<>();
+		for (int i = 0; i < VERTICES * LIGACOES_POR_VERTICE; i++) {
+			int origem = aleatorio.nextInt(VERTICES);
+			int destino = aleatorio.nextInt(VERTICES);
+			if (origem != destino && ligacoes.add((long) origem * VERTICES + destino)) {
+				builder.addLigacao(locais.get(origem), locais.get(destino), Custo.de(1 + aleatorio.nextInt(100)));
+			}
+		}
+		return builder.build();
+	}
+
+	private static List<Local> sorteia(Grafo<Local> grafo, Random aleatorio, int quantidade) {
+		List<Local> locais = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			locais.add(grafo.vertice(aleatorio.nextInt(VERTICES)));
+		}
+		return locais;
+	}
+}